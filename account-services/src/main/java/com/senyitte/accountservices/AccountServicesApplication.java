@@ -1,11 +1,18 @@
 package com.senyitte.accountservices;
 
+import com.senyitte.loadbalancer.PeakEwmaLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+// Appels Feign vers customer-service : choix entre deux instances selon latence et requêtes en cours
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+// Rattrapage périodique de la projection locale des customers (CustomerProjectionUpdater)
+@EnableScheduling
 public class AccountServicesApplication {
 
     public static void main(String[] args) {
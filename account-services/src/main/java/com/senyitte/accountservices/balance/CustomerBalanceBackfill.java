@@ -0,0 +1,58 @@
+package com.senyitte.accountservices.balance;
+
+import com.senyitte.accountservices.dtos.CustomerBalanceVerificationReport;
+import com.senyitte.accountservices.repository.DataMigrationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Initialisation des agrégats CustomerBalance pour les comptes créés avant eux : une vérification avec
+// correction forcée, au premier démarrage seulement (ligne "customer-balance-backfill" de data_migration).
+// Une seule instance la prend ; si elle s'arrête avant la fin, une autre la reprend après "lease"
+// (la correction n'ajoute que l'écart restant, la relancer est sans risque)
+@Component
+public class CustomerBalanceBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerBalanceBackfill.class);
+    static final String MIGRATION = "customer-balance-backfill";
+
+    private final CustomerBalanceVerifier verifier;
+    private final DataMigrationRepository migrationRepository;
+    private final boolean enabled;
+    private final Duration lease;
+
+    public CustomerBalanceBackfill(CustomerBalanceVerifier verifier,
+                                   DataMigrationRepository migrationRepository,
+                                   @Value("${account.customer-balance.backfill.enabled:true}") boolean enabled,
+                                   @Value("${account.customer-balance.backfill.lease:1h}") Duration lease) {
+        this.verifier = verifier;
+        this.migrationRepository = migrationRepository;
+        this.enabled = enabled;
+        this.lease = lease;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public void run() {
+        migrationRepository.createIfAbsent(MIGRATION);
+        Instant now = Instant.now();
+        if (migrationRepository.claim(MIGRATION, now, now.minus(lease)) == 0) {
+            return;
+        }
+        CustomerBalanceVerificationReport report = verifier.verify(true);
+        migrationRepository.complete(MIGRATION, Instant.now());
+        log.info("Customer balances backfilled: {} customers, {} initialized or corrected",
+                report.getCustomers(), report.getDrifted());
+    }
+}
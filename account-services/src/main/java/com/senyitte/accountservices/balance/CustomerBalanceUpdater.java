@@ -0,0 +1,96 @@
+package com.senyitte.accountservices.balance;
+
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.repository.CustomerBalanceRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Tient à jour les agrégats CustomerBalance dans la transaction qui modifie les comptes.
+// Les changements d'une opération sont cumulés par client, puis appliqués par ordre croissant de customerId :
+// deux transactions qui touchent les mêmes clients verrouillent leurs lignes d'agrégat dans le même ordre.
+// Les comptes sans type ne sont pas comptés (voir aussi CustomerBalanceVerifier).
+@Component
+public class CustomerBalanceUpdater {
+
+    private final CustomerBalanceRepository balanceRepository;
+
+    public CustomerBalanceUpdater(CustomerBalanceRepository balanceRepository) {
+        this.balanceRepository = balanceRepository;
+    }
+
+    public static Changes changes() {
+        return new Changes();
+    }
+
+    // À appeler dans la transaction (et sur le shard) des comptes modifiés
+    public void apply(Changes changes) {
+        Instant now = Instant.now();
+        changes.byCustomer.forEach((customerId, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            if (add(customerId, delta, now) == 0) {
+                // Première opération du client : ligne à zéro (une seule fois même en concurrence), puis incrément
+                balanceRepository.createIfAbsent(customerId, now);
+                add(customerId, delta, now);
+            }
+        });
+    }
+
+    private int add(Long customerId, Delta delta, Instant now) {
+        return balanceRepository.add(customerId, delta.currentAccounts, delta.currentBalance,
+                delta.savingsAccounts, delta.savingsBalance, now);
+    }
+
+    public static final class Changes {
+
+        private final Map<Long, Delta> byCustomer = new TreeMap<>();
+
+        public Changes opened(Account account) {
+            return add(account.getCustomerId(), account.getType(), 1, account.getBalanceMinor());
+        }
+
+        public Changes closed(Account account) {
+            return add(account.getCustomerId(), account.getType(), -1, -account.getBalanceMinor());
+        }
+
+        public Changes moved(Long customerId, AccountType type, long balanceDeltaMinor) {
+            return add(customerId, type, 0, balanceDeltaMinor);
+        }
+
+        // Écart quelconque (correction d'une dérive)
+        public Changes adjusted(Long customerId, AccountType type, long accounts, long balanceMinor) {
+            return add(customerId, type, accounts, balanceMinor);
+        }
+
+        private Changes add(Long customerId, AccountType type, long accounts, long balanceMinor) {
+            if (customerId == null || type == null) {
+                return this;
+            }
+            Delta delta = byCustomer.computeIfAbsent(customerId, id -> new Delta());
+            if (type == AccountType.SAVINGS) {
+                delta.savingsAccounts += accounts;
+                delta.savingsBalance += balanceMinor;
+            } else {
+                delta.currentAccounts += accounts;
+                delta.currentBalance += balanceMinor;
+            }
+            return this;
+        }
+    }
+
+    private static final class Delta {
+        private long currentAccounts;
+        private long currentBalance;
+        private long savingsAccounts;
+        private long savingsBalance;
+
+        boolean isZero() {
+            return currentAccounts == 0 && currentBalance == 0 && savingsAccounts == 0 && savingsBalance == 0;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.senyitte.accountservices.balance;
+
+import com.senyitte.accountservices.dtos.CustomerBalanceVerificationReport;
+import com.senyitte.accountservices.dtos.CustomerBalanceVerificationReport.Drift;
+import com.senyitte.accountservices.dtos.CustomerBalanceVerificationReport.Totals;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.CustomerBalance;
+import com.senyitte.accountservices.sharding.AccountShards;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Vérification des agrégats CustomerBalance : recalcul complet depuis les comptes, shard par shard.
+// Les deux côtés sont lus triés par client dans une même transaction REPEATABLE READ (même instantané,
+// pas de faux écart dû aux mouvements en cours) et comparés en fusion, en mémoire constante.
+// Correction (repair) : l'écart constaté est ajouté à la ligne, les mouvements commités depuis sont conservés.
+@Component
+public class CustomerBalanceVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerBalanceVerifier.class);
+    private static final int MAX_SAMPLES = 100;
+    private static final int REPAIR_CHUNK_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final CustomerBalanceUpdater balanceUpdater;
+    private final AccountShards shards;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean repair;
+
+    public CustomerBalanceVerifier(EntityManager entityManager,
+                                   CustomerBalanceUpdater balanceUpdater,
+                                   AccountShards shards,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${account.customer-balance.verification.enabled:false}") boolean enabled,
+                                   @Value("${account.customer-balance.verification.repair:false}") boolean repair) {
+        this.entityManager = entityManager;
+        this.balanceUpdater = balanceUpdater;
+        this.shards = shards;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.repair = repair;
+    }
+
+    @Scheduled(cron = "${account.customer-balance.verification.cron:0 0 3 * * *}")
+    public void nightly() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            verify(repair);
+        } catch (RuntimeException e) {
+            log.error("Customer balance verification failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public CustomerBalanceVerificationReport verify(boolean repair) {
+        long startedAt = System.nanoTime();
+        long customers = 0;
+        long drifted = 0;
+        List<Drift> samples = new ArrayList<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            ShardResult result = shards.on(shard, () -> snapshotTransaction.execute(status -> compare()));
+            customers += result.customers();
+            drifted += result.drifts().size();
+            result.drifts().stream().limit(MAX_SAMPLES - samples.size()).forEach(samples::add);
+            if (repair && !result.drifts().isEmpty()) {
+                repair(shard, result.drifts());
+            }
+        }
+        CustomerBalanceVerificationReport report = CustomerBalanceVerificationReport.builder()
+                .customers(customers)
+                .drifted(drifted)
+                .repaired(repair && drifted > 0)
+                .durationMillis((System.nanoTime() - startedAt) / 1_000_000)
+                .samples(samples)
+                .build();
+        if (drifted > 0) {
+            log.warn("Customer balance drift: {} of {} customers{}", drifted, customers, repair ? " (repaired)" : "");
+        } else {
+            log.info("Customer balances verified: {} customers, no drift", customers);
+        }
+        return report;
+    }
+
+    private record ShardResult(long customers, List<Drift> drifts) {
+    }
+
+    private ShardResult compare() {
+        List<Drift> drifts = new ArrayList<>();
+        long customers = 0;
+        try (Stream<Object[]> expectedRows = entityManager.createQuery(
+                        "select a.customerId, a.type, count(a), sum(a.balanceMinor) from Account a " +
+                                "where a.customerId is not null and a.type is not null " +
+                                "group by a.customerId, a.type order by a.customerId", Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+             Stream<CustomerBalance> actualRows = entityManager.createQuery(
+                        "select b from CustomerBalance b order by b.customerId", CustomerBalance.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Object[]> expected = expectedRows.iterator();
+            Iterator<CustomerBalance> actual = actualRows.iterator();
+            Object[] row = expected.hasNext() ? expected.next() : null;
+            CustomerBalance balance = actual.hasNext() ? actual.next() : null;
+            while (row != null || balance != null) {
+                Long customerId = row == null ? balance.getCustomerId()
+                        : balance == null ? (Long) row[0]
+                        : Long.valueOf(Math.min((Long) row[0], balance.getCustomerId()));
+                // Totaux recalculés du client : une ligne par type de compte
+                Totals computed = new Totals();
+                while (row != null && row[0].equals(customerId)) {
+                    long accounts = (Long) row[2];
+                    long sum = (Long) row[3];
+                    if (row[1] == AccountType.SAVINGS) {
+                        computed.setSavingsAccounts(accounts);
+                        computed.setSavingsBalanceMinor(sum);
+                    } else {
+                        computed.setCurrentAccounts(accounts);
+                        computed.setCurrentBalanceMinor(sum);
+                    }
+                    row = expected.hasNext() ? expected.next() : null;
+                }
+                Totals stored = new Totals();
+                if (balance != null && balance.getCustomerId().equals(customerId)) {
+                    stored = new Totals(balance.getCurrentAccounts(), balance.getCurrentBalanceMinor(),
+                            balance.getSavingsAccounts(), balance.getSavingsBalanceMinor());
+                    entityManager.detach(balance);
+                    balance = actual.hasNext() ? actual.next() : null;
+                }
+                customers++;
+                if (!computed.equals(stored)) {
+                    drifts.add(new Drift(customerId, computed, stored));
+                }
+            }
+        }
+        return new ShardResult(customers, drifts);
+    }
+
+    // Écart = recalculé - stocké, ajouté par les mêmes UPDATE atomiques que les mouvements
+    private void repair(int shard, List<Drift> drifts) {
+        for (int from = 0; from < drifts.size(); from += REPAIR_CHUNK_SIZE) {
+            List<Drift> chunk = drifts.subList(from, Math.min(from + REPAIR_CHUNK_SIZE, drifts.size()));
+            shards.on(shard, () -> transactionTemplate.execute(status -> {
+                CustomerBalanceUpdater.Changes changes = CustomerBalanceUpdater.changes();
+                for (Drift drift : chunk) {
+                    Totals expected = drift.getExpected();
+                    Totals actual = drift.getActual();
+                    changes.adjusted(drift.getCustomerId(), AccountType.CURRENT,
+                            expected.getCurrentAccounts() - actual.getCurrentAccounts(),
+                            expected.getCurrentBalanceMinor() - actual.getCurrentBalanceMinor());
+                    changes.adjusted(drift.getCustomerId(), AccountType.SAVINGS,
+                            expected.getSavingsAccounts() - actual.getSavingsAccounts(),
+                            expected.getSavingsBalanceMinor() - actual.getSavingsBalanceMinor());
+                }
+                balanceUpdater.apply(changes);
+                return null;
+            }));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.senyitte.accountservices.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.senyitte.accountservices.timing.TimedCborHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// Format binaire CBOR pour les appels entre services (Accept: application/cbor)
+// Le bean remplace le convertisseur CBOR par défaut à sa place, après JSON :
+// un client qui envoie Accept: */* (navigateur, curl, gateway) reçoit toujours du JSON.
+// Même configuration Jackson que le JSON (modules, dates, spring.jackson.*), seul l'encodage change.
+// Sérialisation mesurée dans l'en-tête Server-Timing, comme le JSON (voir ServerTimingConfig).
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new TimedCborHttpMessageConverter(
+                builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,111 @@
+package com.senyitte.accountservices.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Limiteur de concurrence des requêtes, activé avec les threads virtuels (profil "virtual").
+// Avec des threads virtuels il n'y a plus de pool Tomcat borné : sans limite, des milliers
+// de requêtes s'empileraient dans la file d'attente de Hikari jusqu'au connection-timeout.
+// Le nombre de requêtes en cours est donc borné à maximum-pool-size × multiplier,
+// les suivantes attendent au plus acquire-timeout puis reçoivent un 503.
+// Une requête asynchrone (exports NDJSON /stream) garde son permis jusqu'à la fin de l'écriture :
+// le StreamingResponseBody lit la base après le retour de doFilter.
+@Component
+@ConditionalOnProperty(name = "concurrency.limit.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitFilter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                                  @Value("${concurrency.limit.multiplier:2}") int multiplier,
+                                  @Value("${concurrency.limit.acquire-timeout:1s}") Duration acquireTimeout) {
+        this.permits = new Semaphore(Math.max(1, maximumPoolSize * multiplier), true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        boolean releasedLater = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Traitement asynchrone en cours : permis rendu à sa fin (complete, erreur ou timeout)
+                request.getAsyncContext().addListener(new PermitRelease());
+                releasedLater = true;
+            }
+        } finally {
+            if (!releasedLater) {
+                permits.release();
+            }
+        }
+    }
+
+    // Le redispatch de fin d'un traitement asynchrone ne prend pas de second permis
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    private final class PermitRelease implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        // Nouveau cycle asynchrone : les listeners sont à réenregistrer
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        // Timeout ou erreur sont suivis de onComplete : un seul release
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
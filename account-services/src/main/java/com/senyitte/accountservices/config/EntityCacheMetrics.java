@@ -0,0 +1,48 @@
+package com.senyitte.accountservices.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Collection;
+
+// Efficacité du cache de second niveau par région, lue dans les statistiques Hibernate
+// (hibernate.generate_statistics=true) : hibernate.second.level.cache.requests{region,result=hit|miss}
+// et hibernate.second.level.cache.puts{region}
+public class EntityCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+    private final Collection<String> regions;
+
+    public EntityCacheMetrics(Statistics statistics, Collection<String> regions) {
+        this.statistics = statistics;
+        this.regions = regions;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics;
+            try {
+                regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            } catch (IllegalArgumentException e) {
+                // Région déclarée mais utilisée par aucune entité
+                continue;
+            }
+            FunctionCounter.builder("hibernate.second.level.cache.requests", regionStatistics,
+                            CacheRegionStatistics::getHitCount)
+                    .tags("region", region, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.requests", regionStatistics,
+                            CacheRegionStatistics::getMissCount)
+                    .tags("region", region, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.puts", regionStatistics,
+                            CacheRegionStatistics::getPutCount)
+                    .tags("region", region)
+                    .register(registry);
+        }
+    }
+}
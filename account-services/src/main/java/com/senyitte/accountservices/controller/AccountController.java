@@ -1,22 +1,37 @@
 package com.senyitte.accountservices.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.senyitte.accountservices.dtos.AccountRequest;
 import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.accountservices.dtos.BulkAccountResponse;
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.dtos.CustomerBalanceResponse;
+import com.senyitte.accountservices.dtos.ResourceVersion;
+import com.senyitte.accountservices.mappers.AccountMapper;
 import com.senyitte.accountservices.services.AccountService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/accounts")
 public class AccountController {
 
     private final AccountService accountService;
+    private final ObjectMapper objectMapper;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, ObjectMapper objectMapper) {
         this.accountService = accountService;
+        this.objectMapper = objectMapper;
     }
 
     // POST /api/accounts
@@ -26,22 +41,88 @@ public class AccountController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // POST /api/accounts/bulk
+    // Corps : tableau d'AccountRequest, réponse : un résultat par élément (CREATED / REJECTED)
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkAccountResponse> createAccounts(@RequestBody List<AccountRequest> requests) {
+        return ResponseEntity.ok(accountService.createAccounts(requests));
+    }
+
     // GET /api/accounts
     @GetMapping
     public ResponseEntity<List<AccountResponse>> getAllAccounts() {
         return ResponseEntity.ok(accountService.getAllAccounts());
     }
 
+    // GET /api/accounts/page?after=0&size=100
+    // Pagination par curseur : repasser "nextCursor" en "after" pour la page suivante
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<AccountResponse>> getAccountsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(accountService.getAccountsPage(after, size));
+    }
+
+    // GET /api/accounts/stream
+    // NDJSON : un compte JSON par ligne, écrit au fil de la lecture en base
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAccounts() {
+        StreamingResponseBody body = out -> accountService.streamAllAccounts(account -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(account));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     // GET /api/accounts/{id}
+    // GET conditionnel : les validateurs sont calculés depuis la version du compte et celle du customer
+    // connu localement. Si If-None-Match / If-Modified-Since correspondent, 304 immédiat :
+    // ni chargement du compte, ni appel customer-service, ni sérialisation JSON
     @GetMapping("/{id}")
-    public ResponseEntity<AccountResponse> getAccount(@PathVariable Long id) {
-        return ResponseEntity.ok(accountService.getAccount(id));
+    public ResponseEntity<AccountResponse> getAccount(@PathVariable Long id, WebRequest request) {
+        Optional<ResourceVersion> version = accountService.getAccountVersion(id);
+        if (version.isPresent()
+                && request.checkNotModified(version.get().getEtag(), toEpochMilli(version.get().getLastModified()))) {
+            return null;
+        }
+        AccountResponse response = accountService.getAccount(id);
+        // Réponse partielle (customer indisponible) : pas de validateurs, elle ne doit pas être revalidée comme complète
+        if (response.isCustomerUnavailable() && response.getCustomerId() != null) {
+            return ResponseEntity.ok(response);
+        }
+        ResourceVersion current = AccountMapper.version(response.getId(), response.getVersion(), response.getUpdatedAt(),
+                response.getCustomerId(), response.getCustomer());
+        return ResponseEntity.ok()
+                .eTag(current.getEtag())
+                .lastModified(toEpochMilli(current.getLastModified()))
+                .body(response);
+    }
+
+    // -1 = pas de Last-Modified
+    private static long toEpochMilli(Instant instant) {
+        return instant == null ? -1 : instant.toEpochMilli();
     }
 
-    // GET /api/accounts/customer/{customerId}
+    // GET /api/accounts/customer/{customerId}?includeCustomer=false
+    // includeCustomer=false : pas de customer embarqué ni d'appel Feign (utilisé par l'overview de la gateway)
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<AccountResponse>> getAccountsByCustomerId(@PathVariable Long customerId) {
-        return ResponseEntity.ok(accountService.getAccountsByCustomerId(customerId));
+    public ResponseEntity<List<AccountResponse>> getAccountsByCustomerId(
+            @PathVariable Long customerId,
+            @RequestParam(defaultValue = "true") boolean includeCustomer) {
+        return ResponseEntity.ok(accountService.getAccountsByCustomerId(customerId, includeCustomer));
+    }
+
+    // GET /api/accounts/customer/{customerId}/balances
+    // Nombre de comptes et soldes du client par type, lus depuis l'agrégat précalculé
+    @GetMapping("/customer/{customerId}/balances")
+    public ResponseEntity<CustomerBalanceResponse> getCustomerBalance(@PathVariable Long customerId) {
+        return ResponseEntity.ok(accountService.getCustomerBalance(customerId));
     }
 
     // PUT /api/accounts/{id}
@@ -0,0 +1,28 @@
+package com.senyitte.accountservices.controller;
+
+import com.senyitte.accountservices.balance.CustomerBalanceVerifier;
+import com.senyitte.accountservices.dtos.CustomerBalanceVerificationReport;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Endpoint interne (non routé par la gateway) pour vérifier les agrégats par client
+@RestController
+@RequestMapping("/internal/customer-balances")
+public class CustomerBalanceController {
+
+    private final CustomerBalanceVerifier customerBalanceVerifier;
+
+    public CustomerBalanceController(CustomerBalanceVerifier customerBalanceVerifier) {
+        this.customerBalanceVerifier = customerBalanceVerifier;
+    }
+
+    // POST /internal/customer-balances/verify?repair=true : recalcul complet, écarts corrigés si repair
+    // (repair=true sert aussi à initialiser les agrégats des comptes existants)
+    @PostMapping("/verify")
+    public ResponseEntity<CustomerBalanceVerificationReport> verify(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(customerBalanceVerifier.verify(repair));
+    }
+}
@@ -0,0 +1,39 @@
+package com.senyitte.accountservices.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.senyitte.accountservices.customer.CustomerCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Endpoint interne (non routé par la gateway) pour dimensionner le cache customers
+@RestController
+@RequestMapping("/internal/customer-cache")
+public class CustomerCacheController {
+
+    private final CustomerCache customerCache;
+
+    public CustomerCacheController(CustomerCache customerCache) {
+        this.customerCache = customerCache;
+    }
+
+    // GET /internal/customer-cache/stats
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        CacheStats stats = customerCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", customerCache.estimatedSize());
+        body.put("hitCount", stats.hitCount());
+        body.put("missCount", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictionCount", stats.evictionCount());
+        body.put("loadSuccessCount", stats.loadSuccessCount());
+        body.put("loadFailureCount", stats.loadFailureCount());
+        body.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,54 @@
+package com.senyitte.accountservices.controller;
+
+import com.senyitte.accountservices.customer.CustomerProjectionStore;
+import com.senyitte.accountservices.customer.CustomerProjectionUpdater;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Endpoint interne (non routé par la gateway) pour piloter la projection locale des customers
+@RestController
+@RequestMapping("/internal/customer-projection")
+public class CustomerProjectionController {
+
+    private final CustomerProjectionUpdater projectionUpdater;
+    private final CustomerProjectionStore projectionStore;
+
+    public CustomerProjectionController(CustomerProjectionUpdater projectionUpdater,
+                                        CustomerProjectionStore projectionStore) {
+        this.projectionUpdater = projectionUpdater;
+        this.projectionStore = projectionStore;
+    }
+
+    // POST /internal/customer-projection/catch-up : rattrapage immédiat depuis le dernier offset
+    @PostMapping("/catch-up")
+    public ResponseEntity<Map<String, Object>> catchUp() {
+        return ResponseEntity.ok(status(projectionUpdater.catchUp()));
+    }
+
+    // POST /internal/customer-projection/rebuild : instantané complet puis rejeu du flux
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        return ResponseEntity.ok(status(projectionUpdater.rebuild()));
+    }
+
+    // GET /internal/customer-projection/status
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(status(null));
+    }
+
+    private Map<String, Object> status(Long offset) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ready", projectionStore.isReady());
+        if (offset != null) {
+            body.put("offset", offset);
+        }
+        return body;
+    }
+}
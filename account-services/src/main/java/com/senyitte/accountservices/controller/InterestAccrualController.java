@@ -0,0 +1,30 @@
+package com.senyitte.accountservices.controller;
+
+import com.senyitte.accountservices.dtos.InterestAccrualReport;
+import com.senyitte.accountservices.interest.InterestAccrualJob;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+// Endpoint interne (non routé par la gateway) pour lancer ou reprendre le calcul des intérêts
+@RestController
+@RequestMapping("/internal/interest-accrual")
+public class InterestAccrualController {
+
+    private final InterestAccrualJob interestAccrualJob;
+
+    public InterestAccrualController(InterestAccrualJob interestAccrualJob) {
+        this.interestAccrualJob = interestAccrualJob;
+    }
+
+    // POST /internal/interest-accrual/run?date=2026-01-31 : traite la journée, ou reprend une exécution interrompue
+    @PostMapping("/run")
+    public ResponseEntity<InterestAccrualReport> run(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(interestAccrualJob.run(date));
+    }
+}
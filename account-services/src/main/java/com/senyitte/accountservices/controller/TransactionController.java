@@ -0,0 +1,49 @@
+package com.senyitte.accountservices.controller;
+
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.dtos.LedgerEntryResponse;
+import com.senyitte.accountservices.dtos.MovementRequest;
+import com.senyitte.accountservices.dtos.TransactionResponse;
+import com.senyitte.accountservices.dtos.TransferRequest;
+import com.senyitte.accountservices.services.TransactionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/accounts")
+public class TransactionController {
+
+    private final TransactionService transactionService;
+
+    public TransactionController(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    // POST /api/accounts/{id}/credit
+    @PostMapping("/{id}/credit")
+    public ResponseEntity<TransactionResponse> credit(@PathVariable Long id, @RequestBody MovementRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.credit(id, request));
+    }
+
+    // POST /api/accounts/{id}/debit
+    @PostMapping("/{id}/debit")
+    public ResponseEntity<TransactionResponse> debit(@PathVariable Long id, @RequestBody MovementRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.debit(id, request));
+    }
+
+    // POST /api/accounts/transfers
+    @PostMapping("/transfers")
+    public ResponseEntity<TransactionResponse> transfer(@RequestBody TransferRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.transfer(request));
+    }
+
+    // GET /api/accounts/{id}/transactions?before=&size=50
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<CursorPage<LedgerEntryResponse>> getLedger(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.getLedger(id, before, size));
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,4 +16,12 @@ public class Customer {
     private String firstName;
     private String lastName;
     private String email;
+    private Long version;
+    private Instant updatedAt;
+
+    // Même valeur que l'ETag de GET /api/customers/{id} (CustomerMapper.etag côté customer-service)
+    // Pas un getter : non sérialisé
+    public String etag() {
+        return "\"" + id + "." + version + "\"";
+    }
 }
@@ -0,0 +1,192 @@
+package com.senyitte.accountservices.customer;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.senyitte.accountservices.feign.CustomerBatchLoader;
+import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.timing.ServerTiming;
+import com.senyitte.accountservices.tracing.ContextExecutors;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Cache local (near-cache) devant CustomerClient :
+// - éviction par taille et par TTL
+// - refresh-ahead : une entrée lue après refreshAfterWrite est rechargée en arrière-plan,
+//   l'ancienne valeur reste servie pendant le rechargement
+// - single-flight : des lectures concurrentes du même id partagent un seul appel Feign
+// - les lectures multiples passent par l'endpoint batch pour les ids absents
+// - dès que la projection locale est prête (CustomerProjectionStore), les chargements la lisent
+//   à la place de customer-service : plus aucun appel distant sur le chemin de lecture
+// - les appels distants passent par CustomerCallGuard (bulkhead, circuit breaker, hedging)
+//
+// Cache asynchrone : l'appel Feign tourne sur loaderExecutor et les lecteurs attendent un
+// CompletableFuture. Avec un cache synchrone le chargement s'exécute dans le verrou
+// (synchronized) de ConcurrentHashMap.compute, ce qui épingle le thread virtuel appelant
+// sur son carrier pendant toute la durée de l'appel HTTP.
+@Component
+public class CustomerCache implements MeterBinder {
+
+    private final AsyncLoadingCache<Long, Customer> cache;
+    private final ExecutorService platformExecutor;
+    private final CustomerProjectionStore projectionStore;
+
+    public CustomerCache(CustomerClient customerClient,
+                         CustomerBatchLoader customerBatchLoader,
+                         CustomerProjectionStore projectionStore,
+                         CustomerCallGuard callGuard,
+                         CustomerCacheProperties properties,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.projectionStore = projectionStore;
+        Executor loaderExecutor;
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("customer-cache-");
+            virtualExecutor.setVirtualThreads(true);
+            loaderExecutor = virtualExecutor;
+            this.platformExecutor = null;
+        } else {
+            this.platformExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory("customer-cache-"));
+            loaderExecutor = platformExecutor;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .executor(ContextExecutors.wrap(loaderExecutor))
+                .recordStats()
+                .buildAsync(new CacheLoader<>() {
+                    @Override
+                    public Customer load(Long id) {
+                        return projectionStore.isReady()
+                                ? projectionStore.find(id)
+                                : callGuard.callHedged(() -> customerClient.getCustomer(id));
+                    }
+
+                    // Refresh-ahead : GET conditionnel, un customer inchangé ne coûte qu'un 304 sans corps
+                    @Override
+                    public Customer reload(Long id, Customer oldValue) {
+                        if (projectionStore.isReady()) {
+                            return projectionStore.find(id);
+                        }
+                        if (oldValue.getVersion() == null) {
+                            return callGuard.call(() -> customerClient.getCustomer(id));
+                        }
+                        try {
+                            return callGuard.call(() -> customerClient.revalidateCustomer(id, oldValue.etag()));
+                        } catch (FeignException e) {
+                            if (e.status() == HttpStatus.NOT_MODIFIED.value()) {
+                                return oldValue;
+                            }
+                            throw e;
+                        }
+                    }
+
+                    @Override
+                    public Map<Long, Customer> loadAll(Set<? extends Long> ids) {
+                        List<Long> idList = new ArrayList<>(ids);
+                        return projectionStore.isReady() ? projectionStore.findAll(idList) : customerBatchLoader.loadAll(idList);
+                    }
+                });
+    }
+
+    public Customer get(Long customerId) {
+        if (customerId == null) {
+            return null;
+        }
+        try (ServerTiming.Lap lap = ServerTiming.start(ServerTiming.Phase.CUSTOMER)) {
+            return join(cache.get(customerId));
+        }
+    }
+
+    // Lecture sans chargement : null si absent du cache ou encore en cours de chargement
+    public Customer getIfPresent(Long customerId) {
+        if (customerId == null) {
+            return null;
+        }
+        CompletableFuture<Customer> future = cache.getIfPresent(customerId);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    // Lecture locale uniquement (cache, sinon projection) : jamais d'appel distant
+    // null si le customer n'est connu localement nulle part
+    public Customer getLocal(Long customerId) {
+        Customer cached = getIfPresent(customerId);
+        if (cached != null || customerId == null || !projectionStore.isReady()) {
+            return cached;
+        }
+        return projectionStore.find(customerId);
+    }
+
+    // Les ids inconnus côté customer-service sont absents de la map retournée
+    public Map<Long, Customer> getAll(Collection<Long> customerIds) {
+        try (ServerTiming.Lap lap = ServerTiming.start(ServerTiming.Phase.CUSTOMER)) {
+            return join(cache.getAll(customerIds.stream().filter(Objects::nonNull).distinct().toList()));
+        }
+    }
+
+    public void invalidate(Long customerId) {
+        cache.synchronous().invalidate(customerId);
+    }
+
+    public void invalidateAll(Collection<Long> customerIds) {
+        cache.synchronous().invalidateAll(customerIds);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    // Expose hits / misses / évictions / temps de chargement (cache.gets, cache.evictions...)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "customers");
+    }
+
+    // Propage l'exception d'origine (ex. FeignException 404) plutôt que la CompletionException
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdown();
+        }
+    }
+}
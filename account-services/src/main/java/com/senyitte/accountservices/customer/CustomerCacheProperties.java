@@ -0,0 +1,20 @@
+package com.senyitte.accountservices.customer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Réglages du cache local des customers (préfixe "customer.cache" dans application.properties)
+@Data
+@Component
+@ConfigurationProperties(prefix = "customer.cache")
+public class CustomerCacheProperties {
+    // Nombre max d'entrées (éviction par taille au-delà)
+    private long maximumSize = 10_000;
+    // Durée de vie d'une entrée après chargement
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    // Rafraîchissement en arrière-plan d'une entrée encore lue (doit être < expireAfterWrite)
+    private Duration refreshAfterWrite = Duration.ofMinutes(2);
+}
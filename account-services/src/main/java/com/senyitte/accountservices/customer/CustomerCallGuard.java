@@ -0,0 +1,171 @@
+package com.senyitte.accountservices.customer;
+
+import com.senyitte.accountservices.tracing.ContextExecutors;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Politiques de résilience de la dépendance account → customer-service :
+// - bulkhead : nombre borné d'appels simultanés, rejet immédiat au-delà (pas de file d'attente)
+// - circuit breaker : après trop d'échecs ou d'appels lents, rejet immédiat pendant wait-duration-in-open-state
+// - hedging (optionnel, lecture unitaire) : si la réponse tarde au-delà du p95 observé, un second appel
+//   part (le load balancer le dirige vers l'instance la moins chargée) et la première réponse gagne
+// Un rejet ou une panne devient CustomerUnavailableException : les comptes sont renvoyés sans customer.
+// Réglages : resilience4j.circuitbreaker/bulkhead.instances.customer-service.* et customer.hedging.*
+@Component
+public class CustomerCallGuard implements MeterBinder {
+
+    static final String DEPENDENCY = "customer-service";
+    private static final int RESERVOIR_SIZE = 1024;
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final CustomerHedgingProperties hedging;
+    private final Predicate<Throwable> failurePredicate = new CustomerFailurePredicate();
+    private final LatencyReservoir latencies;
+    private final ExecutorService hedgeExecutor;
+    private final Executor tracedHedgeExecutor;
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public CustomerCallGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                             BulkheadRegistry bulkheadRegistry,
+                             CustomerHedgingProperties hedging) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(DEPENDENCY);
+        this.bulkhead = bulkheadRegistry.bulkhead(DEPENDENCY);
+        this.hedging = hedging;
+        this.latencies = new LatencyReservoir(RESERVOIR_SIZE, hedging.getPercentile());
+        // Threads bornés de fait par le bulkhead : chaque tentative prend un permis avant d'appeler
+        this.hedgeExecutor = hedging.isEnabled()
+                ? Executors.newCachedThreadPool(new CustomizableThreadFactory("customer-hedge-"))
+                : null;
+        this.tracedHedgeExecutor = hedgeExecutor != null ? ContextExecutors.wrap(hedgeExecutor) : null;
+    }
+
+    // Appel protégé (bulkhead puis circuit breaker) ; les réponses 4xx/304 sont propagées telles quelles
+    public <T> T call(Supplier<T> call) {
+        // Bulkhead à l'extérieur : un rejet pour saturation n'est pas compté comme une panne par le circuit
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new CustomerUnavailableException(e);
+        } catch (RuntimeException e) {
+            if (failurePredicate.test(e)) {
+                throw new CustomerUnavailableException(e);
+            }
+            throw e;
+        }
+    }
+
+    // Comme call(), avec un second appel si le premier dépasse le percentile de latence observé
+    public <T> T callHedged(Supplier<T> call) {
+        if (hedgeExecutor == null) {
+            return call(call);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger(1);
+        attempt(call, result, attempts, false);
+        long delay = hedgeDelayNanos();
+        if (delay > 0) {
+            try {
+                return result.get(delay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Pas de hedge si le circuit n'est pas fermé ou si le bulkhead n'a plus de marge
+                if (!result.isDone() && circuitBreaker.getState() == CircuitBreaker.State.CLOSED
+                        && bulkhead.getMetrics().getAvailableConcurrentCalls() > 0) {
+                    attempts.incrementAndGet();
+                    hedges.incrementAndGet();
+                    attempt(call, result, attempts, true);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CustomerUnavailableException(e);
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    // Première réussite gagnante ; échec seulement quand toutes les tentatives ont échoué
+    // (l'appel perdant n'est pas interrompu : un appel Feign bloquant ne se laisse pas annuler proprement)
+    private <T> void attempt(Supplier<T> call, CompletableFuture<T> result, AtomicInteger attempts, boolean hedge) {
+        CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T value = call(call);
+            latencies.record(System.nanoTime() - start);
+            return value;
+        }, tracedHedgeExecutor).whenComplete((value, error) -> {
+            if (error == null) {
+                if (result.complete(value) && hedge) {
+                    hedgeWins.incrementAndGet();
+                }
+            } else if (attempts.decrementAndGet() == 0) {
+                result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+    }
+
+    // 0 = pas encore assez de mesures, on attend simplement la première tentative
+    long hedgeDelayNanos() {
+        if (latencies.count() < hedging.getMinSamples() || latencies.percentileNanos() < 0) {
+            return 0;
+        }
+        return Math.max(latencies.percentileNanos(), hedging.getMinDelay().toNanos());
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new CustomerUnavailableException(cause);
+    }
+
+    // États du circuit et du bulkhead : resilience4j.circuitbreaker.* / resilience4j.bulkhead.* (auto-configuration)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("customer.hedging.hedges", hedges, AtomicLong::get)
+                .description("Seconds appels envoyés à customer-service").register(registry);
+        FunctionCounter.builder("customer.hedging.wins", hedgeWins, AtomicLong::get)
+                .description("Seconds appels arrivés avant le premier").register(registry);
+        Gauge.builder("customer.hedging.delay", this, guard -> guard.hedgeDelayNanos() / 1_000_000.0)
+                .baseUnit("milliseconds").register(registry);
+    }
+
+    long hedgeCount() {
+        return hedges.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.senyitte.accountservices.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Événement du flux GET /api/customers/changes : état complet du customer après le changement
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerChange {
+    private Long offset;
+    private Long customerId;
+    private CustomerChangeType type;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Long version;
+    private Instant updatedAt;
+    private Instant occurredAt;
+}
@@ -0,0 +1,20 @@
+package com.senyitte.accountservices.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerChangeFeed {
+    private List<CustomerChange> events;
+    private Long nextOffset;
+    private Long headOffset;
+    // L'offset demandé a été purgé côté customer-service : reconstruction complète nécessaire
+    private boolean resetRequired;
+}
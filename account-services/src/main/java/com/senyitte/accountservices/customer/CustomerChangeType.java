@@ -0,0 +1,7 @@
+package com.senyitte.accountservices.customer;
+
+public enum CustomerChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,17 @@
+package com.senyitte.accountservices.customer;
+
+import feign.FeignException;
+
+import java.util.function.Predicate;
+
+// Erreurs qui comptent contre customer-service (circuit breaker) : 5xx, timeouts, erreurs réseau
+// Les 4xx (customer inexistant...) et le 304 de revalidation sont des réponses normales
+public class CustomerFailurePredicate implements Predicate<Throwable> {
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof FeignException feignException) {
+            return feignException.status() < 0 || feignException.status() >= 500;
+        }
+        return true;
+    }
+}
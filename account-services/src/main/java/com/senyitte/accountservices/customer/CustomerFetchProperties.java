@@ -0,0 +1,23 @@
+package com.senyitte.accountservices.customer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Réglages de la récupération asynchrone des customers (préfixe "customer.fetch")
+@Data
+@Component
+@ConfigurationProperties(prefix = "customer.fetch")
+public class CustomerFetchProperties {
+    // false : appel synchrone dans le thread de la requête (comportement historique)
+    private boolean asyncEnabled = true;
+    // Budget de latence de l'appel customer, compté depuis le début de la méthode de service.
+    // Au-delà, la réponse est renvoyée sans customer (customerUnavailable = true)
+    private Duration timeout = Duration.ofMillis(500);
+    // Pool borné dédié : une dépendance lente ne peut pas consommer tous les threads
+    private int corePoolSize = 8;
+    private int maxPoolSize = 32;
+    private int queueCapacity = 200;
+}
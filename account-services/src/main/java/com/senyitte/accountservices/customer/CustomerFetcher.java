@@ -0,0 +1,107 @@
+package com.senyitte.accountservices.customer;
+
+import com.senyitte.accountservices.timing.ServerTiming;
+import com.senyitte.accountservices.tracing.ContextExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Lance la lecture d'un customer en parallèle du travail en base et l'attend
+// jusqu'à une échéance (deadline) calculée au début de la méthode de service.
+// Latence de la requête ≈ max(db, customer) au lieu de db + customer.
+@Component
+public class CustomerFetcher implements MeterBinder {
+
+    private final CustomerCache customerCache;
+    private final CustomerFetchProperties properties;
+    private final ThreadPoolExecutor executor;
+    // Soumission avec le contexte de trace de la requête
+    private final Executor tracedExecutor;
+
+    public CustomerFetcher(CustomerCache customerCache, CustomerFetchProperties properties) {
+        this.customerCache = customerCache;
+        this.properties = properties;
+        // File bornée + AbortPolicy : si le pool est saturé on répond sans customer
+        // plutôt que d'empiler des requêtes qui dépasseront de toute façon leur budget
+        this.executor = new ThreadPoolExecutor(
+                properties.getCorePoolSize(), properties.getMaxPoolSize(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("customer-fetch-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.tracedExecutor = ContextExecutors.wrap(executor);
+    }
+
+    // Échéance absolue (System.nanoTime) à passer à await(), à calculer en entrée de méthode
+    public long deadline() {
+        return System.nanoTime() + properties.getTimeout().toNanos();
+    }
+
+    public CompletableFuture<Customer> fetchAsync(Long customerId) {
+        // Déjà en cache : pas de saut de thread
+        Customer cached = customerCache.getIfPresent(customerId);
+        if (cached != null || !properties.isAsyncEnabled()) {
+            try {
+                return CompletableFuture.completedFuture(cached != null ? cached : customerCache.get(customerId));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> customerCache.get(customerId), tracedExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new TimeoutException("customer-fetch pool saturated"));
+        }
+    }
+
+    // Optional vide = budget dépassé, pool saturé ou customer-service indisponible (circuit ouvert...) :
+    // l'appelant renvoie une réponse partielle.
+    // Les autres erreurs (ex. customer inexistant) sont propagées comme avant.
+    public Optional<Customer> await(CompletableFuture<Customer> future, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        try (ServerTiming.Lap lap = ServerTiming.start(ServerTiming.Phase.CUSTOMER)) {
+            return Optional.ofNullable(future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            // Le chargement continue en arrière-plan et alimentera le cache pour la requête suivante
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof TimeoutException || cause instanceof CustomerUnavailableException) {
+                return Optional.empty();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    // Taille du pool, file d'attente, tâches terminées (executor.*{name=customer.fetch})
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "customer.fetch", List.of()).bindTo(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
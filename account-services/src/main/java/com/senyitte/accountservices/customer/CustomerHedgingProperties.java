@@ -0,0 +1,22 @@
+package com.senyitte.accountservices.customer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Requêtes "hedgées" vers customer-service (préfixe "customer.hedging")
+@Data
+@Component
+@ConfigurationProperties(prefix = "customer.hedging")
+public class CustomerHedgingProperties {
+    // Désactivé par défaut : chaque hedge est un appel supplémentaire vers customer-service
+    private boolean enabled = false;
+    // Le second appel part quand le premier dépasse ce percentile des latences observées
+    private double percentile = 0.95;
+    // Délai plancher : jamais de hedge avant ce délai, même si le percentile est plus bas
+    private Duration minDelay = Duration.ofMillis(10);
+    // Nombre de mesures avant d'oser un hedge (percentile non significatif en dessous)
+    private int minSamples = 100;
+}
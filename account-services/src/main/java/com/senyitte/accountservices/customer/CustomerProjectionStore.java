@@ -0,0 +1,64 @@
+package com.senyitte.accountservices.customer;
+
+import com.senyitte.accountservices.models.CustomerProjection;
+import com.senyitte.accountservices.repository.CustomerProjectionRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Lecture de la projection locale des customers (aucun appel distant)
+// Tant qu'elle n'est pas prête (premier chargement ou reconstruction en cours),
+// CustomerCache retombe sur les appels Feign
+@Component
+public class CustomerProjectionStore {
+
+    private final CustomerProjectionRepository projectionRepository;
+    private final AtomicBoolean ready = new AtomicBoolean(false);
+
+    public CustomerProjectionStore(CustomerProjectionRepository projectionRepository) {
+        this.projectionRepository = projectionRepository;
+    }
+
+    public boolean isReady() {
+        return ready.get();
+    }
+
+    void markReady() {
+        ready.set(true);
+    }
+
+    void markNotReady() {
+        ready.set(false);
+    }
+
+    // null si le customer n'existe pas (ou plus) côté customer-service
+    public Customer find(Long customerId) {
+        return projectionRepository.findById(customerId)
+                .filter(projection -> !projection.isDeleted())
+                .map(CustomerProjectionStore::toCustomer)
+                .orElse(null);
+    }
+
+    // Une seule requête "WHERE customer_id IN (...)" ; les ids inconnus sont absents de la map
+    public Map<Long, Customer> findAll(Collection<Long> customerIds) {
+        return projectionRepository.findAllById(customerIds).stream()
+                .filter(projection -> !projection.isDeleted())
+                .map(CustomerProjectionStore::toCustomer)
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+    }
+
+    private static Customer toCustomer(CustomerProjection projection) {
+        return Customer.builder()
+                .id(projection.getCustomerId())
+                .firstName(projection.getFirstName())
+                .lastName(projection.getLastName())
+                .email(projection.getEmail())
+                .version(projection.getCustomerVersion())
+                .updatedAt(projection.getCustomerUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,229 @@
+package com.senyitte.accountservices.customer;
+
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.models.CustomerProjection;
+import com.senyitte.accountservices.models.ProjectionCheckpoint;
+import com.senyitte.accountservices.repository.CustomerProjectionRepository;
+import com.senyitte.accountservices.repository.ProjectionCheckpointRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Maintient la projection locale des customers à partir du flux de customer-service :
+// - rattrapage incrémental depuis le dernier offset appliqué (checkpoint en base)
+// - reconstruction complète (instantané paginé + rejeu du flux) au premier démarrage,
+//   quand le flux signale "resetRequired", ou à la demande (POST /internal/customer-projection/rebuild)
+// Chaque lot d'événements et son checkpoint sont commités ensemble : un redémarrage reprend exactement
+// où l'on s'était arrêté. Les événements portent l'état complet du customer, les rejouer est sans effet.
+// Les offsets du flux suivent l'ordre des ids d'événements, pas celui des versions : un événement de version
+// inférieure à celle de la projection est ignoré, et une suppression laisse une ligne "deleted" (tombstone).
+@Component
+public class CustomerProjectionUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerProjectionUpdater.class);
+    static final String CHECKPOINT = "customer-changes";
+
+    private final CustomerClient customerClient;
+    private final CustomerProjectionRepository projectionRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final CustomerProjectionStore projectionStore;
+    private final CustomerCache customerCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    // Un seul rattrapage / reconstruction à la fois (ReentrantLock plutôt que synchronized :
+    // les appels Feign faits sous le verrou n'épinglent pas les threads virtuels)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public CustomerProjectionUpdater(CustomerClient customerClient,
+                                     CustomerProjectionRepository projectionRepository,
+                                     ProjectionCheckpointRepository checkpointRepository,
+                                     CustomerProjectionStore projectionStore,
+                                     CustomerCache customerCache,
+                                     EntityManager entityManager,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${customer.projection.enabled:true}") boolean enabled,
+                                     @Value("${customer.projection.batch-size:500}") int batchSize) {
+        this.customerClient = customerClient;
+        this.projectionRepository = projectionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.projectionStore = projectionStore;
+        this.customerCache = customerCache;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${customer.projection.poll-interval:1s}")
+    public void poll() {
+        if (!enabled || !lock.tryLock()) {
+            return;
+        }
+        try {
+            catchUpLocked();
+        } catch (RuntimeException e) {
+            // customer-service indisponible : la projection reste servie telle quelle (légèrement en retard)
+            log.warn("Customer projection catch-up failed: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== RATTRAPAGE ====================
+    // Retourne l'offset atteint
+    public long catchUp() {
+        lock.lock();
+        try {
+            return catchUpLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== RECONSTRUCTION ====================
+    public long rebuild() {
+        lock.lock();
+        try {
+            return rebuildLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long catchUpLocked() {
+        Optional<ProjectionCheckpoint> checkpoint = checkpointRepository.findById(CHECKPOINT);
+        if (checkpoint.isEmpty()) {
+            return rebuildLocked();
+        }
+        // Projection complète en base (éventuellement en retard) : elle peut servir les lectures
+        projectionStore.markReady();
+        long offset = checkpoint.get().getLastOffset();
+        while (true) {
+            CustomerChangeFeed feed = customerClient.getChanges(offset, batchSize);
+            if (feed.isResetRequired()) {
+                log.warn("Customer change feed purged past offset {}, rebuilding projection", offset);
+                return rebuildLocked();
+            }
+            List<CustomerChange> events = feed.getEvents();
+            if (events == null || events.isEmpty()) {
+                return offset;
+            }
+            apply(events, feed.getNextOffset());
+            offset = feed.getNextOffset();
+            if (events.size() < batchSize) {
+                return offset;
+            }
+        }
+    }
+
+    private long rebuildLocked() {
+        // Pendant la reconstruction les lectures repassent par customer-service
+        projectionStore.markNotReady();
+        // La tête est lue AVANT l'instantané : les changements survenus pendant la copie
+        // seront rejoués ensuite par le rattrapage (idempotent, état complet)
+        long head = customerClient.getChangesHead();
+        transactionTemplate.executeWithoutResult(status -> {
+            projectionRepository.deleteAllInBatch();
+            checkpointRepository.deleteById(CHECKPOINT);
+        });
+        Long after = 0L;
+        int copied = 0;
+        do {
+            CursorPage<Customer> page = customerClient.getCustomersPage(after, batchSize);
+            List<Customer> customers = page.getItems();
+            transactionTemplate.executeWithoutResult(status -> {
+                Instant now = Instant.now();
+                for (Customer customer : customers) {
+                    entityManager.persist(toProjection(customer, 0L, now));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            copied += customers.size();
+            after = page.getNextCursor();
+        } while (after != null);
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.save(
+                ProjectionCheckpoint.builder().name(CHECKPOINT).lastOffset(head).updatedAt(Instant.now()).build()));
+        customerCache.invalidateAll();
+        log.info("Customer projection rebuilt from snapshot: {} customers at offset {}", copied, head);
+        return catchUpLocked();
+    }
+
+    // Applique un lot d'événements et avance le checkpoint dans la même transaction
+    private void apply(List<CustomerChange> events, long nextOffset) {
+        // Seul le changement le plus récent de chaque customer compte (état complet, plus grande version)
+        Map<Long, CustomerChange> latest = new LinkedHashMap<>();
+        for (CustomerChange event : events) {
+            latest.merge(event.getCustomerId(), event, (kept, next) -> version(next) < version(kept) ? kept : next);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            // Une seule requête pour les lignes existantes au lieu d'un SELECT par événement
+            Map<Long, CustomerProjection> existing = projectionRepository.findAllById(latest.keySet()).stream()
+                    .collect(Collectors.toMap(CustomerProjection::getCustomerId, Function.identity()));
+            for (CustomerChange change : latest.values()) {
+                CustomerProjection projection = existing.get(change.getCustomerId());
+                boolean deleted = change.getType() == CustomerChangeType.DELETED;
+                if (projection != null && projection.getCustomerVersion() != null
+                        && version(change) < projection.getCustomerVersion()) {
+                    // Changement plus ancien que l'état (ou la suppression) déjà appliqué
+                    continue;
+                }
+                if (projection == null) {
+                    projection = toProjection(Customer.builder().id(change.getCustomerId()).build(), change.getOffset(), now);
+                    entityManager.persist(projection);
+                }
+                // Entité gérée : l'UPDATE part au commit (dirty checking)
+                projection.setFirstName(deleted ? null : change.getFirstName());
+                projection.setLastName(deleted ? null : change.getLastName());
+                projection.setEmail(deleted ? null : change.getEmail());
+                projection.setCustomerVersion(version(change));
+                projection.setCustomerUpdatedAt(change.getUpdatedAt());
+                projection.setDeleted(deleted);
+                projection.setSourceOffset(change.getOffset());
+                projection.setRefreshedAt(now);
+            }
+            checkpointRepository.save(ProjectionCheckpoint.builder()
+                    .name(CHECKPOINT).lastOffset(nextOffset).updatedAt(now).build());
+        });
+        // Après commit seulement : un rechargement du cache relit la projection à jour
+        customerCache.invalidateAll(latest.keySet());
+    }
+
+    // Suppression sans version (événement antérieur) : définitive, aucun changement ne la remplace
+    private static long version(CustomerChange change) {
+        if (change.getVersion() != null) {
+            return change.getVersion();
+        }
+        return change.getType() == CustomerChangeType.DELETED ? Long.MAX_VALUE : 0L;
+    }
+
+    private static CustomerProjection toProjection(Customer customer, long sourceOffset, Instant now) {
+        return CustomerProjection.builder()
+                .customerId(customer.getId())
+                .firstName(customer.getFirstName())
+                .lastName(customer.getLastName())
+                .email(customer.getEmail())
+                .customerVersion(customer.getVersion())
+                .customerUpdatedAt(customer.getUpdatedAt())
+                .sourceOffset(sourceOffset)
+                .refreshedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.senyitte.accountservices.customer;
+
+// customer-service indisponible : circuit ouvert, bulkhead plein, 5xx, timeout ou connexion refusée
+// Les appelants répondent sans customer (customerUnavailable = true) au lieu d'échouer
+public class CustomerUnavailableException extends RuntimeException {
+    public CustomerUnavailableException(Throwable cause) {
+        super("customer-service unavailable: " + cause.getMessage(), cause);
+    }
+}
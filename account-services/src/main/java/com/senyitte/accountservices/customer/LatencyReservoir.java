@@ -0,0 +1,45 @@
+package com.senyitte.accountservices.customer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Dernières latences observées (tampon circulaire) et percentile recalculé toutes les REFRESH mesures
+// Le tri ne se fait donc jamais sur le chemin de chaque requête
+final class LatencyReservoir {
+
+    private static final int REFRESH = 64;
+
+    private final long[] samples;
+    private final double percentile;
+    private final AtomicLong count = new AtomicLong();
+    private volatile long cachedNanos = -1;
+
+    LatencyReservoir(int capacity, double percentile) {
+        this.samples = new long[capacity];
+        this.percentile = percentile;
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples[(int) (n % samples.length)] = nanos;
+        if ((n + 1) % REFRESH == 0) {
+            refresh(Math.min(n + 1, samples.length));
+        }
+    }
+
+    long count() {
+        return count.get();
+    }
+
+    // -1 tant qu'aucun calcul n'a eu lieu
+    long percentileNanos() {
+        return cachedNanos;
+    }
+
+    private void refresh(long size) {
+        // Copie non synchronisée : quelques valeurs écrites pendant la copie ne faussent pas un percentile
+        long[] sorted = Arrays.copyOf(samples, (int) size);
+        Arrays.sort(sorted);
+        cachedNanos = sorted[(int) Math.min(size - 1, (long) Math.ceil(percentile * size) - 1)];
+    }
+}
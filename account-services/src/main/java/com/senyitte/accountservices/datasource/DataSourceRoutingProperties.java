@@ -0,0 +1,34 @@
+package com.senyitte.accountservices.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Routage lecture / écriture (préfixe "datasource.routing" dans application.properties)
+// Le primaire reste configuré par spring.datasource.* (taille du pool : spring.datasource.hikari.*)
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+    // false = une seule base pour tout (pas de réplica)
+    private boolean enabled = false;
+    // Après une écriture, les lectures du même client restent sur le primaire (retard de réplication)
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    // Cookie qui transporte la fin de la fenêtre d'une requête à l'autre (et d'une instance à l'autre)
+    private String cookieName = "primary-until";
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        // Vides = mêmes identifiants que le primaire
+        private String username;
+        private String password;
+        // Pool propre à chaque réplica, indépendant de celui du primaire
+        private int maximumPoolSize = 10;
+    }
+}
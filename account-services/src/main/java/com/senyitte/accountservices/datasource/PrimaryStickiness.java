@@ -0,0 +1,27 @@
+package com.senyitte.accountservices.datasource;
+
+// Fenêtre "lire sur le primaire" du thread courant : ouverte par une écriture (PrimaryStickinessListener)
+// ou reprise du cookie du client (PrimaryStickinessFilter), refermée à la fin de la requête
+final class PrimaryStickiness {
+
+    private static final ThreadLocal<Long> UNTIL = new ThreadLocal<>();
+
+    private PrimaryStickiness() {
+    }
+
+    static void stickUntil(long epochMillis) {
+        Long current = UNTIL.get();
+        if (current == null || current < epochMillis) {
+            UNTIL.set(epochMillis);
+        }
+    }
+
+    static boolean active() {
+        Long until = UNTIL.get();
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    static void clear() {
+        UNTIL.remove();
+    }
+}
@@ -0,0 +1,40 @@
+package com.senyitte.accountservices.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+// Reprend la fenêtre "lire sur le primaire" posée par une écriture précédente du même client,
+// et la referme en fin de requête (les threads Tomcat sont réutilisés)
+public class PrimaryStickinessFilter extends OncePerRequestFilter {
+
+    private final String cookieName;
+
+    public PrimaryStickinessFilter(String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Cookie cookie = WebUtils.getCookie(request, cookieName);
+        if (cookie != null) {
+            try {
+                PrimaryStickiness.stickUntil(Long.parseLong(cookie.getValue()));
+            } catch (NumberFormatException e) {
+                // Cookie invalide : ignoré, lectures sur les réplicas
+            }
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryStickiness.clear();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.senyitte.accountservices.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+// Après le commit d'une transaction en écriture : lectures sur le primaire pendant "stickyWindow",
+// pour la suite de la requête (thread courant) et pour les requêtes suivantes du client (cookie)
+public class PrimaryStickinessListener implements TransactionExecutionListener {
+
+    private final Duration window;
+    private final String cookieName;
+
+    public PrimaryStickinessListener(Duration window, String cookieName) {
+        this.window = window;
+        this.cookieName = cookieName;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        long until = System.currentTimeMillis() + window.toMillis();
+        PrimaryStickiness.stickUntil(until);
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(cookieName, Long.toString(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                response.addCookie(cookie);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.senyitte.accountservices.customer.Customer;
 import com.senyitte.accountservices.models.AccountType;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 
 @Data
@@ -14,12 +15,17 @@ public class AccountResponse {
     // Tous les champs qu'on veut renvoyer au client
     private Long id;
     private String accountNumber;
-    private Double balance;
+    // Montant en unités majeures (ex. 12.34), converti depuis balanceMinor
+    private BigDecimal balance;
     private AccountType type;
     private Long customerId;
     // On inclut le customer complet (récupéré via Feign/RestClient)
     // pour que le client ait toutes les infos sans faire un 2e appel
     private Customer customer;
+    // true quand customer-service n'a pas répondu dans le budget de latence :
+    // la réponse est partielle (customer = null) mais le compte est bien renvoyé
+    private boolean customerUnavailable;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.senyitte.accountservices.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAccountResponse {
+    private int created;
+    private int rejected;
+    // Un résultat par élément, dans l'ordre de la requête
+    private List<BulkAccountResult> results;
+}
@@ -0,0 +1,19 @@
+package com.senyitte.accountservices.dtos;
+
+import com.senyitte.accountservices.models.BulkItemStatus;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAccountResult {
+    // Position de l'élément dans la requête d'origine
+    private int index;
+    private String accountNumber;
+    private BulkItemStatus status;
+    // Renseigné si CREATED
+    private Long id;
+    // Renseigné si REJECTED
+    private String error;
+}
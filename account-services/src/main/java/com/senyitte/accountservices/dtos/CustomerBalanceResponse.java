@@ -0,0 +1,31 @@
+package com.senyitte.accountservices.dtos;
+
+import com.senyitte.accountservices.models.AccountType;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerBalanceResponse {
+    private Long customerId;
+    private long accounts;
+    // Somme des soldes, en unités majeures comme AccountResponse.balance
+    private BigDecimal balance;
+    private Map<AccountType, TypeBalance> byType;
+    // null = aucun compte n'a jamais été ouvert pour ce client
+    private Instant updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TypeBalance {
+        private long accounts;
+        private BigDecimal balance;
+    }
+}
@@ -0,0 +1,41 @@
+package com.senyitte.accountservices.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerBalanceVerificationReport {
+    // Clients ayant des comptes ou une ligne d'agrégat
+    private long customers;
+    private long drifted;
+    private boolean repaired;
+    private long durationMillis;
+    // Premiers écarts trouvés (au plus 100)
+    private List<Drift> samples;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Drift {
+        private Long customerId;
+        private Totals expected;
+        private Totals actual;
+    }
+
+    // Unités mineures
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Totals {
+        private long currentAccounts;
+        private long currentBalanceMinor;
+        private long savingsAccounts;
+        private long savingsBalanceMinor;
+    }
+}
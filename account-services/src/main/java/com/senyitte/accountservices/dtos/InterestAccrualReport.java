@@ -0,0 +1,35 @@
+package com.senyitte.accountservices.dtos;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterestAccrualReport {
+    private LocalDate businessDate;
+    // Comptes traités par cette exécution (ceux déjà traités par une exécution interrompue sont ignorés)
+    private long accounts;
+    private long interestMinor;
+    private long durationMillis;
+    private List<Partition> partitions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Partition {
+        private int shard;
+        // Plage d'ids ]afterId, upToId]
+        private long afterId;
+        private long upToId;
+        private long accounts;
+        private long chunks;
+        private long interestMinor;
+        private long durationMillis;
+        private double accountsPerSecond;
+    }
+}
@@ -0,0 +1,20 @@
+package com.senyitte.accountservices.dtos;
+
+import com.senyitte.accountservices.models.EntryType;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntryResponse {
+    private Long id;
+    private Long accountId;
+    private EntryType type;
+    private BigDecimal amount;
+    private String reference;
+    private Instant createdAt;
+}
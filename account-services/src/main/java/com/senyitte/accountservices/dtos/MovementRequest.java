@@ -0,0 +1,14 @@
+package com.senyitte.accountservices.dtos;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovementRequest {
+    // Montant positif en unités majeures, 2 décimales max (ex. 12.34)
+    private BigDecimal amount;
+}
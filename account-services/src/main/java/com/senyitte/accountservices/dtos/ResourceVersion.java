@@ -0,0 +1,15 @@
+package com.senyitte.accountservices.dtos;
+
+import lombok.*;
+
+import java.time.Instant;
+
+// Validateurs HTTP d'une ressource (ETag / Last-Modified) pour les GET conditionnels
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResourceVersion {
+    private String etag;
+    private Instant lastModified;
+}
@@ -0,0 +1,23 @@
+package com.senyitte.accountservices.dtos;
+
+import com.senyitte.accountservices.models.TransactionType;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionResponse {
+    // Référence commune aux écritures du journal créées par l'opération
+    private String reference;
+    private TransactionType type;
+    private BigDecimal amount;
+    // Compte débité (null pour un crédit) et compte crédité (null pour un débit)
+    private Long fromAccountId;
+    private Long toAccountId;
+    // Soldes après l'opération
+    private BigDecimal fromBalance;
+    private BigDecimal toBalance;
+}
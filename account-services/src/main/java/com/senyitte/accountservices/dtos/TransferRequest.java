@@ -0,0 +1,16 @@
+package com.senyitte.accountservices.dtos;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferRequest {
+    private Long fromAccountId;
+    private Long toAccountId;
+    // Montant positif en unités majeures, 2 décimales max (ex. 12.34)
+    private BigDecimal amount;
+}
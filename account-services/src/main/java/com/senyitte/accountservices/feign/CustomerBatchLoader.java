@@ -0,0 +1,94 @@
+package com.senyitte.accountservices.feign;
+
+import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.customer.CustomerCallGuard;
+import com.senyitte.accountservices.tracing.ContextExecutors;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Charge des customers par lot : dédoublonnage des ids, découpage en paquets
+// de taille bornée, puis un appel Feign "batch" par paquet (en parallèle si configuré).
+// Nombre d'appels distants = ceil(clients distincts / batch-size) au lieu d'un par compte.
+@Component
+public class CustomerBatchLoader {
+
+    private final CustomerClient customerClient;
+    private final CustomerCallGuard callGuard;
+    private final int batchSize;
+    private final ExecutorService executor;
+    private final Executor tracedExecutor;
+
+    public CustomerBatchLoader(CustomerClient customerClient,
+                               CustomerCallGuard callGuard,
+                               @Value("${customer.batch.size:200}") int batchSize,
+                               @Value("${customer.batch.parallelism:4}") int parallelism) {
+        this.customerClient = customerClient;
+        this.callGuard = callGuard;
+        this.batchSize = Math.max(1, batchSize);
+        // parallelism <= 1 : les paquets sont chargés séquentiellement dans le thread appelant
+        this.executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        this.tracedExecutor = executor != null ? ContextExecutors.wrap(executor) : null;
+    }
+
+    public Map<Long, Customer> loadAll(Collection<Long> customerIds) {
+        List<List<Long>> chunks = chunk(customerIds);
+        Map<Long, Customer> customers = new HashMap<>();
+        if (executor == null || chunks.size() <= 1) {
+            chunks.forEach(chunk -> index(customers, fetch(chunk)));
+            return customers;
+        }
+
+        List<CompletableFuture<List<Customer>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> fetch(chunk), tracedExecutor))
+                .toList();
+        futures.forEach(future -> index(customers, future.join()));
+        return customers;
+    }
+
+    // Un permis de bulkhead par paquet : le parallélisme des lots compte dans la limite
+    private List<Customer> fetch(List<Long> chunk) {
+        return callGuard.call(() -> customerClient.getCustomersByIds(chunk));
+    }
+
+    private List<List<Long>> chunk(Collection<Long> customerIds) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>(batchSize);
+        for (Long id : new LinkedHashSet<>(customerIds)) {
+            if (id == null) {
+                continue;
+            }
+            current.add(id);
+            if (current.size() == batchSize) {
+                chunks.add(current);
+                current = new ArrayList<>(batchSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static void index(Map<Long, Customer> customers, List<Customer> batch) {
+        batch.forEach(customer -> customers.put(customer.getId(), customer));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,12 +1,43 @@
 package com.senyitte.accountservices.feign;
 
 import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.customer.CustomerChangeFeed;
+import com.senyitte.accountservices.dtos.CursorPage;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "customer-service")
+import java.util.Collection;
+import java.util.List;
+
+// Réponses en CBOR de préférence (CustomerClientConfig)
+@FeignClient(name = "customer-service", configuration = CustomerClientConfig.class)
 public interface CustomerClient {
     @GetMapping("/api/customers/{id}")
     Customer getCustomer(@PathVariable Long id);
+
+    // Revalidation : customer-service répond 304 sans corps si l'ETag est toujours le bon
+    // (Feign remonte le 304 sous forme de FeignException, voir CustomerCache)
+    @GetMapping("/api/customers/{id}")
+    Customer revalidateCustomer(@PathVariable Long id, @RequestHeader(HttpHeaders.IF_NONE_MATCH) String etag);
+
+    // Un seul aller-retour pour plusieurs ids (voir CustomerBatchLoader pour le découpage)
+    @PostMapping("/api/customers/batch")
+    List<Customer> getCustomersByIds(@RequestBody Collection<Long> ids);
+
+    // Instantané paginé (reconstruction de la projection locale)
+    @GetMapping("/api/customers/page")
+    CursorPage<Customer> getCustomersPage(@RequestParam("after") Long after, @RequestParam("size") int size);
+
+    // Flux de changements (rattrapage incrémental de la projection locale)
+    @GetMapping("/api/customers/changes")
+    CustomerChangeFeed getChanges(@RequestParam("after") Long after, @RequestParam("limit") int limit);
+
+    @GetMapping("/api/customers/changes/head")
+    Long getChangesHead();
 }
@@ -0,0 +1,67 @@
+package com.senyitte.accountservices.feign;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// Configuration propre au client customer-service (pas de @Configuration : hors du component scan)
+public class CustomerClientConfig {
+
+    // CBOR de préférence : corps plus compacts et décodage sans analyse de texte.
+    // Un customer-service sans CBOR répond simplement en JSON (q=0.9), décodé par SpringDecoder.
+    @Bean
+    public RequestInterceptor preferCborInterceptor() {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.9");
+            }
+        };
+    }
+
+    // Réponses gzip : seul le client Apache HttpClient 5 les décompresse de façon transparente,
+    // le client HTTP/2 du JDK ne le fait pas (pas d'Accept-Encoding dans ce mode)
+    @Bean
+    public RequestInterceptor acceptGzipInterceptor(
+            @Value("${customer.client.compression.response-enabled:true}") boolean enabled,
+            @Value("${spring.cloud.openfeign.http2client.enabled:false}") boolean http2Client) {
+        return template -> {
+            if (enabled && !http2Client && !template.headers().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                template.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+        };
+    }
+
+    // Corps de requête compressés au-delà du seuil (décompressés par GzipRequestFilter côté customer-service).
+    // La compression de requête intégrée à OpenFeign n'ajoute que les en-têtes, le corps est compressé ici.
+    @Bean
+    public RequestInterceptor gzipRequestInterceptor(
+            @Value("${customer.client.compression.request-enabled:true}") boolean enabled,
+            @Value("${customer.client.compression.request-min-size:2KB}") DataSize minSize) {
+        return template -> {
+            byte[] body = template.body();
+            if (!enabled || body == null || body.length < minSize.toBytes()
+                    || template.headers().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return;
+            }
+            template.body(gzip(body), null);
+            template.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        };
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,282 @@
+package com.senyitte.accountservices.interest;
+
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.dtos.InterestAccrualReport;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.BalanceSnapshot;
+import com.senyitte.accountservices.models.EntryType;
+import com.senyitte.accountservices.models.LedgerEntry;
+import com.senyitte.accountservices.sharding.AccountShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Intérêts journaliers et solde de fin de journée des comptes épargne.
+// - Partitions : plages d'ids contiguës (par shard), traitées en parallèle
+// - Lecture par curseur sur l'id, un lot de chunkSize comptes par transaction : les comptes du lot sont
+//   verrouillés (ordre croissant des ids, comme les virements), crédités, journalisés et photographiés
+//   (balance_snapshot) ensemble ; les UPDATE / INSERT partent groupés au flush (hibernate.jdbc.batch_size)
+// - Solde de fin de journée = solde courant moins les écritures passées après minuit (le compte est verrouillé) :
+//   une exécution tardive ou relancée calcule les intérêts sur le solde de la journée traitée
+// - Connexions : au plus la moitié de maximum-pool-size est occupée par les partitions, le reste sert les requêtes
+// - Reprise : un compte ayant déjà sa photo du jour est ignoré. Une exécution interrompue reprend
+//   après le dernier lot commité, sans second crédit (contrainte unique compte + jour en dernier recours)
+@Component
+public class InterestAccrualJob {
+
+    private static final Logger log = LoggerFactory.getLogger(InterestAccrualJob.class);
+
+    private static final String NEXT_CHUNK = "select a from Account a " +
+            "where a.type = :type and a.id > :after and a.id <= :upTo and a.createdAt < :cutoff " +
+            "and not exists (select 1 from BalanceSnapshot s where s.accountId = a.id and s.businessDate = :date) " +
+            "order by a.id";
+
+    // Mouvements nets (crédits - débits) des comptes du lot après la fin de la journée traitée
+    private static final String MOVEMENTS_AFTER = "select e.accountId, " +
+            "sum(case when e.type = :credit then e.amountMinor else -e.amountMinor end) from LedgerEntry e " +
+            "where e.accountId in :ids and e.createdAt >= :cutoff group by e.accountId";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountShards shards;
+    private final InterestAccrualProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CustomerBalanceUpdater balanceUpdater;
+    private final int partitionCount;
+    private final ExecutorService executor;
+    // Une seule exécution à la fois (planifiée ou manuelle)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public InterestAccrualJob(EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              AccountShards shards,
+                              InterestAccrualProperties properties,
+                              MeterRegistry meterRegistry,
+                              CustomerBalanceUpdater balanceUpdater,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.shards = shards;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.balanceUpdater = balanceUpdater;
+        this.partitionCount = partitionCount(properties.getPartitions(), maximumPoolSize);
+        this.executor = Executors.newFixedThreadPool(partitionCount, new CustomizableThreadFactory("interest-accrual-"));
+    }
+
+    // Chaque nuit : la journée de la veille
+    @Scheduled(cron = "${account.interest-accrual.cron:0 30 0 * * *}", zone = "${account.interest-accrual.zone:UTC}")
+    public void nightly() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            run(LocalDate.now(properties.getZone()).minusDays(1));
+        } catch (RuntimeException e) {
+            // Relancer la même journée (POST /internal/interest-accrual/run) reprend là où l'on s'est arrêté
+            log.error("Interest accrual failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public InterestAccrualReport run(LocalDate businessDate) {
+        if (!lock.tryLock()) {
+            throw new RuntimeException("Interest accrual already running");
+        }
+        try {
+            long startedAt = System.nanoTime();
+            List<CompletableFuture<InterestAccrualReport.Partition>> running = new ArrayList<>();
+            for (int shard = 0; shard < shards.count(); shard++) {
+                for (long[] range : ranges(shard)) {
+                    int target = shard;
+                    running.add(CompletableFuture.supplyAsync(
+                            () -> runPartition(target, range[0], range[1], businessDate), executor));
+                }
+            }
+            List<InterestAccrualReport.Partition> partitions;
+            try {
+                partitions = running.stream().map(CompletableFuture::join).toList();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            InterestAccrualReport report = InterestAccrualReport.builder()
+                    .businessDate(businessDate)
+                    .accounts(partitions.stream().mapToLong(InterestAccrualReport.Partition::getAccounts).sum())
+                    .interestMinor(partitions.stream().mapToLong(InterestAccrualReport.Partition::getInterestMinor).sum())
+                    .durationMillis((System.nanoTime() - startedAt) / 1_000_000)
+                    .partitions(partitions)
+                    .build();
+            log.info("Interest accrual for {}: {} accounts, {} minor units in {} ms",
+                    businessDate, report.getAccounts(), report.getInterestMinor(), report.getDurationMillis());
+            return report;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Plages ]after, upTo] de taille égale entre le plus petit et le plus grand id épargne du shard
+    private List<long[]> ranges(int shard) {
+        Object[] bounds = shards.on(shard, () -> transactionTemplate.execute(status -> entityManager.createQuery(
+                        "select min(a.id), max(a.id) from Account a where a.type = :type", Object[].class)
+                .setParameter("type", AccountType.SAVINGS)
+                .getSingleResult()));
+        List<long[]> ranges = new ArrayList<>();
+        if (bounds[0] == null) {
+            return ranges;
+        }
+        long min = (Long) bounds[0];
+        long max = (Long) bounds[1];
+        long size = Math.max(1, (max - min) / partitionCount + 1);
+        for (long after = min - 1; after < max; after += size) {
+            ranges.add(new long[]{after, Math.min(after + size, max)});
+        }
+        return ranges;
+    }
+
+    private InterestAccrualReport.Partition runPartition(int shard, long after, long upTo, LocalDate businessDate) {
+        Counter processed = Counter.builder("interest.accrual.accounts")
+                .tag("shard", Integer.toString(shard))
+                .register(meterRegistry);
+        long startedAt = System.nanoTime();
+        long accounts = 0;
+        long chunks = 0;
+        long interest = 0;
+        long cursor = after;
+        while (true) {
+            long chunkAfter = cursor;
+            long[] chunk = shards.on(shard, () -> transactionTemplate.execute(status ->
+                    accrueChunk(chunkAfter, upTo, businessDate)));
+            if (chunk[0] == 0) {
+                break;
+            }
+            accounts += chunk[0];
+            interest += chunk[1];
+            cursor = chunk[2];
+            chunks++;
+            processed.increment(chunk[0]);
+            if (chunk[0] < properties.getChunkSize()) {
+                break;
+            }
+        }
+        long durationMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        double accountsPerSecond = accounts * 1000.0 / Math.max(durationMillis, 1);
+        log.info("Interest accrual {} shard {} ]{}, {}]: {} accounts in {} chunks, {} ms ({} accounts/s)",
+                businessDate, shard, after, upTo, accounts, chunks, durationMillis, Math.round(accountsPerSecond));
+        return InterestAccrualReport.Partition.builder()
+                .shard(shard)
+                .afterId(after)
+                .upToId(upTo)
+                .accounts(accounts)
+                .chunks(chunks)
+                .interestMinor(interest)
+                .durationMillis(durationMillis)
+                .accountsPerSecond(accountsPerSecond)
+                .build();
+    }
+
+    // Retourne {comptes traités, intérêts crédités, dernier id traité}
+    private long[] accrueChunk(long after, long upTo, LocalDate businessDate) {
+        // Comptes ouverts avant la fin de la journée traitée
+        Instant cutoff = businessDate.plusDays(1).atStartOfDay(properties.getZone()).toInstant();
+        List<Account> accounts = entityManager.createQuery(NEXT_CHUNK, Account.class)
+                .setParameter("type", AccountType.SAVINGS)
+                .setParameter("after", after)
+                .setParameter("upTo", upTo)
+                .setParameter("cutoff", cutoff)
+                .setParameter("date", businessDate)
+                .setMaxResults(properties.getChunkSize())
+                // Pas de crédit / débit concurrent entre la lecture du solde et sa mise à jour
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (accounts.isEmpty()) {
+            return new long[]{0, 0, after};
+        }
+        Map<Long, Long> movedSince = movementsAfter(accounts, cutoff);
+        String reference = "interest-" + businessDate;
+        long interestTotal = 0;
+        CustomerBalanceUpdater.Changes changes = CustomerBalanceUpdater.changes();
+        for (Account account : accounts) {
+            long balance = account.getBalanceMinor() - movedSince.getOrDefault(account.getId(), 0L);
+            long interest = dailyInterest(balance);
+            if (interest > 0) {
+                // Entité gérée : l'UPDATE (version et date de modification comprises) part au flush
+                account.setBalanceMinor(account.getBalanceMinor() + interest);
+                entityManager.persist(LedgerEntry.builder()
+                        .accountId(account.getId())
+                        .type(EntryType.CREDIT)
+                        .amountMinor(interest)
+                        .reference(reference)
+                        .build());
+                changes.moved(account.getCustomerId(), account.getType(), interest);
+                interestTotal += interest;
+            }
+            entityManager.persist(BalanceSnapshot.builder()
+                    .accountId(account.getId())
+                    .businessDate(businessDate)
+                    .balanceMinor(balance)
+                    .interestMinor(interest)
+                    .build());
+        }
+        // Comptes du lot d'abord (déjà verrouillés), puis leurs agrégats par ordre de client
+        entityManager.flush();
+        balanceUpdater.apply(changes);
+        entityManager.clear();
+        return new long[]{accounts.size(), interestTotal, accounts.get(accounts.size() - 1).getId()};
+    }
+
+    private Map<Long, Long> movementsAfter(List<Account> accounts, Instant cutoff) {
+        Map<Long, Long> moved = new HashMap<>();
+        entityManager.createQuery(MOVEMENTS_AFTER, Object[].class)
+                .setParameter("credit", EntryType.CREDIT)
+                .setParameter("ids", accounts.stream().map(Account::getId).toList())
+                .setParameter("cutoff", cutoff)
+                .getResultList()
+                .forEach(row -> moved.put((Long) row[0], ((Number) row[1]).longValue()));
+        return moved;
+    }
+
+    // Arrondi bancaire au centime ; pas d'intérêts sur un solde nul ou négatif
+    long dailyInterest(long balanceMinor) {
+        if (balanceMinor <= 0) {
+            return 0;
+        }
+        return BigDecimal.valueOf(balanceMinor)
+                .multiply(properties.getAnnualRate())
+                .divide(BigDecimal.valueOf(properties.getDaysPerYear()), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    // Chaque partition garde une connexion pendant son lot (verrous) : plafond à la moitié du pool
+    static int partitionCount(int configured, int maximumPoolSize) {
+        int requested = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(requested, maximumPoolSize / 2));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,27 @@
+package com.senyitte.accountservices.interest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+
+// Calcul des intérêts des comptes épargne (préfixe "account.interest-accrual" dans application.properties)
+@Data
+@Component
+@ConfigurationProperties(prefix = "account.interest-accrual")
+public class InterestAccrualProperties {
+    // Exécution planifiée (cron) ; le lancement manuel reste possible (POST /internal/interest-accrual/run)
+    private boolean enabled = false;
+    // Taux annuel appliqué au solde de fin de journée, intérêts journaliers = solde * taux / jours par an
+    private BigDecimal annualRate = new BigDecimal("0.02");
+    private int daysPerYear = 365;
+    // Fuseau des journées comptables (cron et date traitée)
+    private ZoneId zone = ZoneId.of("UTC");
+    // Comptes par transaction : verrouillés, crédités et photographiés ensemble
+    private int chunkSize = 1000;
+    // Plages d'ids traitées en parallèle (par shard) ; 0 = nombre de cœurs.
+    // Plafonné à la moitié de spring.datasource.hikari.maximum-pool-size (voir InterestAccrualJob)
+    private int partitions = 0;
+}
@@ -1,10 +1,14 @@
 package com.senyitte.accountservices.mappers;
 
+import com.senyitte.accountservices.customer.Customer;
 import com.senyitte.accountservices.dtos.AccountRequest;
 import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.accountservices.dtos.ResourceVersion;
 import com.senyitte.accountservices.models.Account;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+
 @Component
 public class AccountMapper {
 
@@ -13,12 +17,30 @@ public class AccountMapper {
         return AccountResponse.builder()
                 .id(entity.getId())
                 .accountNumber(entity.getAccountNumber())
-                .balance(entity.getBalance())
+                .balance(AmountConverter.toMajorUnits(entity.getBalanceMinor()))
                 .type(entity.getType())
                 .customerId(entity.getCustomerId())
                 .customer(entity.getCustomer()) // peut être null si pas encore chargé
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(entity.getVersion())
+                .build();
+    }
+
+    // Le compte est renvoyé avec son customer : les validateurs combinent les deux versions
+    // ETag fort "a<id>.<version>-<etag du customer>", Last-Modified = la plus récente des deux dates
+    public static ResourceVersion version(Long id, Long version, Instant updatedAt, Long customerId, Customer customer) {
+        String etag = "a" + id + "." + version;
+        Instant lastModified = updatedAt;
+        if (customerId != null) {
+            etag += "-c" + customer.getId() + "." + customer.getVersion();
+            if (customer.getUpdatedAt() != null && (lastModified == null || customer.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = customer.getUpdatedAt();
+            }
+        }
+        return ResourceVersion.builder()
+                .etag("\"" + etag + "\"")
+                .lastModified(lastModified)
                 .build();
     }
 
@@ -28,7 +50,7 @@ public class AccountMapper {
                 .accountNumber(dto.getAccountNumber())
                 .type(dto.getType())
                 .customerId(dto.getCustomerId())
-                // balance non incluse → prendra la valeur par défaut 0.0 de l'entité
+                // balance non incluse → prendra la valeur par défaut 0 de l'entité
                 .build();
     }
 }
@@ -0,0 +1,30 @@
+package com.senyitte.accountservices.mappers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Conversion entre montants exposés par l'API (BigDecimal, ex. 12.34)
+// et montants stockés en unités mineures (long, ex. 1234 centimes)
+public final class AmountConverter {
+
+    public static final int SCALE = 2;
+
+    private AmountConverter() {
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            throw new RuntimeException("Amount is required");
+        }
+        try {
+            // UNNECESSARY : on refuse plus de 2 décimales plutôt que d'arrondir en silence
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Invalid amount: " + amount);
+        }
+    }
+
+    public static BigDecimal toMajorUnits(Long minorUnits) {
+        return minorUnits == null ? null : BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
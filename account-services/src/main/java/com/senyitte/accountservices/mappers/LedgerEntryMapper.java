@@ -0,0 +1,20 @@
+package com.senyitte.accountservices.mappers;
+
+import com.senyitte.accountservices.dtos.LedgerEntryResponse;
+import com.senyitte.accountservices.models.LedgerEntry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LedgerEntryMapper {
+
+    public LedgerEntryResponse toDto(LedgerEntry entity) {
+        return LedgerEntryResponse.builder()
+                .id(entity.getId())
+                .accountId(entity.getAccountId())
+                .type(entity.getType())
+                .amount(AmountConverter.toMajorUnits(entity.getAmountMinor()))
+                .reference(entity.getReference())
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+}
@@ -1,13 +1,27 @@
 package com.senyitte.accountservices.models;
 
 import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.sharding.ShardedSequenceGenerator;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
 
+// Cache de second niveau en lecture-écriture : une entrée modifiée est verrouillée jusqu'au commit,
+// aucune lecture concurrente ne peut y remettre l'ancien état (régions "account" et "account-natural-id")
 @Entity
+@Table(indexes = @Index(name = "idx_account_customer", columnList = "customerId"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
+@NaturalIdCache(region = "account-natural-id")
 @Data
 @Getter
 @Setter
@@ -15,12 +29,28 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 public class Account {
+    // Séquence "pooled" (50 ids réservés par appel) : contrairement à IDENTITY,
+    // Hibernate connaît l'id avant l'INSERT et peut donc grouper les inserts en batch JDBC
+    // En mode partitionné, l'id porte aussi le numéro du shard (voir ShardedSequenceGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "account_seq")
+    @GenericGenerator(name = "account_seq", type = ShardedSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "account_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled")
+    })
     private Long id;
+    // Identifiant naturel : numéro -> id mis en cache, les recherches par numéro évitent le SQL
+    // "mutable" : le numéro peut changer via updateAccount
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String accountNumber;
-    private Double balance = 0.0;
+    // Solde en unités mineures (centimes) : entier exact, pas de flottant
+    // Modifié uniquement par TransactionService (UPDATE atomiques), jamais par updateAccount
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "balance_minor", nullable = false)
+    private Long balanceMinor = 0L;
     @Enumerated(EnumType.STRING)
     private AccountType type;
     private Long customerId;
@@ -30,4 +60,10 @@ public class Account {
     private Instant createdAt;
     @UpdateTimestamp
     private Instant updatedAt;
+    // Incrémentée à chaque modification, y compris par les UPDATE de solde (voir AccountRepository)
+    // Sert d'ETag (GET /api/accounts/{id}) ; la valeur par défaut initialise les lignes existantes
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,35 @@
+package com.senyitte.accountservices.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Réservation d'un numéro de compte en mode partitionné (voir AccountNumberRegistry) :
+// un numéro est toujours réservé sur le même shard, sa clé primaire y garantit l'unicité globale
+@Entity
+@Table(name = "account_number_claim")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountNumberClaim implements Persistable<String> {
+    @Id
+    private String accountNumber;
+    // Client du compte, donc son shard : une recherche par numéro va directement au bon shard
+    @Column(nullable = false)
+    private Long customerId;
+    private Instant claimedAt;
+
+    @Override
+    public String getId() {
+        return accountNumber;
+    }
+
+    // Toujours un INSERT (jamais de merge) : un numéro déjà réservé viole la clé primaire
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
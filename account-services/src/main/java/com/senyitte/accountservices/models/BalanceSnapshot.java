@@ -0,0 +1,43 @@
+package com.senyitte.accountservices.models;
+
+import com.senyitte.accountservices.sharding.ShardedSequenceGenerator;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Solde de fin de journée d'un compte épargne et intérêts crédités pour cette journée.
+// Écrit dans la même transaction que le crédit : une ligne par (compte, jour) prouve que le compte
+// a été traité, la contrainte unique empêche tout second crédit du même jour (voir InterestAccrualJob)
+@Entity
+@Table(name = "balance_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_account_date", columnNames = {"accountId", "businessDate"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSnapshot {
+    @Id
+    @GeneratedValue(generator = "balance_snapshot_seq")
+    @GenericGenerator(name = "balance_snapshot_seq", type = ShardedSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "balance_snapshot_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled")
+    })
+    private Long id;
+    @Column(nullable = false)
+    private Long accountId;
+    @Column(nullable = false)
+    private LocalDate businessDate;
+    // Solde avant intérêts, en unités mineures
+    @Column(nullable = false)
+    private Long balanceMinor;
+    @Column(nullable = false)
+    private Long interestMinor;
+    @CreationTimestamp
+    private Instant createdAt;
+}
@@ -0,0 +1,6 @@
+package com.senyitte.accountservices.models;
+
+public enum BulkItemStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,61 @@
+package com.senyitte.accountservices.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Agrégat par client : nombre de comptes et somme des soldes par type, sur le shard du client.
+// Mis à jour dans la transaction de chaque création, suppression, changement de type et mouvement
+// (voir CustomerBalanceUpdater) ; jamais en cache, les mises à jour sont des UPDATE atomiques
+@Entity
+@Table(name = "customer_balance")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerBalance implements Persistable<Long> {
+    @Id
+    private Long customerId;
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long currentAccounts = 0L;
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long currentBalanceMinor = 0L;
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long savingsAccounts = 0L;
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long savingsBalanceMinor = 0L;
+    private Instant updatedAt;
+    // Ligne lue ou insérée par Hibernate : save() fait alors un merge au lieu d'un INSERT
+    // (en pratique la ligne est créée par createIfAbsent, puis modifiée par UPDATE atomiques)
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @Override
+    public Long getId() {
+        return customerId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
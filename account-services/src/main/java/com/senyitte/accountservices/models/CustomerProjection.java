@@ -0,0 +1,35 @@
+package com.senyitte.accountservices.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+// Copie locale et compacte des customers (lecture seule côté métier),
+// alimentée par le flux de changements de customer-service (CustomerProjectionUpdater)
+// L'id est celui du customer : pas de génération locale
+@Entity
+@Table(name = "customer_projection")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerProjection {
+    @Id
+    private Long customerId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    // Version / date de modification côté customer-service (ETag des comptes)
+    private Long customerVersion;
+    private Instant customerUpdatedAt;
+    // Ligne conservée après suppression (tombstone) avec la version de suppression : un changement plus ancien
+    // reçu ensuite (flux non trié par version) ne recrée pas le customer. Jamais servie aux lectures
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean deleted;
+    // Offset du dernier changement appliqué (0 = issu d'un instantané)
+    private Long sourceOffset;
+    private Instant refreshedAt;
+}
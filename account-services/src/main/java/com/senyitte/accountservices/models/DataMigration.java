@@ -0,0 +1,21 @@
+package com.senyitte.accountservices.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Traitement de données à exécuter une seule fois (ex. initialisation des agrégats CustomerBalance) :
+// startedAt = pris par une instance, completedAt = terminé, ne plus jamais le relancer
+@Entity
+@Table(name = "data_migration")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataMigration {
+    @Id
+    private String name;
+    private Instant startedAt;
+    private Instant completedAt;
+}
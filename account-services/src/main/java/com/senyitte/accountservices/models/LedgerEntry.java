@@ -0,0 +1,46 @@
+package com.senyitte.accountservices.models;
+
+import com.senyitte.accountservices.sharding.ShardedSequenceGenerator;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import java.time.Instant;
+
+// Écriture comptable : une ligne par mouvement sur un compte (un virement = 2 lignes)
+// Le journal n'est jamais modifié, uniquement complété
+// Une seule écriture par (compte, référence, sens) : rejouer un crédit de virement (reprise) échoue au lieu de créditer deux fois
+@Entity
+@Table(indexes = @Index(name = "idx_ledger_entry_account", columnList = "accountId, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_ledger_entry_operation", columnNames = {"accountId", "reference", "type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+    // Séquence "pooled" : Hibernate réserve 50 ids par aller-retour, les inserts restent groupables
+    // Écritures stockées sur le shard de leur compte, ids uniques entre shards (voir ShardedSequenceGenerator)
+    @Id
+    @GeneratedValue(generator = "ledger_entry_seq")
+    @GenericGenerator(name = "ledger_entry_seq", type = ShardedSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "ledger_entry_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled")
+    })
+    private Long id;
+    @Column(nullable = false)
+    private Long accountId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntryType type;
+    // Montant positif en unités mineures, le sens est donné par "type"
+    @Column(nullable = false)
+    private Long amountMinor;
+    // Identifiant commun aux écritures d'une même opération (ex. les 2 côtés d'un virement)
+    @Column(nullable = false, length = 36)
+    private String reference;
+    @CreationTimestamp
+    private Instant createdAt;
+}
@@ -0,0 +1,22 @@
+package com.senyitte.accountservices.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Position de lecture d'un flux de changements, mise à jour dans la même transaction
+// que les lignes de projection correspondantes (reprise exacte après un redémarrage)
+@Entity
+@Table(name = "projection_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionCheckpoint {
+    @Id
+    private String name;
+    @Column(nullable = false)
+    private Long lastOffset;
+    private Instant updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.senyitte.accountservices.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Virement entre deux shards, stocké sur le shard du compte débité.
+// Inséré (DEBITED) dans la transaction du débit : un virement débité n'est jamais perdu, même si le
+// processus s'arrête avant le crédit. Passe ensuite à COMPLETED ou COMPENSATED par un UPDATE conditionnel
+// (voir TransactionServiceImpl et ShardTransferRecoveryJob)
+@Entity
+@Table(name = "shard_transfer", indexes = @Index(name = "idx_shard_transfer_status", columnList = "status, createdAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardTransfer {
+    // Référence commune aux écritures du virement (débit, crédit, compensation éventuelle)
+    @Id
+    @Column(length = 36)
+    private String reference;
+    // Version nulle = INSERT au save
+    @Version
+    private Long version;
+    @Column(nullable = false)
+    private Long fromAccountId;
+    @Column(nullable = false)
+    private Long toAccountId;
+    @Column(nullable = false)
+    private Long amountMinor;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransferStatus status;
+    @Column(nullable = false)
+    private Instant createdAt;
+    private Instant updatedAt;
+}
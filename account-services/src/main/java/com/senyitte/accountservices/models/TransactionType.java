@@ -0,0 +1,7 @@
+package com.senyitte.accountservices.models;
+
+public enum TransactionType {
+    CREDIT,
+    DEBIT,
+    TRANSFER
+}
@@ -0,0 +1,11 @@
+package com.senyitte.accountservices.models;
+
+// États d'un virement entre deux shards (voir ShardTransfer)
+public enum TransferStatus {
+    // Débit validé sur le shard source, crédit pas encore confirmé
+    DEBITED,
+    // Crédit validé sur le shard cible
+    COMPLETED,
+    // Crédit impossible : montant rendu au compte débité
+    COMPENSATED
+}
@@ -0,0 +1,11 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.Account;
+
+import java.util.Optional;
+
+// Recherche par numéro de compte via l'identifiant naturel (@NaturalId) plutôt qu'une requête JPQL :
+// numéro -> id puis id -> entité sont servis par le cache de second niveau
+public interface AccountNaturalIdRepository {
+    Optional<Account> findByAccountNumber(String accountNumber);
+}
@@ -0,0 +1,27 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.Account;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Implémentation détectée par Spring Data (suffixe "Impl"), ajoutée à AccountRepository
+public class AccountNaturalIdRepositoryImpl implements AccountNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    public AccountNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Transaction nécessaire pour accéder à la Session Hibernate derrière l'EntityManager partagé
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Account> findByAccountNumber(String accountNumber) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Account.class)
+                .loadOptional(accountNumber);
+    }
+}
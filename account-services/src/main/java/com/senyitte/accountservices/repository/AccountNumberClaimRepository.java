@@ -0,0 +1,24 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.AccountNumberClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountNumberClaimRepository extends JpaRepository<AccountNumberClaim, String> {
+    @Transactional(readOnly = true)
+    @Query("select c.accountNumber from AccountNumberClaim c where c.accountNumber in :accountNumbers")
+    List<String> findClaimed(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Modifying
+    @Transactional
+    @Query("delete from AccountNumberClaim c where c.accountNumber = :accountNumber")
+    int release(@Param("accountNumber") String accountNumber);
+}
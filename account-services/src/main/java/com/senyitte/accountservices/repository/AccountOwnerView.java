@@ -0,0 +1,9 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.AccountType;
+
+// Client et type d'un compte : la ligne d'agrégat à mettre à jour lors d'un mouvement de solde
+public interface AccountOwnerView {
+    Long getCustomerId();
+    AccountType getType();
+}
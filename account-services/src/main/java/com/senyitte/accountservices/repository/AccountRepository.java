@@ -1,12 +1,80 @@
 package com.senyitte.accountservices.repository;
 
 import com.senyitte.accountservices.models.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+// findByAccountNumber : voir AccountNaturalIdRepository (cache de l'identifiant naturel)
+// Requêtes de lecture déclarées ici en lecture seule (comme celles héritées de SimpleJpaRepository) :
+// appelées hors transaction, elles sont servies par un réplica quand le routage est actif
+// (voir DataSourceRoutingConfig). Pas de readOnly sur l'interface : il s'appliquerait aussi à save()
+// et à delete(), dont les écritures ne seraient alors jamais flushées (FlushMode.MANUAL).
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountNaturalIdRepository {
+    @Transactional(readOnly = true)
     List<Account> findByCustomerId(Long customerId);
-    Optional<Account> findByAccountNumber(String accountNumber);
+
+    // Vérification d'unicité ensembliste pour la création en masse : une requête "IN" par lot
+    @Transactional(readOnly = true)
+    @Query("select a.accountNumber from Account a where a.accountNumber in :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    // Mouvements de solde : un seul UPDATE atomique, le verrou est pris sur la ligne du compte
+    // uniquement (pas de lecture-modification-écriture, donc pas de mise à jour perdue)
+    // Un UPDATE JPQL ne passe ni par @Version ni par @UpdateTimestamp : on les met à jour explicitement
+    // pour que l'ETag et le Last-Modified du compte changent avec le solde
+    // Hibernate invalide les régions "account" du cache de second niveau au commit (pas de solde périmé en cache)
+    // 0 ligne modifiée = compte inexistant ou solde qui dépasserait Long.MAX_VALUE (pas de débordement silencieux)
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balanceMinor = a.balanceMinor + :amount, a.version = a.version + 1, " +
+            "a.updatedAt = :now where a.id = :id and a.balanceMinor <= 9223372036854775807L - :amount")
+    int credit(@Param("id") Long id, @Param("amount") long amount, @Param("now") Instant now);
+
+    // 0 ligne modifiée = compte inexistant ou solde insuffisant
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balanceMinor = a.balanceMinor - :amount, a.version = a.version + 1, " +
+            "a.updatedAt = :now where a.id = :id and a.balanceMinor >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") long amount, @Param("now") Instant now);
+
+    // GET conditionnel : version, date de modification et client du compte, sans charger l'entité
+    @Transactional(readOnly = true)
+    @Query("select a.id as id, a.version as version, a.updatedAt as updatedAt, a.customerId as customerId " +
+            "from Account a where a.id = :id")
+    Optional<AccountVersionView> findVersionById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select a.balanceMinor from Account a where a.id = :id")
+    Optional<Long> findBalanceMinorById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select a.customerId as customerId, a.type as type from Account a where a.id = :id")
+    Optional<AccountOwnerView> findOwnerById(@Param("id") Long id);
+
+    // Pagination par curseur (keyset) : "WHERE id > :after ORDER BY id LIMIT :n"
+    // le coût ne dépend pas de la profondeur de page contrairement à OFFSET
+    @Transactional(readOnly = true)
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Lecture en flux, curseur JDBC avec fetch size borné (doit être appelé dans une transaction)
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from Account a order by a.id")
+    Stream<Account> streamAll();
 }
@@ -0,0 +1,11 @@
+package com.senyitte.accountservices.repository;
+
+import java.time.Instant;
+
+// Projection minimale d'un compte : de quoi calculer ses validateurs HTTP sans charger l'entité
+public interface AccountVersionView {
+    Long getId();
+    Long getVersion();
+    Instant getUpdatedAt();
+    Long getCustomerId();
+}
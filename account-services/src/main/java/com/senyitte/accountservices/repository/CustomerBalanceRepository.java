@@ -0,0 +1,42 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.CustomerBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface CustomerBalanceRepository extends JpaRepository<CustomerBalance, Long> {
+
+    // Incréments atomiques (pas de lecture-modification-écriture), dans la transaction du mouvement
+    // 0 ligne modifiée = pas encore de ligne pour ce client
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("update CustomerBalance b set " +
+            "b.currentAccounts = b.currentAccounts + :currentAccounts, " +
+            "b.currentBalanceMinor = b.currentBalanceMinor + :currentBalance, " +
+            "b.savingsAccounts = b.savingsAccounts + :savingsAccounts, " +
+            "b.savingsBalanceMinor = b.savingsBalanceMinor + :savingsBalance, " +
+            "b.updatedAt = :now where b.customerId = :customerId")
+    int add(@Param("customerId") Long customerId,
+            @Param("currentAccounts") long currentAccounts,
+            @Param("currentBalance") long currentBalance,
+            @Param("savingsAccounts") long savingsAccounts,
+            @Param("savingsBalance") long savingsBalance,
+            @Param("now") Instant now);
+
+    // Ligne à zéro du premier mouvement d'un client, dans la transaction appelante (pas de seconde connexion) ;
+    // ON CONFLICT : une ligne créée en même temps par une autre transaction est conservée telle quelle
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("insert into CustomerBalance (customerId, currentAccounts, currentBalanceMinor, " +
+            "savingsAccounts, savingsBalanceMinor, updatedAt) " +
+            "values (:customerId, 0L, 0L, 0L, 0L, :now) on conflict do nothing")
+    int createIfAbsent(@Param("customerId") Long customerId, @Param("now") Instant now);
+}
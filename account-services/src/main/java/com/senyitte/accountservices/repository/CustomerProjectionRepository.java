@@ -0,0 +1,9 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.CustomerProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerProjectionRepository extends JpaRepository<CustomerProjection, Long> {
+}
@@ -0,0 +1,32 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+
+    @Modifying
+    @Transactional
+    @Query("insert into DataMigration (name) values (:name) on conflict do nothing")
+    int createIfAbsent(@Param("name") String name);
+
+    // 1 = à exécuter par l'appelant ; 0 = déjà terminée, ou prise par une autre instance après staleBefore
+    @Modifying
+    @Transactional
+    @Query("update DataMigration m set m.startedAt = :now where m.name = :name and m.completedAt is null " +
+            "and (m.startedAt is null or m.startedAt < :staleBefore)")
+    int claim(@Param("name") String name, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("update DataMigration m set m.completedAt = :now where m.name = :name")
+    int complete(@Param("name") String name, @Param("now") Instant now);
+}
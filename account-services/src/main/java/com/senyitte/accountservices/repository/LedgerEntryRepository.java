@@ -0,0 +1,16 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.EntryType;
+import com.senyitte.accountservices.models.LedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    // Historique d'un compte, du plus récent au plus ancien, par curseur sur l'id
+    List<LedgerEntry> findByAccountIdAndIdLessThanOrderByIdDesc(Long accountId, Long before, Limit limit);
+
+    // Écriture d'une opération déjà passée sur ce compte (crédit d'un virement entre shards)
+    boolean existsByAccountIdAndReferenceAndType(Long accountId, String reference, EntryType type);
+}
@@ -0,0 +1,9 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.ProjectionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+}
@@ -0,0 +1,33 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.models.ShardTransfer;
+import com.senyitte.accountservices.models.TransferStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ShardTransferRepository extends JpaRepository<ShardTransfer, String> {
+
+    // Virements restés DEBITED (arrêt ou shard cible indisponible), les plus anciens d'abord
+    @Transactional(readOnly = true)
+    List<ShardTransfer> findByStatusAndCreatedAtBeforeOrderByCreatedAtAsc(TransferStatus status, Instant before, Limit limit);
+
+    // Changement d'état seulement depuis l'état attendu : 0 ligne = déjà traité par ailleurs
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("update ShardTransfer t set t.status = :to, t.updatedAt = :now, t.version = t.version + 1 " +
+            "where t.reference = :reference and t.status = :from")
+    int advance(@Param("reference") String reference,
+                @Param("from") TransferStatus from,
+                @Param("to") TransferStatus to,
+                @Param("now") Instant now);
+}
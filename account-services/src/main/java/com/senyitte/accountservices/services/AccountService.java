@@ -2,16 +2,34 @@ package com.senyitte.accountservices.services;
 
 import com.senyitte.accountservices.dtos.AccountRequest;
 import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.accountservices.dtos.BulkAccountResponse;
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.dtos.CustomerBalanceResponse;
+import com.senyitte.accountservices.dtos.ResourceVersion;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AccountService {
 
     AccountResponse createAccount(AccountRequest dto);
+    // Création en masse : validations ensemblistes et inserts en batch JDBC, un résultat par élément
+    BulkAccountResponse createAccounts(List<AccountRequest> dtos);
     AccountResponse updateAccount(Long id, AccountRequest dto);
     AccountResponse getAccount(Long id);
+    // ETag / Last-Modified d'un compte sans appel distant ; vide si le customer n'est pas connu localement
+    Optional<ResourceVersion> getAccountVersion(Long id);
     List<AccountResponse> getAllAccounts();
+    // Page de comptes après le curseur "after" (id exclus), triés par id
+    CursorPage<AccountResponse> getAccountsPage(Long after, int size);
+    // Parcourt tous les comptes sans les garder en mémoire, chaque DTO est passé au consumer
+    void streamAllAccounts(Consumer<AccountResponse> consumer);
     // Récupérer tous les comptes d'un client spécifique
     List<AccountResponse> getAccountsByCustomerId(Long customerId);
+    // includeCustomer = false : comptes seuls, sans appel à customer-service (l'appelant a déjà le customer)
+    List<AccountResponse> getAccountsByCustomerId(Long customerId, boolean includeCustomer);
+    // Totaux précalculés d'un client (nombre de comptes et soldes par type), une seule ligne lue
+    CustomerBalanceResponse getCustomerBalance(Long customerId);
     void deleteAccount(Long id);
 }
\ No newline at end of file
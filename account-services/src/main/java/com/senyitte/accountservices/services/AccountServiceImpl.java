@@ -1,100 +1,455 @@
 package com.senyitte.accountservices.services;
 
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
 import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.customer.CustomerCache;
+import com.senyitte.accountservices.customer.CustomerFetcher;
+import com.senyitte.accountservices.customer.CustomerUnavailableException;
 import com.senyitte.accountservices.dtos.AccountRequest;
 import com.senyitte.accountservices.dtos.AccountResponse;
-import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.dtos.BulkAccountResponse;
+import com.senyitte.accountservices.dtos.BulkAccountResult;
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.dtos.CustomerBalanceResponse;
+import com.senyitte.accountservices.dtos.CustomerBalanceResponse.TypeBalance;
+import com.senyitte.accountservices.dtos.ResourceVersion;
 import com.senyitte.accountservices.mappers.AccountMapper;
+import com.senyitte.accountservices.mappers.AmountConverter;
 import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.BulkItemStatus;
+import com.senyitte.accountservices.models.CustomerBalance;
 import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.AccountVersionView;
+import com.senyitte.accountservices.repository.CustomerBalanceRepository;
+import com.senyitte.accountservices.sharding.AccountNumberRegistry;
+import com.senyitte.accountservices.sharding.AccountShards;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Chaque méthode publique est chronométrée (métrique "account.service", tags class/method)
+@Timed("account.service")
 @Service
 public class AccountServiceImpl implements AccountService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final AccountRepository accountRepository;
     private final AccountMapper accountMapper;
-    private final CustomerClient customerClient;
+    // Les lectures de customers passent par le cache local (CustomerClient derrière)
+    private final CustomerCache customerCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    // Lecture d'un seul customer en parallèle du travail en base, avec budget de latence
+    private final CustomerFetcher customerFetcher;
+    // Partitionnement par client : shard des écritures groupées et des flux, unicité globale des numéros
+    private final AccountShards shards;
+    private final AccountNumberRegistry accountNumberRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    // Agrégats par client, mis à jour dans la transaction de chaque création / modification / suppression
+    private final CustomerBalanceUpdater balanceUpdater;
+    private final CustomerBalanceRepository balanceRepository;
 
     public AccountServiceImpl(AccountRepository accountRepository,
                               AccountMapper accountMapper,
-                              CustomerClient customerClient) {
+                              CustomerCache customerCache,
+                              EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              CustomerFetcher customerFetcher,
+                              AccountShards shards,
+                              AccountNumberRegistry accountNumberRegistry,
+                              CustomerBalanceUpdater balanceUpdater,
+                              CustomerBalanceRepository balanceRepository) {
         this.accountRepository = accountRepository;
         this.accountMapper = accountMapper;
-        this.customerClient = customerClient;
+        this.customerCache = customerCache;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.customerFetcher = customerFetcher;
+        this.shards = shards;
+        this.accountNumberRegistry = accountNumberRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.balanceUpdater = balanceUpdater;
+        this.balanceRepository = balanceRepository;
     }
 
     @Override
     public AccountResponse createAccount(AccountRequest dto) {
+        // customerId connu dès la requête : l'appel customer part en parallèle du travail en base
+        long deadline = customerFetcher.deadline();
+        CompletableFuture<Customer> customer = customerFetcher.fetchAsync(dto.getCustomerId());
+
         // Vérifier si le numéro de compte existe déjà
         if (accountRepository.findByAccountNumber(dto.getAccountNumber()).isPresent()) {
             throw new RuntimeException("Account number already exists: " + dto.getAccountNumber());
         }
 
+        // Mode partitionné : réservation globale du numéro (la contrainte unique n'est que par shard)
+        accountNumberRegistry.claim(dto.getAccountNumber(), dto.getCustomerId());
         Account account = accountMapper.toEntity(dto);
-        Account savedAccount = accountRepository.save(account);
-        Customer customer = customerClient.getCustomer(dto.getCustomerId());
-        savedAccount.setCustomer(customer);
-        return accountMapper.toDto(savedAccount);
+        Account savedAccount;
+        try {
+            savedAccount = shards.onCustomer(dto.getCustomerId(), () -> transactionTemplate.execute(status -> {
+                Account saved = accountRepository.save(account);
+                balanceUpdater.apply(CustomerBalanceUpdater.changes().opened(saved));
+                return saved;
+            }));
+        } catch (RuntimeException e) {
+            accountNumberRegistry.release(dto.getAccountNumber());
+            throw e;
+        }
+        return toDtoWithCustomer(savedAccount, customerFetcher.await(customer, deadline));
+    }
+
+    @Override
+    public BulkAccountResponse createAccounts(List<AccountRequest> dtos) {
+        BulkAccountResult[] results = new BulkAccountResult[dtos.size()];
+
+        // Clients : une seule recherche dédoublonnée (cache puis endpoint batch) pour toute la requête
+        Set<Long> knownCustomers = customerCache.getAll(
+                dtos.stream().map(AccountRequest::getCustomerId).toList()).keySet();
+        Set<String> seenNumbers = new HashSet<>();
+
+        for (int from = 0; from < dtos.size(); from += BULK_CHUNK_SIZE) {
+            int to = Math.min(from + BULK_CHUNK_SIZE, dtos.size());
+
+            // 1. Validations locales : champs obligatoires, doublons dans la requête, client connu
+            List<Integer> candidates = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                AccountRequest dto = dtos.get(i);
+                String error = null;
+                if (dto.getAccountNumber() == null || dto.getType() == null || dto.getCustomerId() == null) {
+                    error = "accountNumber, type and customerId are required";
+                } else if (!seenNumbers.add(dto.getAccountNumber())) {
+                    error = "Duplicate account number in request: " + dto.getAccountNumber();
+                } else if (!knownCustomers.contains(dto.getCustomerId())) {
+                    error = "Customer not found: " + dto.getCustomerId();
+                }
+                if (error != null) {
+                    results[i] = rejected(i, dto, error);
+                } else {
+                    candidates.add(i);
+                }
+            }
+
+            // 2. Unicité en base : une seule requête "IN" pour tout le lot (par shard de réservation si partitionné)
+            Set<String> existingNumbers = candidates.isEmpty() ? Set.of() : new HashSet<>(
+                    accountRepository.findExistingAccountNumbers(
+                            candidates.stream().map(i -> dtos.get(i).getAccountNumber()).toList()));
+            List<Integer> accepted = new ArrayList<>();
+            for (Integer i : candidates) {
+                AccountRequest dto = dtos.get(i);
+                if (existingNumbers.contains(dto.getAccountNumber())) {
+                    results[i] = rejected(i, dto, "Account number already exists: " + dto.getAccountNumber());
+                } else if (accountNumberRegistry.tryClaim(dto.getAccountNumber(), dto.getCustomerId())) {
+                    accepted.add(i);
+                } else {
+                    // Mode partitionné : numéro réservé entre-temps par une autre requête
+                    results[i] = rejected(i, dto, "Account number already exists: " + dto.getAccountNumber());
+                }
+            }
+
+            // 3. Inserts du lot, une transaction par shard : ids pris dans la séquence pooled,
+            //    INSERT groupés par hibernate.jdbc.batch_size au flush
+            Map<Integer, List<Integer>> acceptedByShard = accepted.stream()
+                    .collect(Collectors.groupingBy(i -> shards.forCustomer(dtos.get(i).getCustomerId())));
+            acceptedByShard.forEach((shard, indexes) -> insertOnShard(shard, indexes, dtos, results));
+        }
+
+        List<BulkAccountResult> resultList = Arrays.asList(results);
+        int created = (int) resultList.stream().filter(r -> r.getStatus() == BulkItemStatus.CREATED).count();
+        return BulkAccountResponse.builder()
+                .created(created)
+                .rejected(resultList.size() - created)
+                .results(resultList)
+                .build();
+    }
+
+    private void insertOnShard(int shard, List<Integer> indexes, List<AccountRequest> dtos, BulkAccountResult[] results) {
+        List<Account> accounts = indexes.stream().map(i -> accountMapper.toEntity(dtos.get(i))).toList();
+        try {
+            shards.on(shard, () -> transactionTemplate.execute(status -> {
+                // Flush par le proxy du repository : une violation d'unicité arrive traduite en DataAccessException
+                accountRepository.saveAllAndFlush(accounts);
+                CustomerBalanceUpdater.Changes changes = CustomerBalanceUpdater.changes();
+                accounts.forEach(changes::opened);
+                balanceUpdater.apply(changes);
+                entityManager.clear();
+                return null;
+            }));
+            for (int k = 0; k < indexes.size(); k++) {
+                int i = indexes.get(k);
+                results[i] = BulkAccountResult.builder()
+                        .index(i)
+                        .accountNumber(dtos.get(i).getAccountNumber())
+                        .status(BulkItemStatus.CREATED)
+                        .id(accounts.get(k).getId())
+                        .build();
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            // Ex. numéro inséré entre-temps par une autre requête : tout le lot du shard est annulé,
+            // les lots déjà validés gardent leur résultat (PersistenceException : flush hors proxy non traduit)
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            indexes.forEach(i -> {
+                accountNumberRegistry.release(dtos.get(i).getAccountNumber());
+                results[i] = rejected(i, dtos.get(i), "Batch insert failed: " + cause);
+            });
+        }
+    }
+
+    private static BulkAccountResult rejected(int index, AccountRequest dto, String error) {
+        return BulkAccountResult.builder()
+                .index(index)
+                .accountNumber(dto.getAccountNumber())
+                .status(BulkItemStatus.REJECTED)
+                .error(error)
+                .build();
     }
 
     @Override
     public AccountResponse updateAccount(Long id, AccountRequest dto) {
+        long deadline = customerFetcher.deadline();
+        CompletableFuture<Customer> customer = customerFetcher.fetchAsync(dto.getCustomerId());
+
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
+        // Les comptes d'un client sont tous sur son shard : pas de déplacement entre bases
+        if (shards.forCustomer(dto.getCustomerId()) != shards.forId(id)) {
+            throw new RuntimeException("Cannot move account " + id + " to a customer on another shard");
+        }
 
+        // État compté dans l'agrégat ; le solde ne change pas ici et @Version refuse une copie périmée
+        Account previous = Account.builder()
+                .customerId(account.getCustomerId())
+                .type(account.getType())
+                .balanceMinor(account.getBalanceMinor())
+                .build();
+        String previousNumber = account.getAccountNumber();
+        boolean renumbered = !previousNumber.equals(dto.getAccountNumber());
+        if (renumbered) {
+            accountNumberRegistry.claim(dto.getAccountNumber(), dto.getCustomerId());
+        }
         account.setAccountNumber(dto.getAccountNumber());
         account.setType(dto.getType());
         account.setCustomerId(dto.getCustomerId());
 
-        Account updatedAccount = accountRepository.save(account);
-        Customer customer = customerClient.getCustomer(dto.getCustomerId());
-        updatedAccount.setCustomer(customer);
-        return accountMapper.toDto(updatedAccount);
+        Account updatedAccount;
+        try {
+            updatedAccount = shards.onAccount(id, () -> transactionTemplate.execute(status -> {
+                // Flush immédiat : la ligne du compte est verrouillée avant celles de l'agrégat, comme pour un mouvement
+                Account saved = accountRepository.saveAndFlush(account);
+                balanceUpdater.apply(CustomerBalanceUpdater.changes().closed(previous).opened(saved));
+                return saved;
+            }));
+        } catch (RuntimeException e) {
+            if (renumbered) {
+                accountNumberRegistry.release(dto.getAccountNumber());
+            }
+            throw e;
+        }
+        if (renumbered) {
+            accountNumberRegistry.release(previousNumber);
+        }
+        return toDtoWithCustomer(updatedAccount, customerFetcher.await(customer, deadline));
     }
 
     @Override
     public AccountResponse getAccount(Long id) {
+        // Le customerId n'est connu qu'après la lecture du compte : pas de parallélisme possible,
+        // mais le budget de latence court depuis le début de la requête
+        long deadline = customerFetcher.deadline();
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
-        Customer customer = customerClient.getCustomer(account.getCustomerId());
-        account.setCustomer(customer);
-        return accountMapper.toDto(account);
+        CompletableFuture<Customer> customer = customerFetcher.fetchAsync(account.getCustomerId());
+        return toDtoWithCustomer(account, customerFetcher.await(customer, deadline));
+    }
+
+    @Override
+    public Optional<ResourceVersion> getAccountVersion(Long id) {
+        AccountVersionView view = accountRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        // Customer lu uniquement en local (cache / projection) : le 304 ne doit jamais attendre Feign
+        Customer customer = customerCache.getLocal(view.getCustomerId());
+        if (view.getCustomerId() != null && customer == null) {
+            return Optional.empty();
+        }
+        return Optional.of(AccountMapper.version(view.getId(), view.getVersion(), view.getUpdatedAt(),
+                view.getCustomerId(), customer));
+    }
+
+    private AccountResponse toDtoWithCustomer(Account account, Optional<Customer> customer) {
+        account.setCustomer(customer.orElse(null));
+        AccountResponse response = accountMapper.toDto(account);
+        response.setCustomerUnavailable(customer.isEmpty());
+        return response;
     }
 
     @Override
     public List<AccountResponse> getAllAccounts() {
-        return accountRepository.findAll()
-                .stream()
+        // Un appel Feign par paquet de clients distincts, puis jointure en mémoire
+        return toDtosWithCustomers(accountRepository.findAll());
+    }
+
+    @Override
+    public CursorPage<AccountResponse> getAccountsPage(Long after, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Account> accounts = accountRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, Limit.of(pageSize));
+        Long nextCursor = accounts.size() == pageSize ? accounts.get(accounts.size() - 1).getId() : null;
+        return CursorPage.<AccountResponse>builder()
+                .items(toDtosWithCustomers(accounts))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public void streamAllAccounts(Consumer<AccountResponse> consumer) {
+        if (shards.enabled()) {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                streamShardByPages(shard, consumer);
+            }
+            return;
+        }
+        readOnlyTransaction.executeWithoutResult(status -> streamWithCursor(consumer));
+    }
+
+    // Mode partitionné : pages par curseur sur un shard, sans transaction ouverte pendant la conversion
+    // (les customers sont lus hors du shard : la projection locale est sur le shard 0)
+    private void streamShardByPages(int shard, Consumer<AccountResponse> consumer) {
+        long after = 0L;
+        List<Account> page;
+        do {
+            long cursor = after;
+            page = shards.on(shard, () -> accountRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(STREAM_CHUNK_SIZE)));
+            toDtosWithCustomers(page).forEach(consumer);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == STREAM_CHUNK_SIZE);
+    }
+
+    private void streamWithCursor(Consumer<AccountResponse> consumer) {
+        // Mémoire constante : on traite par paquets de STREAM_CHUNK_SIZE comptes,
+        // un seul appel customers par paquet, puis on vide le contexte de persistance
+        List<Account> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Account> accounts = accountRepository.streamAll()) {
+            Iterator<Account> iterator = accounts.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    toDtosWithCustomers(chunk).forEach(consumer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        toDtosWithCustomers(chunk).forEach(consumer);
+    }
+
+    private List<AccountResponse> toDtosWithCustomers(List<Account> accounts) {
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+        Optional<Map<Long, Customer>> customers = loadCustomers(accounts);
+        return accounts.stream()
                 .map(account -> {
-                    Customer customer = customerClient.getCustomer(account.getCustomerId());
-                    account.setCustomer(customer);
-                    return accountMapper.toDto(account);
+                    account.setCustomer(customers.map(loaded -> loaded.get(account.getCustomerId())).orElse(null));
+                    AccountResponse response = accountMapper.toDto(account);
+                    response.setCustomerUnavailable(customers.isEmpty());
+                    return response;
                 })
                 .toList();
     }
 
+    // Optional vide : circuit ouvert ou customer-service en panne, les comptes sont renvoyés sans customer
+    private Optional<Map<Long, Customer>> loadCustomers(List<Account> accounts) {
+        try {
+            return Optional.of(customerCache.getAll(accounts.stream().map(Account::getCustomerId).toList()));
+        } catch (CustomerUnavailableException e) {
+            return Optional.empty();
+        }
+    }
+
     @Override
     public List<AccountResponse> getAccountsByCustomerId(Long customerId) {
-        Customer customer = customerClient.getCustomer(customerId);
-        return accountRepository.findByCustomerId(customerId)
-                .stream()
-                .map(account -> {
-                    // On réutilise le même customer pour éviter N appels Feign
-                    account.setCustomer(customer);
-                    return accountMapper.toDto(account);
-                })
+        return getAccountsByCustomerId(customerId, true);
+    }
+
+    @Override
+    public List<AccountResponse> getAccountsByCustomerId(Long customerId, boolean includeCustomer) {
+        if (!includeCustomer) {
+            return accountRepository.findByCustomerId(customerId).stream().map(accountMapper::toDto).toList();
+        }
+        long deadline = customerFetcher.deadline();
+        CompletableFuture<Customer> pending = customerFetcher.fetchAsync(customerId);
+        List<Account> accounts = accountRepository.findByCustomerId(customerId);
+        Optional<Customer> customer = customerFetcher.await(pending, deadline);
+        return accounts.stream()
+                // On réutilise le même customer pour éviter N appels Feign
+                .map(account -> toDtoWithCustomer(account, customer))
                 .toList();
     }
 
+    @Override
+    public CustomerBalanceResponse getCustomerBalance(Long customerId) {
+        // Une seule ligne lue sur le shard du client ; pas de ligne = aucun compte ouvert
+        CustomerBalance balance = shards.onCustomer(customerId, () -> balanceRepository.findById(customerId))
+                .orElseGet(() -> CustomerBalance.builder().customerId(customerId).build());
+        Map<AccountType, TypeBalance> byType = new EnumMap<>(AccountType.class);
+        byType.put(AccountType.CURRENT, typeBalance(balance.getCurrentAccounts(), balance.getCurrentBalanceMinor()));
+        byType.put(AccountType.SAVINGS, typeBalance(balance.getSavingsAccounts(), balance.getSavingsBalanceMinor()));
+        return CustomerBalanceResponse.builder()
+                .customerId(customerId)
+                .accounts(balance.getCurrentAccounts() + balance.getSavingsAccounts())
+                .balance(AmountConverter.toMajorUnits(balance.getCurrentBalanceMinor() + balance.getSavingsBalanceMinor()))
+                .byType(byType)
+                .updatedAt(balance.getUpdatedAt())
+                .build();
+    }
+
+    private static TypeBalance typeBalance(long accounts, long balanceMinor) {
+        return TypeBalance.builder()
+                .accounts(accounts)
+                .balance(AmountConverter.toMajorUnits(balanceMinor))
+                .build();
+    }
+
     @Override
     public void deleteAccount(Long id) {
-        if (!accountRepository.existsById(id)) {
-            throw new RuntimeException("Account not found");
-        }
-        accountRepository.deleteById(id);
+        // La suppression et la mise à jour de l'agrégat sont validées ensemble, sur le shard du compte
+        Account account = shards.onAccount(id, () -> transactionTemplate.execute(status -> {
+            Account found = accountRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+            accountRepository.delete(found);
+            entityManager.flush();
+            balanceUpdater.apply(CustomerBalanceUpdater.changes().closed(found));
+            return found;
+        }));
+        // Mode partitionné : le numéro redevient disponible
+        accountNumberRegistry.release(account.getAccountNumber());
     }
 }
@@ -0,0 +1,21 @@
+package com.senyitte.accountservices.services;
+
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.dtos.LedgerEntryResponse;
+import com.senyitte.accountservices.dtos.MovementRequest;
+import com.senyitte.accountservices.dtos.TransactionResponse;
+import com.senyitte.accountservices.dtos.TransferRequest;
+
+import java.time.Instant;
+
+public interface TransactionService {
+
+    TransactionResponse credit(Long accountId, MovementRequest dto);
+    TransactionResponse debit(Long accountId, MovementRequest dto);
+    // Virement interne entre deux comptes, atomique (les deux côtés ou rien ; entre shards, au plus tard après reprise)
+    TransactionResponse transfer(TransferRequest dto);
+    // Journal d'un compte, du plus récent au plus ancien, avant le curseur "before"
+    CursorPage<LedgerEntryResponse> getLedger(Long accountId, Long before, int size);
+    // Reprise des virements entre shards restés DEBITED, créés avant "createdBefore" ; retourne le nombre terminé
+    int recoverTransfers(Instant createdBefore, int limit);
+}
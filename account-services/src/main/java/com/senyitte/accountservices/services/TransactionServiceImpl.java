@@ -0,0 +1,355 @@
+package com.senyitte.accountservices.services;
+
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.dtos.LedgerEntryResponse;
+import com.senyitte.accountservices.dtos.MovementRequest;
+import com.senyitte.accountservices.dtos.TransactionResponse;
+import com.senyitte.accountservices.dtos.TransferRequest;
+import com.senyitte.accountservices.mappers.AmountConverter;
+import com.senyitte.accountservices.mappers.LedgerEntryMapper;
+import com.senyitte.accountservices.models.EntryType;
+import com.senyitte.accountservices.models.LedgerEntry;
+import com.senyitte.accountservices.models.ShardTransfer;
+import com.senyitte.accountservices.models.TransactionType;
+import com.senyitte.accountservices.models.TransferStatus;
+import com.senyitte.accountservices.repository.AccountOwnerView;
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.LedgerEntryRepository;
+import com.senyitte.accountservices.repository.ShardTransferRepository;
+import com.senyitte.accountservices.sharding.AccountShards;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Mouvements de solde.
+// Concurrence : chaque mouvement est un UPDATE atomique sur la ligne du compte, la base
+// ne verrouille donc que les comptes touchés (pas de verrou global). Un virement verrouille
+// ses deux comptes toujours dans l'ordre croissant des ids pour éviter les interblocages.
+// Partitionnement : chaque opération s'exécute sur le shard de son compte (voir AccountShards) ;
+// un virement entre deux shards n'a pas de transaction commune, il est suivi par un ShardTransfer (voir transferAcrossShards).
+// Agrégats par client : chaque transaction ajoute ses mouvements à CustomerBalance avant de valider.
+@Timed("account.service")
+@Service
+public class TransactionServiceImpl implements TransactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerEntryMapper ledgerEntryMapper;
+    private final AccountShards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerBalanceUpdater balanceUpdater;
+    private final ShardTransferRepository shardTransferRepository;
+
+    public TransactionServiceImpl(AccountRepository accountRepository,
+                                  LedgerEntryRepository ledgerEntryRepository,
+                                  LedgerEntryMapper ledgerEntryMapper,
+                                  AccountShards shards,
+                                  TransactionTemplate transactionTemplate,
+                                  CustomerBalanceUpdater balanceUpdater,
+                                  ShardTransferRepository shardTransferRepository) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerEntryMapper = ledgerEntryMapper;
+        this.shards = shards;
+        this.transactionTemplate = transactionTemplate;
+        this.balanceUpdater = balanceUpdater;
+        this.shardTransferRepository = shardTransferRepository;
+    }
+
+    @Override
+    @Transactional
+    public TransactionResponse credit(Long accountId, MovementRequest dto) {
+        long amount = positiveMinorUnits(dto.getAmount());
+        String reference = newReference();
+
+        // La connexion de la transaction n'est prise qu'au premier ordre SQL, donc sur ce shard
+        return shards.onAccount(accountId, () -> {
+            CustomerBalanceUpdater.Changes changes = CustomerBalanceUpdater.changes();
+            applyCredit(accountId, amount, changes);
+            ledgerEntryRepository.save(entry(accountId, EntryType.CREDIT, amount, reference));
+            balanceUpdater.apply(changes);
+
+            return TransactionResponse.builder()
+                    .reference(reference)
+                    .type(TransactionType.CREDIT)
+                    .amount(AmountConverter.toMajorUnits(amount))
+                    .toAccountId(accountId)
+                    .toBalance(currentBalance(accountId))
+                    .build();
+        });
+    }
+
+    @Override
+    @Transactional
+    public TransactionResponse debit(Long accountId, MovementRequest dto) {
+        long amount = positiveMinorUnits(dto.getAmount());
+        String reference = newReference();
+
+        return shards.onAccount(accountId, () -> {
+            CustomerBalanceUpdater.Changes changes = CustomerBalanceUpdater.changes();
+            applyDebit(accountId, amount, changes);
+            ledgerEntryRepository.save(entry(accountId, EntryType.DEBIT, amount, reference));
+            balanceUpdater.apply(changes);
+
+            return TransactionResponse.builder()
+                    .reference(reference)
+                    .type(TransactionType.DEBIT)
+                    .amount(AmountConverter.toMajorUnits(amount))
+                    .fromAccountId(accountId)
+                    .fromBalance(currentBalance(accountId))
+                    .build();
+        });
+    }
+
+    @Override
+    public TransactionResponse transfer(TransferRequest dto) {
+        Long fromId = dto.getFromAccountId();
+        Long toId = dto.getToAccountId();
+        if (fromId == null || toId == null) {
+            throw new RuntimeException("Both fromAccountId and toAccountId are required");
+        }
+        if (fromId.equals(toId)) {
+            throw new RuntimeException("Cannot transfer to the same account");
+        }
+        long amount = positiveMinorUnits(dto.getAmount());
+        String reference = newReference();
+
+        int fromShard = shards.forId(fromId);
+        if (fromShard != shards.forId(toId)) {
+            return transferAcrossShards(fromId, toId, amount, reference);
+        }
+        return shards.on(fromShard, () -> transactionTemplate.execute(status ->
+                transferWithinShard(fromId, toId, amount, reference)));
+    }
+
+    private TransactionResponse transferWithinShard(Long fromId, Long toId, long amount, String reference) {
+        // Ordre déterministe : le plus petit id est toujours verrouillé en premier.
+        // Si le débit échoue après le crédit, l'exception annule toute la transaction.
+        CustomerBalanceUpdater.Changes changes = CustomerBalanceUpdater.changes();
+        if (fromId < toId) {
+            applyDebit(fromId, amount, changes);
+            applyCredit(toId, amount, changes);
+        } else {
+            applyCredit(toId, amount, changes);
+            applyDebit(fromId, amount, changes);
+        }
+        ledgerEntryRepository.saveAll(List.of(
+                entry(fromId, EntryType.DEBIT, amount, reference),
+                entry(toId, EntryType.CREDIT, amount, reference)));
+        // Agrégats après les comptes, par ordre de client (voir CustomerBalanceUpdater)
+        balanceUpdater.apply(changes);
+
+        return TransactionResponse.builder()
+                .reference(reference)
+                .type(TransactionType.TRANSFER)
+                .amount(AmountConverter.toMajorUnits(amount))
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .fromBalance(currentBalance(fromId))
+                .toBalance(currentBalance(toId))
+                .build();
+    }
+
+    // Comptes sur deux bases : pas de transaction commune ni de verrou entre shards.
+    // 1. Shard source, une transaction : débit (solde vérifié) et virement DEBITED
+    // 2. Shard cible : crédit, une seule fois par référence (déjà présent = déjà crédité)
+    // 3. Shard source : COMPLETED ; ou, si le crédit est définitivement impossible, COMPENSATED
+    //    et crédit de compensation dans la même transaction
+    // Une panne entre deux étapes (arrêt, shard indisponible, accusé de commit perdu) laisse le virement
+    // DEBITED : ShardTransferRecoveryJob le reprend à l'étape 2. Les écritures portent la même référence.
+    private TransactionResponse transferAcrossShards(Long fromId, Long toId, long amount, String reference) {
+        ShardTransfer transfer = shards.onAccount(fromId, () -> transactionTemplate.execute(status -> {
+            movement(fromId, EntryType.DEBIT, amount, reference);
+            Instant now = Instant.now();
+            return shardTransferRepository.save(ShardTransfer.builder()
+                    .reference(reference)
+                    .fromAccountId(fromId)
+                    .toAccountId(toId)
+                    .amountMinor(amount)
+                    .status(TransferStatus.DEBITED)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }));
+        Resumed resumed = resume(transfer);
+        if (resumed.status() == TransferStatus.DEBITED) {
+            throw new RuntimeException("Transfer " + reference + " is pending: the credit will be retried");
+        }
+        if (resumed.status() == TransferStatus.COMPENSATED) {
+            throw resumed.creditFailure();
+        }
+
+        return TransactionResponse.builder()
+                .reference(reference)
+                .type(TransactionType.TRANSFER)
+                .amount(AmountConverter.toMajorUnits(amount))
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .fromBalance(currentBalance(fromId))
+                .toBalance(currentBalance(toId))
+                .build();
+    }
+
+    @Override
+    public int recoverTransfers(Instant createdBefore, int limit) {
+        int resolved = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            List<ShardTransfer> pending = shards.on(shard, () ->
+                    shardTransferRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAtAsc(
+                            TransferStatus.DEBITED, createdBefore, Limit.of(limit)));
+            for (ShardTransfer transfer : pending) {
+                try {
+                    if (resume(transfer).status() != TransferStatus.DEBITED) {
+                        resolved++;
+                    }
+                } catch (RuntimeException e) {
+                    // Compensation elle-même refusée : le virement reste DEBITED, repris au passage suivant
+                    log.error("Transfer {} could not be compensated: {}", transfer.getReference(), e.getMessage(), e);
+                }
+            }
+        }
+        return resolved;
+    }
+
+    // État atteint par un virement repris, avec le refus du crédit s'il a été compensé
+    private record Resumed(TransferStatus status, RuntimeException creditFailure) {
+    }
+
+    // Étapes 2 et 3 : DEBITED si le crédit ou le nouvel état n'a pas pu être confirmé (erreur d'accès aux données)
+    private Resumed resume(ShardTransfer transfer) {
+        String reference = transfer.getReference();
+        Long fromId = transfer.getFromAccountId();
+        Long toId = transfer.getToAccountId();
+        RuntimeException creditFailure = null;
+        try {
+            shards.onAccount(toId, () -> transactionTemplate.execute(status -> {
+                if (!ledgerEntryRepository.existsByAccountIdAndReferenceAndType(toId, reference, EntryType.CREDIT)) {
+                    movement(toId, EntryType.CREDIT, transfer.getAmountMinor(), reference);
+                }
+                return null;
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            // Issue inconnue (shard indisponible, commit peut-être passé) : ne rien compenser ici
+            log.warn("Transfer {} credit not confirmed: {}", reference, e.getMessage());
+            return new Resumed(TransferStatus.DEBITED, null);
+        } catch (RuntimeException e) {
+            // Refus métier (compte inexistant, plafond) : la transaction du crédit a été annulée
+            creditFailure = e;
+        }
+        try {
+            if (creditFailure == null) {
+                shards.onAccount(fromId, () -> transactionTemplate.execute(status -> shardTransferRepository.advance(
+                        reference, TransferStatus.DEBITED, TransferStatus.COMPLETED, Instant.now())));
+                return new Resumed(TransferStatus.COMPLETED, null);
+            }
+            shards.onAccount(fromId, () -> transactionTemplate.execute(status -> {
+                // Compensation une seule fois : seul le passage DEBITED -> COMPENSATED crédite le compte débité
+                if (shardTransferRepository.advance(reference, TransferStatus.DEBITED, TransferStatus.COMPENSATED,
+                        Instant.now()) == 1) {
+                    movement(fromId, EntryType.CREDIT, transfer.getAmountMinor(), reference);
+                }
+                return null;
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Transfer {} state not recorded: {}", reference, e.getMessage());
+            return new Resumed(TransferStatus.DEBITED, null);
+        }
+        return new Resumed(TransferStatus.COMPENSATED, creditFailure);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<LedgerEntryResponse> getLedger(Long accountId, Long before, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Écritures stockées sur le shard du compte
+        List<LedgerEntry> entries = shards.onAccount(accountId, () -> ledgerEntryRepository.findByAccountIdAndIdLessThanOrderByIdDesc(
+                accountId, before == null ? Long.MAX_VALUE : before, Limit.of(pageSize)));
+        Long nextCursor = entries.size() == pageSize ? entries.get(entries.size() - 1).getId() : null;
+        return CursorPage.<LedgerEntryResponse>builder()
+                .items(entries.stream().map(ledgerEntryMapper::toDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Un mouvement seul, avec son écriture et son agrégat, dans la transaction courante
+    private LedgerEntry movement(Long accountId, EntryType type, long amount, String reference) {
+        CustomerBalanceUpdater.Changes changes = CustomerBalanceUpdater.changes();
+        if (type == EntryType.DEBIT) {
+            applyDebit(accountId, amount, changes);
+        } else {
+            applyCredit(accountId, amount, changes);
+        }
+        LedgerEntry saved = ledgerEntryRepository.save(entry(accountId, type, amount, reference));
+        balanceUpdater.apply(changes);
+        return saved;
+    }
+
+    private void applyCredit(Long accountId, long amount, CustomerBalanceUpdater.Changes changes) {
+        if (accountRepository.credit(accountId, amount, Instant.now()) == 0) {
+            if (!accountRepository.existsById(accountId)) {
+                throw new RuntimeException("Account not found: " + accountId);
+            }
+            throw new RuntimeException("Balance limit exceeded on account: " + accountId);
+        }
+        moved(accountId, amount, changes);
+    }
+
+    private void applyDebit(Long accountId, long amount, CustomerBalanceUpdater.Changes changes) {
+        if (accountRepository.debit(accountId, amount, Instant.now()) == 0) {
+            // Distinguer "compte inconnu" de "solde insuffisant" seulement en cas d'échec
+            if (!accountRepository.existsById(accountId)) {
+                throw new RuntimeException("Account not found: " + accountId);
+            }
+            throw new RuntimeException("Insufficient funds on account: " + accountId);
+        }
+        moved(accountId, -amount, changes);
+    }
+
+    // Ligne du compte déjà verrouillée par l'UPDATE : client et type ne peuvent plus changer d'ici au commit
+    private void moved(Long accountId, long delta, CustomerBalanceUpdater.Changes changes) {
+        AccountOwnerView owner = accountRepository.findOwnerById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found: " + accountId));
+        changes.moved(owner.getCustomerId(), owner.getType(), delta);
+    }
+
+    private BigDecimal currentBalance(Long accountId) {
+        return AmountConverter.toMajorUnits(accountRepository.findBalanceMinorById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found: " + accountId)));
+    }
+
+    private static long positiveMinorUnits(BigDecimal amount) {
+        long minorUnits = AmountConverter.toMinorUnits(amount);
+        if (minorUnits <= 0) {
+            throw new RuntimeException("Amount must be positive");
+        }
+        return minorUnits;
+    }
+
+    private static LedgerEntry entry(Long accountId, EntryType type, long amount, String reference) {
+        return LedgerEntry.builder()
+                .accountId(accountId)
+                .type(type)
+                .amountMinor(amount)
+                .reference(reference)
+                .build();
+    }
+
+    private static String newReference() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.senyitte.accountservices.sharding;
+
+import com.senyitte.accountservices.models.AccountNumberClaim;
+import com.senyitte.accountservices.repository.AccountNumberClaimRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Unicité globale des numéros de compte en mode partitionné, sans verrou entre shards :
+// chaque numéro a un shard de réservation fixe (hachage du numéro), où il ne peut être inséré qu'une fois.
+// Sans partitionnement, rien à faire : la contrainte unique de account.account_number suffit.
+@Component
+public class AccountNumberRegistry {
+
+    private final AccountShards shards;
+    private final AccountNumberClaimRepository claimRepository;
+    // Transaction propre sur le shard du numéro, qui n'est en général pas celui du compte
+    private final TransactionTemplate newTransaction;
+
+    public AccountNumberRegistry(AccountShards shards,
+                                 AccountNumberClaimRepository claimRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.shards = shards;
+        this.claimRepository = claimRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void claim(String accountNumber, Long customerId) {
+        if (!tryClaim(accountNumber, customerId)) {
+            throw new RuntimeException("Account number already exists: " + accountNumber);
+        }
+    }
+
+    // false = numéro déjà réservé
+    public boolean tryClaim(String accountNumber, Long customerId) {
+        if (!shards.enabled()) {
+            return true;
+        }
+        try {
+            shards.on(shards.forAccountNumber(accountNumber), () -> newTransaction.execute(status ->
+                    claimRepository.saveAndFlush(new AccountNumberClaim(accountNumber, customerId, Instant.now()))));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Numéro de nouveau disponible (compte supprimé, renuméroté ou création échouée)
+    public void release(String accountNumber) {
+        if (!shards.enabled()) {
+            return;
+        }
+        shards.on(shards.forAccountNumber(accountNumber), () -> newTransaction.execute(status ->
+                claimRepository.release(accountNumber)));
+    }
+
+    // Numéros déjà réservés parmi "accountNumbers" : une requête "IN" par shard concerné
+    public List<String> claimedAmong(Collection<String> accountNumbers) {
+        Map<Integer, List<String>> byShard = accountNumbers.stream()
+                .collect(Collectors.groupingBy(shards::forAccountNumber));
+        List<String> claimed = new ArrayList<>();
+        byShard.forEach((shard, numbers) ->
+                claimed.addAll(shards.on(shard, () -> claimRepository.findClaimed(numbers))));
+        return claimed;
+    }
+
+    // Client (donc shard) du compte portant ce numéro
+    public Optional<Long> customerOf(String accountNumber) {
+        return shards.on(shards.forAccountNumber(accountNumber), () -> claimRepository.findById(accountNumber))
+                .map(AccountNumberClaim::getCustomerId);
+    }
+}
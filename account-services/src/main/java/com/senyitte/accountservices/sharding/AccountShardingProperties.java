@@ -0,0 +1,32 @@
+package com.senyitte.accountservices.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Partitionnement des comptes (préfixe "account.sharding" dans application.properties)
+@Data
+@Component
+@ConfigurationProperties(prefix = "account.sharding")
+public class AccountShardingProperties {
+    // false = une seule base (spring.datasource.*), ids et requêtes inchangés
+    private boolean enabled = false;
+    // Shard 0 = spring.datasource.*, qui garde aussi les tables non partitionnées (projection customers, checkpoint).
+    // Puis une base par shard supplémentaire : shards[0] est le shard 1, etc.
+    // Ordre à ne plus changer une fois des comptes créés (le shard est encodé dans les ids)
+    private List<Shard> shards = new ArrayList<>();
+    // Threads des lectures envoyées à tous les shards en parallèle (getAllAccounts, pages, count)
+    private int scatterThreads = 16;
+
+    @Data
+    public static class Shard {
+        private String url;
+        // Vides = mêmes identifiants que spring.datasource.*
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
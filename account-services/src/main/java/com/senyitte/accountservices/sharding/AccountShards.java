@@ -0,0 +1,78 @@
+package com.senyitte.accountservices.sharding;
+
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Répartition des comptes entre shards par hachage du customerId : tous les comptes d'un client
+// sont sur le même shard. L'id d'un compte porte son shard dans ses bits de poids faible,
+// une recherche par id va donc directement au bon shard, sans table de correspondance.
+// Sans partitionnement : un seul shard (0), les opérations s'exécutent telles quelles.
+@Component
+public class AccountShards {
+
+    static final int SHARD_BITS = 10;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private final boolean enabled;
+    private final int count;
+
+    public AccountShards(AccountShardingProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.count = enabled ? 1 + properties.getShards().size() : 1;
+        if (count > MAX_SHARDS) {
+            throw new IllegalStateException("account.sharding supports at most " + MAX_SHARDS + " shards");
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int forCustomer(Long customerId) {
+        return enabled ? Math.floorMod(mix(customerId), count) : 0;
+    }
+
+    public int forId(Long accountId) {
+        return enabled ? shardOf(accountId) : 0;
+    }
+
+    // Shard où un numéro de compte est réservé (voir AccountNumberRegistry), indépendant du client
+    public int forAccountNumber(String accountNumber) {
+        return enabled ? Math.floorMod(mix(accountNumber.hashCode()), count) : 0;
+    }
+
+    // Connexions ouvertes par "action" prises sur ce shard (voir ShardRoutingDataSource)
+    public <T> T on(int shard, Supplier<T> action) {
+        return enabled ? ShardContext.on(shard, action) : action.get();
+    }
+
+    public <T> T onAccount(Long accountId, Supplier<T> action) {
+        return on(forId(accountId), action);
+    }
+
+    public <T> T onCustomer(Long customerId, Supplier<T> action) {
+        return on(forCustomer(customerId), action);
+    }
+
+    // Id = valeur de séquence du shard suivie des SHARD_BITS bits du numéro de shard
+    public static long encode(long sequenceValue, int shard) {
+        return (sequenceValue << SHARD_BITS) | shard;
+    }
+
+    public static int shardOf(long accountId) {
+        return (int) (accountId & (MAX_SHARDS - 1));
+    }
+
+    // Finaliseur de SplitMix64 : des customerId consécutifs se répartissent uniformément
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
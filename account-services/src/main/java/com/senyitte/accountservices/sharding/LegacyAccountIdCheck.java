@@ -0,0 +1,21 @@
+package com.senyitte.accountservices.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+// Les comptes créés avant l'activation du partitionnement (tous sur le shard 0) ont des ids de séquence bruts :
+// leurs bits de poids faible seraient lus comme un numéro de shard, et une recherche par id irait sur le mauvais shard.
+// Démarrage refusé tant qu'il en reste (seuls les multiples de MAX_SHARDS sont lus shard 0, donc toujours valides)
+final class LegacyAccountIdCheck {
+
+    LegacyAccountIdCheck(DataSource shardZero) {
+        Long legacy = new JdbcTemplate(shardZero).queryForObject(
+                "select count(*) from account where mod(id, ?) <> 0", Long.class, AccountShards.MAX_SHARDS);
+        if (legacy != null && legacy > 0) {
+            throw new IllegalStateException(legacy + " account(s) on shard 0 have ids created before " +
+                    "account.sharding.enabled=true: renumber them (id * " + AccountShards.MAX_SHARDS +
+                    ", with their ledger entries) or keep sharding disabled");
+        }
+    }
+}
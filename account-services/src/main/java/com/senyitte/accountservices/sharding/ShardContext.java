@@ -0,0 +1,31 @@
+package com.senyitte.accountservices.sharding;
+
+import java.util.function.Supplier;
+
+// Shard des connexions ouvertes par le thread courant (clé de ShardRoutingDataSource,
+// et shard encodé dans les ids générés par ShardedSequenceGenerator)
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static <T> T on(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
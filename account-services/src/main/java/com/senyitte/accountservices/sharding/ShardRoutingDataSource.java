@@ -0,0 +1,28 @@
+package com.senyitte.accountservices.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+// Connexion prise sur le shard du thread courant (ShardContext).
+// Sans shard (démarrage d'Hibernate, tables non partitionnées) : shard 0
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    // Les pools des shards supplémentaires ne sont pas des beans : fermés avec celui-ci
+    // (le shard 0 est le pool spring.datasource.*, fermé par Spring)
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : getResolvedDataSources().values()) {
+            if (shard != getResolvedDefaultDataSource() && shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
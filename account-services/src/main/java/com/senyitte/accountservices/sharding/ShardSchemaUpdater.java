@@ -0,0 +1,55 @@
+package com.senyitte.accountservices.sharding;
+
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountNumberClaim;
+import com.senyitte.accountservices.models.BalanceSnapshot;
+import com.senyitte.accountservices.models.CustomerBalance;
+import com.senyitte.accountservices.models.LedgerEntry;
+import com.senyitte.accountservices.models.ShardTransfer;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.spi.DelayedDropRegistryNotAvailableImpl;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Équivalent de ddl-auto=update pour un shard supplémentaire, limité aux tables partitionnées
+// (comptes, écritures, réservations de numéros, soldes journaliers, agrégats par client, virements entre shards) :
+// les autres tables restent sur le shard 0
+final class ShardSchemaUpdater {
+
+    private static final List<Class<?>> SHARDED_ENTITIES = List.of(
+            Account.class, LedgerEntry.class, AccountNumberClaim.class, BalanceSnapshot.class,
+            CustomerBalance.class, ShardTransfer.class);
+
+    private final Map<String, Object> settings;
+
+    // Mêmes réglages Hibernate que l'application (dialecte, stratégies de nommage), sans cache de second niveau
+    ShardSchemaUpdater(Map<String, Object> hibernateSettings) {
+        this.settings = new HashMap<>(hibernateSettings);
+        this.settings.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        this.settings.remove(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION);
+        this.settings.put(AvailableSettings.HBM2DDL_AUTO, "update");
+        this.settings.put(AvailableSettings.HBM2DDL_HALT_ON_ERROR, true);
+    }
+
+    void update(DataSource shard) {
+        Map<String, Object> shardSettings = new HashMap<>(settings);
+        shardSettings.put(AvailableSettings.DATASOURCE, shard);
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder().applySettings(shardSettings).build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            SHARDED_ENTITIES.forEach(sources::addAnnotatedClass);
+            // Même chemin que ddl-auto=update au démarrage de la SessionFactory (hibernate-core uniquement)
+            SchemaManagementToolCoordinator.process(sources.buildMetadata(), registry, shardSettings,
+                    DelayedDropRegistryNotAvailableImpl.INSTANCE);
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
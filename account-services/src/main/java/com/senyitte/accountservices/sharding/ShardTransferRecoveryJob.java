@@ -0,0 +1,45 @@
+package com.senyitte.accountservices.sharding;
+
+import com.senyitte.accountservices.services.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Reprise des virements entre shards restés DEBITED (voir TransactionServiceImpl.transferAcrossShards).
+// Seuls les virements plus anciens que min-age sont repris : la requête qui les a créés a fini de s'exécuter
+@Component
+@ConditionalOnProperty(prefix = "account.sharding", name = "enabled", havingValue = "true")
+public class ShardTransferRecoveryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardTransferRecoveryJob.class);
+
+    private final TransactionService transactionService;
+    private final Duration minAge;
+    private final int batchSize;
+
+    public ShardTransferRecoveryJob(TransactionService transactionService,
+                                    @Value("${account.sharding.transfer-recovery.min-age:5m}") Duration minAge,
+                                    @Value("${account.sharding.transfer-recovery.batch-size:500}") int batchSize) {
+        this.transactionService = transactionService;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${account.sharding.transfer-recovery.interval:1m}")
+    public void recover() {
+        try {
+            int resolved = transactionService.recoverTransfers(Instant.now().minus(minAge), batchSize);
+            if (resolved > 0) {
+                log.info("Recovered {} cross-shard transfers", resolved);
+            }
+        } catch (RuntimeException e) {
+            log.error("Cross-shard transfer recovery failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.senyitte.accountservices.sharding;
+
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.repository.AccountRepository;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+// AccountRepository partitionné, autour du repository Spring Data (un seul, utilisé shard par shard) :
+// - par id ou par client : un seul shard (id encodé, hachage du customerId)
+// - par numéro de compte : registre des numéros (shard fixe par numéro), puis shard du client
+// - lectures globales (findAll, pages, count) : tous les shards en parallèle, fusion par id ;
+//   appelées sur un shard (AccountShards.on), elles ne lisent que celui-ci
+// Les autres méthodes ne sont pas routables et lèvent une exception.
+final class ShardedAccountRepository implements InvocationHandler {
+
+    private final AccountRepository delegate;
+    private final AccountShards shards;
+    private final AccountNumberRegistry registry;
+    private final Executor scatterExecutor;
+
+    private ShardedAccountRepository(AccountRepository delegate, AccountShards shards,
+                                     AccountNumberRegistry registry, Executor scatterExecutor) {
+        this.delegate = delegate;
+        this.shards = shards;
+        this.registry = registry;
+        this.scatterExecutor = scatterExecutor;
+    }
+
+    static AccountRepository create(AccountRepository delegate, AccountShards shards,
+                                    AccountNumberRegistry registry, Executor scatterExecutor) {
+        return (AccountRepository) Proxy.newProxyInstance(AccountRepository.class.getClassLoader(),
+                new Class<?>[]{AccountRepository.class},
+                new ShardedAccountRepository(delegate, shards, registry, scatterExecutor));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        int arity = args == null ? 0 : args.length;
+        return switch (method.getName()) {
+            case "findById", "existsById", "deleteById", "credit", "debit", "findVersionById", "findBalanceMinorById",
+                 "findOwnerById" ->
+                    onShard(shards.forId((Long) args[0]), method, args);
+            case "save", "saveAndFlush", "delete" -> onShard(shardOf((Account) args[0]), method, args);
+            case "saveAll", "saveAllAndFlush" -> onShard(singleShard((Iterable<Account>) args[0]), method, args);
+            case "findByCustomerId" -> onShard(shards.forCustomer((Long) args[0]), method, args);
+            case "findByAccountNumber" -> registry.customerOf((String) args[0])
+                    .flatMap(customerId -> (Optional<Account>) onShard(shards.forCustomer(customerId), method, args));
+            case "findExistingAccountNumbers" -> registry.claimedAmong((Collection<String>) args[0]);
+            case "findByIdGreaterThanOrderByIdAsc" -> mergeById(scatter(method, args), max((Limit) args[1]));
+            case "findAll" -> {
+                if (arity != 0) {
+                    throw notRoutable(method);
+                }
+                yield mergeById(scatter(method, args), Integer.MAX_VALUE);
+            }
+            case "count" -> scatter(method, args).stream().mapToLong(count -> (Long) count).sum();
+            case "toString" -> "ShardedAccountRepository(" + shards.count() + " shards)";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw notRoutable(method);
+        };
+    }
+
+    private int shardOf(Account account) {
+        int shard = shards.forCustomer(account.getCustomerId());
+        if (account.getId() != null && shards.forId(account.getId()) != shard) {
+            throw new IllegalStateException("Account " + account.getId() + " cannot move to shard " + shard);
+        }
+        return shard;
+    }
+
+    // Un saveAll ne peut pas être atomique sur plusieurs bases : l'appelant groupe par shard
+    private int singleShard(Iterable<Account> accounts) {
+        Set<Integer> targets = new HashSet<>();
+        accounts.forEach(account -> targets.add(shardOf(account)));
+        if (targets.size() > 1) {
+            throw new IllegalStateException("saveAll spans shards " + targets + ": group accounts by shard");
+        }
+        return targets.isEmpty() ? 0 : targets.iterator().next();
+    }
+
+    private Object onShard(int shard, Method method, Object[] args) {
+        // Une transaction ouverte sur un shard ne peut pas lire ou écrire dans un autre
+        Integer current = ShardContext.current();
+        if (current != null && current != shard) {
+            throw new IllegalStateException(method.getName() + " targets shard " + shard + " inside shard " + current);
+        }
+        return ShardContext.on(shard, () -> call(method, args));
+    }
+
+    private List<Object> scatter(Method method, Object[] args) {
+        Integer current = ShardContext.current();
+        if (current != null) {
+            return List.of(call(method, args));
+        }
+        List<CompletableFuture<Object>> perShard = IntStream.range(0, shards.count())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(
+                        () -> ShardContext.on(shard, () -> call(method, args)), scatterExecutor))
+                .toList();
+        try {
+            return perShard.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Chaque shard renvoie ses comptes triés par id (ou non triés pour findAll) : tri global puis limite
+    @SuppressWarnings("unchecked")
+    private static List<Account> mergeById(List<Object> perShard, int limit) {
+        return perShard.stream()
+                .flatMap(accounts -> ((List<Account>) accounts).stream())
+                .sorted(Comparator.comparing(Account::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    private static int max(Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+
+    private Object call(Method method, Object[] args) {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UnsupportedOperationException notRoutable(Method method) {
+        return new UnsupportedOperationException("Not routable across shards: " + method.getName());
+    }
+}
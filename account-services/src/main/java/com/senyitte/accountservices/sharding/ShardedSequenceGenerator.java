@@ -0,0 +1,57 @@
+package com.senyitte.accountservices.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Séquence "pooled" compatible avec le partitionnement.
+// Hors shard (pas de partitionnement) : SequenceStyleGenerator standard, ids inchangés.
+// Sur un shard : chaque base a sa propre séquence, les blocs réservés sont donc gardés par shard
+// (un bloc lu dans un shard n'est jamais utilisé dans un autre) et le numéro du shard est ajouté à l'id.
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        Integer shard = ShardContext.current();
+        if (shard == null) {
+            return super.generate(session, object);
+        }
+        long value = blocks.computeIfAbsent(shard, s -> new Block(getOptimizer().getIncrementSize()))
+                .next(() -> getDatabaseStructure().buildCallback(session).getNextValue().makeValue().longValue());
+        return AccountShards.encode(value, shard);
+    }
+
+    // Même convention que l'optimiseur pooled : la valeur v lue dans la séquence réserve ]v - incrément, v]
+    private static final class Block {
+
+        private final int size;
+        // ReentrantLock plutôt que synchronized : la lecture de la séquence (aller-retour base)
+        // faite sous le verrou n'épingle pas les threads virtuels
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long last = 0;
+
+        Block(int size) {
+            this.size = size;
+        }
+
+        long next(LongSupplier fetch) {
+            lock.lock();
+            try {
+                if (next > last) {
+                    last = fetch.getAsLong();
+                    next = Math.max(1, last - size + 1);
+                }
+                return next++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.senyitte.accountservices.sharding;
+
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Comptes et écritures répartis sur plusieurs bases par client (voir AccountShards)
+@Configuration
+@ConditionalOnProperty(prefix = "account.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    // Shard 0 : spring.datasource.* et spring.datasource.hikari.*, comme sans partitionnement
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shardZeroDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("shard-0");
+        return dataSource;
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource shardZeroDataSource,
+                                                         DataSourceProperties primaryProperties,
+                                                         AccountShardingProperties sharding,
+                                                         MeterRegistry meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(0, shardZeroDataSource);
+        for (int i = 0; i < sharding.getShards().size(); i++) {
+            AccountShardingProperties.Shard shard = sharding.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + (i + 1));
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername() != null ? shard.getUsername() : primaryProperties.determineUsername());
+            dataSource.setPassword(shard.getPassword() != null ? shard.getPassword() : primaryProperties.determinePassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(shardZeroDataSource.getConnectionTimeout());
+            // Métriques hikaricp.connections.* par shard (tag pool=shard-N)
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            targets.put(i + 1, dataSource);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shardZeroDataSource);
+        // Shard inconnu = erreur, jamais de repli silencieux sur le shard 0
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    // La connexion n'est obtenue qu'à la première requête SQL : le shard est alors fixé (ShardContext),
+    // même si la transaction a été ouverte avant
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardScatterExecutor(AccountShardingProperties sharding, MeterRegistry meterRegistry) {
+        ExecutorService executor = Executors.newFixedThreadPool(sharding.getScatterThreads(),
+                new CustomizableThreadFactory("account-shard-"));
+        // executor.*{name=account.shard.scatter}
+        new ExecutorServiceMetrics(executor, "account.shard.scatter", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    // Remplace le repository Spring Data pour les services ; celui-ci reste utilisé, shard par shard
+    @Bean
+    @Primary
+    public AccountRepository shardedAccountRepository(@Qualifier("accountRepository") AccountRepository accountRepository,
+                                                      AccountShards shards,
+                                                      AccountNumberRegistry registry,
+                                                      @Qualifier("shardScatterExecutor") ExecutorService shardScatterExecutor) {
+        return ShardedAccountRepository.create(accountRepository, shards, registry, shardScatterExecutor);
+    }
+
+    // Refuse de démarrer sur des comptes antérieurs au partitionnement (ids sans shard), une fois le schéma créé
+    @Bean
+    public LegacyAccountIdCheck legacyAccountIdCheck(EntityManagerFactory entityManagerFactory,
+                                                     HikariDataSource shardZeroDataSource) {
+        return new LegacyAccountIdCheck(shardZeroDataSource);
+    }
+
+    // ddl-auto ne s'applique qu'au shard 0 : mêmes tables partitionnées sur les autres shards,
+    // une fois Hibernate démarré (d'où la dépendance à l'EntityManagerFactory)
+    @Bean
+    @ConditionalOnProperty(name = "spring.jpa.hibernate.ddl-auto", havingValue = "update")
+    public ShardSchemaUpdater shardSchemaUpdater(EntityManagerFactory entityManagerFactory,
+                                                 ShardRoutingDataSource shardRoutingDataSource,
+                                                 JpaProperties jpaProperties,
+                                                 HibernateProperties hibernateProperties) {
+        ShardSchemaUpdater updater = new ShardSchemaUpdater(
+                hibernateProperties.determineHibernateProperties(jpaProperties.getProperties(), new HibernateSettings()));
+        shardRoutingDataSource.getResolvedDataSources().forEach((shard, dataSource) -> {
+            if (!Integer.valueOf(0).equals(shard)) {
+                updater.update(dataSource);
+            }
+        });
+        return updater;
+    }
+}
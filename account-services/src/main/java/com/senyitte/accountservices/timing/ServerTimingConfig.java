@@ -0,0 +1,26 @@
+package com.senyitte.accountservices.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+// Points de mesure de ServerTiming : événements JDBC d'Hibernate et convertisseurs Jackson
+// (sans ServerTimingFilter, server-timing.enabled=false, ils ne mesurent rien)
+@Configuration
+public class ServerTimingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer serverTimingSessionListenerCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                ServerTimingSessionListener.class.getName());
+    }
+
+    // Remplace le convertisseur JSON par défaut de Spring Boot (même ObjectMapper)
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJsonHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,21 @@
+package com.senyitte.accountservices.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Convertisseur CBOR (voir CborConfig), avec la sérialisation mesurée (phase serialize de ServerTiming)
+public class TimedCborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    public TimedCborHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ServerTiming.serialize(outputMessage, output -> super.writeInternal(object, type, output));
+    }
+}
@@ -0,0 +1,20 @@
+package com.senyitte.accountservices.tracing;
+
+import io.micrometer.context.ContextSnapshotFactory;
+
+import java.util.concurrent.Executor;
+
+// Les appels vers customer-service partent souvent d'un autre thread (fetch asynchrone, chargement du cache,
+// hedging, lots) : sans copie du contexte, le span de la requête est perdu et l'appel Feign ouvre une
+// nouvelle trace. wrap() capture le contexte (observation, MDC...) au moment de la soumission.
+public final class ContextExecutors {
+
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private ContextExecutors() {
+    }
+
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(SNAPSHOTS.captureAll().wrap(task));
+    }
+}
@@ -0,0 +1,20 @@
+package com.senyitte.accountservices.tracing;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Export des spans : OTLP dès que management.otlp.tracing.endpoint est renseigné (auto-configuration),
+// et/ou dans les logs pour le développement (tracing.exporter.logging.enabled=true).
+// Tout autre bean SpanExporter est ajouté aux exporteurs par Spring Boot.
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter.logging.enabled", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,210 @@
+package com.senyitte.accountservices.balance;
+
+import com.senyitte.accountservices.dtos.CustomerBalanceVerificationReport;
+import com.senyitte.accountservices.dtos.MovementRequest;
+import com.senyitte.accountservices.dtos.TransferRequest;
+import com.senyitte.accountservices.mappers.LedgerEntryMapper;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.CustomerBalance;
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.CustomerBalanceRepository;
+import com.senyitte.accountservices.services.TransactionService;
+import com.senyitte.accountservices.services.TransactionServiceImpl;
+import com.senyitte.accountservices.sharding.AccountShardingProperties;
+import com.senyitte.accountservices.sharding.AccountShards;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Deux clients : 1 (courant + épargne) et 2 (courant). Les comptes sont insérés sans passer par le service,
+// comme des comptes antérieurs aux agrégats : une vérification avec correction les initialise
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-balance;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({CustomerBalanceUpdater.class, CustomerBalanceVerifier.class, CustomerBalanceBackfill.class, TransactionServiceImpl.class,
+        LedgerEntryMapper.class, AccountShards.class, AccountShardingProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerBalanceTest {
+
+    @Autowired
+    private CustomerBalanceVerifier verifier;
+    @Autowired
+    private CustomerBalanceBackfill backfill;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CustomerBalanceRepository balanceRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Account current;
+    private Account savings;
+    private Account other;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from CustomerBalance").executeUpdate();
+            entityManager.createQuery("delete from LedgerEntry").executeUpdate();
+            entityManager.createQuery("delete from Account").executeUpdate();
+        });
+        current = save("BAL-C1", AccountType.CURRENT, 1L, 50_000L);
+        savings = save("BAL-S1", AccountType.SAVINGS, 1L, 200_000L);
+        other = save("BAL-C2", AccountType.CURRENT, 2L, 10_000L);
+    }
+
+    private Account save(String accountNumber, AccountType type, Long customerId, long balanceMinor) {
+        return accountRepository.save(Account.builder()
+                .accountNumber(accountNumber)
+                .type(type)
+                .customerId(customerId)
+                .balanceMinor(balanceMinor)
+                .build());
+    }
+
+    private CustomerBalance balance(Long customerId) {
+        return balanceRepository.findById(customerId).orElseThrow();
+    }
+
+    @Test
+    void repairInitializesAggregatesOfExistingAccounts() {
+        CustomerBalanceVerificationReport report = verifier.verify(true);
+
+        assertThat(report.getCustomers()).isEqualTo(2);
+        assertThat(report.getDrifted()).isEqualTo(2);
+        assertThat(report.isRepaired()).isTrue();
+        CustomerBalance first = balance(1L);
+        assertThat(first.getCurrentAccounts()).isEqualTo(1L);
+        assertThat(first.getCurrentBalanceMinor()).isEqualTo(50_000L);
+        assertThat(first.getSavingsAccounts()).isEqualTo(1L);
+        assertThat(first.getSavingsBalanceMinor()).isEqualTo(200_000L);
+        assertThat(first.getUpdatedAt()).isNotNull();
+        assertThat(verifier.verify(false).getDrifted()).isZero();
+    }
+
+    @Test
+    void backfillRepairsOnceThenNeverRunsAgain() {
+        // Marqueur posé au démarrage du contexte (base vide) : on repart d'une base sans marqueur
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createQuery("delete from DataMigration").executeUpdate());
+
+        backfill.run();
+
+        assertThat(balance(1L).getCurrentBalanceMinor()).isEqualTo(50_000L);
+        assertThat(balance(2L).getCurrentBalanceMinor()).isEqualTo(10_000L);
+        transactionTemplate.executeWithoutResult(status -> entityManager.createQuery(
+                "update CustomerBalance b set b.currentBalanceMinor = 0 where b.customerId = 1").executeUpdate());
+
+        backfill.run();
+
+        assertThat(balance(1L).getCurrentBalanceMinor()).isZero();
+    }
+
+    @Test
+    void loadedAggregateIsNotNew() {
+        verifier.verify(true);
+
+        assertThat(CustomerBalance.builder().customerId(3L).build().isNew()).isTrue();
+        assertThat(balance(1L).isNew()).isFalse();
+    }
+
+    @Test
+    void movementsUpdateAggregatesInTheSameTransaction() {
+        verifier.verify(true);
+
+        transactionService.credit(current.getId(), MovementRequest.builder().amount(new BigDecimal("12.34")).build());
+        transactionService.debit(savings.getId(), MovementRequest.builder().amount(new BigDecimal("100.00")).build());
+        // Entre deux clients : chaque agrégat bouge ; entre deux comptes du même client : seuls les types changent
+        transactionService.transfer(TransferRequest.builder()
+                .fromAccountId(current.getId()).toAccountId(other.getId()).amount(new BigDecimal("5.00")).build());
+        transactionService.transfer(TransferRequest.builder()
+                .fromAccountId(savings.getId()).toAccountId(current.getId()).amount(new BigDecimal("1.00")).build());
+
+        CustomerBalance first = balance(1L);
+        assertThat(first.getCurrentBalanceMinor()).isEqualTo(50_000L + 1_234L - 500L + 100L);
+        assertThat(first.getSavingsBalanceMinor()).isEqualTo(200_000L - 10_000L - 100L);
+        assertThat(balance(2L).getCurrentBalanceMinor()).isEqualTo(10_500L);
+        assertThat(verifier.verify(false).getDrifted()).isZero();
+    }
+
+    @Test
+    void rejectedMovementLeavesAggregateUnchanged() {
+        verifier.verify(true);
+
+        assertThatThrownBy(() -> transactionService.debit(other.getId(),
+                MovementRequest.builder().amount(new BigDecimal("1000.00")).build()))
+                .hasMessageStartingWith("Insufficient funds");
+
+        assertThat(balance(2L).getCurrentBalanceMinor()).isEqualTo(10_000L);
+    }
+
+    @Test
+    void creditBeyondLongRangeIsRejected() {
+        verifier.verify(true);
+        transactionTemplate.executeWithoutResult(status -> entityManager.createQuery(
+                        "update Account a set a.balanceMinor = :max where a.id = :id")
+                .setParameter("max", Long.MAX_VALUE - 50L)
+                .setParameter("id", other.getId())
+                .executeUpdate());
+
+        assertThatThrownBy(() -> transactionService.credit(other.getId(),
+                MovementRequest.builder().amount(new BigDecimal("1.00")).build()))
+                .hasMessageStartingWith("Balance limit exceeded");
+
+        assertThat(accountRepository.findById(other.getId()).orElseThrow().getBalanceMinor())
+                .isEqualTo(Long.MAX_VALUE - 50L);
+        assertThat(balance(2L).getCurrentBalanceMinor()).isEqualTo(10_000L);
+    }
+
+    @Test
+    void verificationReportsDriftAndRepairFixesIt() {
+        verifier.verify(true);
+        // Dérive simulée : agrégat modifié hors des comptes
+        transactionTemplate.executeWithoutResult(status -> entityManager.createQuery(
+                        "update CustomerBalance b set b.currentBalanceMinor = 0, b.savingsAccounts = 5 where b.customerId = 1")
+                .executeUpdate());
+
+        CustomerBalanceVerificationReport report = verifier.verify(false);
+
+        assertThat(report.getDrifted()).isEqualTo(1);
+        assertThat(report.isRepaired()).isFalse();
+        assertThat(report.getSamples()).singleElement().satisfies(drift -> {
+            assertThat(drift.getCustomerId()).isEqualTo(1L);
+            assertThat(drift.getExpected().getCurrentBalanceMinor()).isEqualTo(50_000L);
+            assertThat(drift.getActual().getCurrentBalanceMinor()).isZero();
+            assertThat(drift.getActual().getSavingsAccounts()).isEqualTo(5L);
+        });
+        assertThat(balance(1L).getCurrentBalanceMinor()).isZero();
+
+        verifier.verify(true);
+
+        assertThat(balance(1L).getCurrentBalanceMinor()).isEqualTo(50_000L);
+        assertThat(balance(1L).getSavingsAccounts()).isEqualTo(1L);
+        assertThat(verifier.verify(false).getDrifted()).isZero();
+    }
+}
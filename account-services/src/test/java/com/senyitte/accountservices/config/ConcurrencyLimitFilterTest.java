@@ -0,0 +1,42 @@
+package com.senyitte.accountservices.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Un seul permis (pool de 1 × 1), sans attente : une seconde requête en cours reçoit un 503
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 1, Duration.ZERO);
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void synchronousRequestReleasesItsPermitOnReturn() throws Exception {
+        assertThat(run(new MockHttpServletRequest(), (req, res) -> { }).getStatus()).isEqualTo(200);
+        assertThat(run(new MockHttpServletRequest(), (req, res) -> { }).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void asyncRequestKeepsItsPermitUntilCompletion() throws Exception {
+        // Comme un StreamingResponseBody : doFilter retourne, le corps est écrit plus tard
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/accounts/stream");
+        stream.setAsyncSupported(true);
+        run(stream, (req, res) -> req.startAsync());
+
+        assertThat(run(new MockHttpServletRequest(), (req, res) -> { }).getStatus()).isEqualTo(503);
+
+        stream.getAsyncContext().complete();
+
+        assertThat(run(new MockHttpServletRequest(), (req, res) -> { }).getStatus()).isEqualTo(200);
+    }
+}
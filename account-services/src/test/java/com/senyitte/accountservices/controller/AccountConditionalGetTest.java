@@ -0,0 +1,251 @@
+package com.senyitte.accountservices.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.customer.CustomerCache;
+import com.senyitte.accountservices.customer.CustomerCacheProperties;
+import com.senyitte.accountservices.customer.CustomerCallGuard;
+import com.senyitte.accountservices.customer.CustomerChangeFeed;
+import com.senyitte.accountservices.customer.CustomerFetchProperties;
+import com.senyitte.accountservices.customer.CustomerFetcher;
+import com.senyitte.accountservices.customer.CustomerHedgingProperties;
+import com.senyitte.accountservices.customer.CustomerProjectionStore;
+import com.senyitte.accountservices.customer.CustomerUnavailableException;
+import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.feign.CustomerBatchLoader;
+import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.mappers.AccountMapper;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.CustomerBalanceRepository;
+import com.senyitte.accountservices.services.AccountService;
+import com.senyitte.accountservices.services.AccountServiceImpl;
+import com.senyitte.accountservices.sharding.AccountNumberRegistry;
+import com.senyitte.accountservices.sharding.AccountShardingProperties;
+import com.senyitte.accountservices.sharding.AccountShards;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// GET /api/accounts/{id} appelé directement sur le controller ; customer-service simulé compte ses appels
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account-conditional-get;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({AccountShards.class, AccountShardingProperties.class, AccountNumberRegistry.class,
+        CustomerBalanceUpdater.class, CustomerProjectionStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountConditionalGetTest {
+
+    static class FakeCustomerClient implements CustomerClient {
+
+        final Map<Long, Customer> customers = new HashMap<>();
+        final AtomicInteger calls = new AtomicInteger();
+        boolean unavailable;
+
+        private Customer fetch(Long id) {
+            calls.incrementAndGet();
+            if (unavailable) {
+                throw new CustomerUnavailableException(new IllegalStateException("connection refused"));
+            }
+            return customers.get(id);
+        }
+
+        @Override
+        public Customer getCustomer(Long id) {
+            return fetch(id);
+        }
+
+        @Override
+        public Customer revalidateCustomer(Long id, String etag) {
+            return fetch(id);
+        }
+
+        @Override
+        public List<Customer> getCustomersByIds(Collection<Long> ids) {
+            return ids.stream().map(this::fetch).toList();
+        }
+
+        @Override
+        public CursorPage<Customer> getCustomersPage(Long after, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CustomerChangeFeed getChanges(Long after, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Long getChangesHead() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CustomerBalanceRepository balanceRepository;
+    @Autowired
+    private AccountShards shards;
+    @Autowired
+    private AccountNumberRegistry accountNumberRegistry;
+    @Autowired
+    private CustomerBalanceUpdater balanceUpdater;
+    @Autowired
+    private CustomerProjectionStore projectionStore;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final FakeCustomerClient customerService = new FakeCustomerClient();
+    // Comptes chargés en entier (getAccount) : jamais sur un 304
+    private final AtomicInteger fullReads = new AtomicInteger();
+    private CustomerCache customerCache;
+    private AccountController controller;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAllInBatch();
+        CustomerCallGuard callGuard = new CustomerCallGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), new CustomerHedgingProperties());
+        customerCache = new CustomerCache(customerService,
+                new CustomerBatchLoader(customerService, callGuard, 200, 1), projectionStore, callGuard,
+                new CustomerCacheProperties(), false);
+        AccountService service = new AccountServiceImpl(accountRepository, new AccountMapper(), customerCache,
+                entityManager, transactionTemplate, new CustomerFetcher(customerCache, new CustomerFetchProperties()),
+                shards, accountNumberRegistry, balanceUpdater, balanceRepository);
+        AccountService counting = (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(),
+                new Class<?>[]{AccountService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getAccount")) {
+                        fullReads.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(service, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        controller = new AccountController(counting, new ObjectMapper());
+
+        customerService.customers.put(1L, customer(1L, 0L));
+        accountId = accountRepository.save(Account.builder()
+                .accountNumber("COND-1").type(AccountType.CURRENT).customerId(1L).balanceMinor(0L).build()).getId();
+    }
+
+    private static Customer customer(Long id, Long version) {
+        return Customer.builder().id(id).firstName("Awa").lastName("Cache").version(version)
+                .updatedAt(Instant.parse("2026-01-01T00:00:00Z")).build();
+    }
+
+    private record Result(ResponseEntity<AccountResponse> entity, MockHttpServletResponse response) { }
+
+    private Result get(Long id, MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return new Result(controller.getAccount(id, new ServletWebRequest(request, response)), response);
+    }
+
+    private Result get(Long id) {
+        return get(id, new MockHttpServletRequest("GET", "/api/accounts/" + id));
+    }
+
+    private Result getIfNoneMatch(Long id, String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/" + id);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        return get(id, request);
+    }
+
+    @Test
+    void matchingEtagGetsA304WithoutLoadingTheAccountOrCallingCustomerService() {
+        Result first = get(accountId);
+        String etag = first.entity().getHeaders().getETag();
+        assertThat(etag).isEqualTo("\"a" + accountId + ".0-c1.0\"");
+        assertThat(first.entity().getHeaders().getLastModified()).isPositive();
+        int calls = customerService.calls.get();
+
+        Result conditional = getIfNoneMatch(accountId, etag);
+
+        assertThat(conditional.entity()).isNull();
+        assertThat(conditional.response().getStatus()).isEqualTo(304);
+        assertThat(conditional.response().getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(fullReads).hasValue(1);
+        assertThat(customerService.calls).hasValue(calls);
+    }
+
+    @Test
+    void ifModifiedSinceAfterTheLastChangeGetsA304() {
+        get(accountId);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/" + accountId);
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, Instant.now().plusSeconds(60).toEpochMilli());
+        Result conditional = get(accountId, request);
+
+        assertThat(conditional.response().getStatus()).isEqualTo(304);
+        assertThat(fullReads).hasValue(1);
+    }
+
+    @Test
+    void customerChangeInvalidatesTheAccountEtag() {
+        String etag = get(accountId).entity().getHeaders().getETag();
+        customerService.customers.put(1L, customer(1L, 1L));
+        customerCache.invalidate(1L);
+
+        Result conditional = getIfNoneMatch(accountId, etag);
+
+        assertThat(conditional.response().getStatus()).isEqualTo(200);
+        assertThat(conditional.entity().getHeaders().getETag()).isEqualTo("\"a" + accountId + ".0-c1.1\"");
+        assertThat(conditional.entity().getBody().getCustomer().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void partialResponseCarriesNoValidators() {
+        customerService.unavailable = true;
+
+        Result partial = get(accountId);
+
+        assertThat(partial.entity().getBody().isCustomerUnavailable()).isTrue();
+        assertThat(partial.entity().getHeaders().getETag()).isNull();
+        assertThat(partial.entity().getHeaders().getLastModified()).isEqualTo(-1);
+        // Toujours pas de customer connu localement : pas de 304 possible, relecture complète
+        Result next = getIfNoneMatch(accountId, "\"a" + accountId + ".0\"");
+        assertThat(next.response().getStatus()).isEqualTo(200);
+        assertThat(fullReads).hasValue(2);
+    }
+}
@@ -0,0 +1,142 @@
+package com.senyitte.accountservices.customer;
+
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Politiques de CustomerCallGuard sans Spring : registres Resilience4j construits à la main
+class CustomerCallGuardTest {
+
+    private final BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(2)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(5)
+            .minimumNumberOfCalls(5)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .recordException(new CustomerFailurePredicate())
+            .build());
+
+    @Test
+    void openCircuitFailsFastWithoutCallingCustomerService() {
+        CustomerCallGuard guard = new CustomerCallGuard(circuitBreakers, bulkheads, new CustomerHedgingProperties());
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> guard.call(() -> {
+                calls.incrementAndGet();
+                throw serverError();
+            })).isInstanceOf(CustomerUnavailableException.class);
+        }
+
+        assertThatThrownBy(() -> guard.call(calls::incrementAndGet))
+                .isInstanceOf(CustomerUnavailableException.class)
+                .hasCauseInstanceOf(CallNotPermittedException.class);
+        assertThat(calls).hasValue(5);
+    }
+
+    @Test
+    void notFoundIsPropagatedAndDoesNotOpenTheCircuit() {
+        CustomerCallGuard guard = new CustomerCallGuard(circuitBreakers, bulkheads, new CustomerHedgingProperties());
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> guard.call(() -> {
+                throw notFound();
+            })).isInstanceOf(FeignException.NotFound.class);
+        }
+
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() throws Exception {
+        CustomerCallGuard guard = new CustomerCallGuard(circuitBreakers, bulkheads, new CustomerHedgingProperties());
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> guard.call(() -> {
+            started.countDown();
+            await(release);
+            return null;
+        });
+        CompletableFuture<Void> first = CompletableFuture.runAsync(blocking);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(blocking);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> guard.call(() -> "third"))
+                .isInstanceOf(CustomerUnavailableException.class)
+                .hasCauseInstanceOf(BulkheadFullException.class);
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void slowCallIsHedgedAfterTheObservedPercentile() {
+        CustomerHedgingProperties hedging = new CustomerHedgingProperties();
+        hedging.setEnabled(true);
+        hedging.setMinDelay(Duration.ofMillis(20));
+        CustomerCallGuard guard = new CustomerCallGuard(circuitBreakers, BulkheadRegistry.ofDefaults(), hedging);
+        // Latences "normales" : quelques microsecondes, le délai de hedge retombe sur min-delay
+        for (int i = 0; i < 128; i++) {
+            guard.callHedged(() -> "warm-up");
+        }
+        assertThat(guard.hedgeDelayNanos()).isEqualTo(Duration.ofMillis(20).toNanos());
+
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+        String result = guard.callHedged(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(new CountDownLatch(1), Duration.ofSeconds(2));
+                return "slow";
+            }
+            return "fast";
+        });
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(guard.hedgeCount()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        await(latch, Duration.ofSeconds(5));
+    }
+
+    private static void await(CountDownLatch latch, Duration timeout) {
+        try {
+            latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/api/customers/1", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static FeignException serverError() {
+        return new FeignException.InternalServerError("boom", request(), null, Map.of());
+    }
+
+    private static FeignException notFound() {
+        return new FeignException.NotFound("Customer not found", request(), null, Map.of());
+    }
+}
@@ -0,0 +1,273 @@
+package com.senyitte.accountservices.customer;
+
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.feign.CustomerBatchLoader;
+import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.models.CustomerProjection;
+import com.senyitte.accountservices.repository.CustomerProjectionRepository;
+import com.senyitte.accountservices.repository.ProjectionCheckpointRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// customer-service simulé en mémoire : un flux d'événements (avec purge) et un instantané paginé.
+// Lots de 2 événements : un rattrapage traverse plusieurs transactions et checkpoints
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-projection;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CustomerProjectionStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerProjectionUpdaterTest {
+
+    static class FakeCustomerClient implements CustomerClient {
+
+        final List<CustomerChange> feed = new ArrayList<>();
+        final Map<Long, Customer> customers = new TreeMap<>();
+        final List<Long> requestedOffsets = new ArrayList<>();
+        // Événements d'offset inférieur purgés
+        long oldestRetained = 1;
+        int snapshots;
+
+        void reset() {
+            feed.clear();
+            customers.clear();
+            requestedOffsets.clear();
+            oldestRetained = 1;
+            snapshots = 0;
+        }
+
+        // Publie un changement et l'applique à l'état courant (source de l'instantané)
+        void publish(CustomerChangeType type, long customerId, long version, String firstName) {
+            feed.add(CustomerChange.builder()
+                    .offset((long) feed.size() + 1)
+                    .customerId(customerId)
+                    .type(type)
+                    .firstName(firstName)
+                    .lastName(firstName == null ? null : "Projection")
+                    .version(version)
+                    .build());
+            if (type == CustomerChangeType.DELETED) {
+                customers.remove(customerId);
+            } else {
+                Customer current = customers.get(customerId);
+                if (current == null || current.getVersion() <= version) {
+                    customers.put(customerId, Customer.builder()
+                            .id(customerId).firstName(firstName).lastName("Projection").version(version).build());
+                }
+            }
+        }
+
+        // Republie tel quel un événement déjà émis (doublon, ou changement ancien arrivé en retard)
+        void republish(long offset) {
+            CustomerChange original = feed.get((int) offset - 1);
+            feed.add(CustomerChange.builder()
+                    .offset((long) feed.size() + 1)
+                    .customerId(original.getCustomerId())
+                    .type(original.getType())
+                    .firstName(original.getFirstName())
+                    .lastName(original.getLastName())
+                    .version(original.getVersion())
+                    .build());
+        }
+
+        @Override
+        public CustomerChangeFeed getChanges(Long after, int limit) {
+            requestedOffsets.add(after);
+            long head = feed.size();
+            if (after + 1 < oldestRetained) {
+                return CustomerChangeFeed.builder()
+                        .events(List.of()).nextOffset(after).headOffset(head).resetRequired(true).build();
+            }
+            List<CustomerChange> events = feed.stream()
+                    .filter(event -> event.getOffset() > after)
+                    .limit(limit)
+                    .toList();
+            return CustomerChangeFeed.builder()
+                    .events(events)
+                    .nextOffset(events.isEmpty() ? after : events.get(events.size() - 1).getOffset())
+                    .headOffset(head)
+                    .build();
+        }
+
+        @Override
+        public Long getChangesHead() {
+            return (long) feed.size();
+        }
+
+        @Override
+        public CursorPage<Customer> getCustomersPage(Long after, int size) {
+            if (after == 0L) {
+                snapshots++;
+            }
+            List<Customer> page = customers.values().stream()
+                    .filter(customer -> customer.getId() > after)
+                    .sorted(Comparator.comparing(Customer::getId))
+                    .limit(size)
+                    .toList();
+            return CursorPage.<Customer>builder()
+                    .items(page)
+                    .nextCursor(page.size() == size ? page.get(page.size() - 1).getId() : null)
+                    .build();
+        }
+
+        @Override
+        public Customer getCustomer(Long id) {
+            return customers.get(id);
+        }
+
+        @Override
+        public Customer revalidateCustomer(Long id, String etag) {
+            return customers.get(id);
+        }
+
+        @Override
+        public List<Customer> getCustomersByIds(Collection<Long> ids) {
+            return ids.stream().map(customers::get).filter(customer -> customer != null).toList();
+        }
+    }
+
+    @Autowired
+    private CustomerProjectionStore store;
+    @Autowired
+    private CustomerProjectionRepository projectionRepository;
+    @Autowired
+    private ProjectionCheckpointRepository checkpointRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final FakeCustomerClient customerService = new FakeCustomerClient();
+    private CustomerProjectionUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        projectionRepository.deleteAllInBatch();
+        checkpointRepository.deleteAllInBatch();
+        customerService.reset();
+        // Construit à la main : le client Feign de @EnableFeignClients est toujours prioritaire dans le contexte
+        CustomerCallGuard callGuard = new CustomerCallGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), new CustomerHedgingProperties());
+        CustomerCache customerCache = new CustomerCache(customerService,
+                new CustomerBatchLoader(customerService, callGuard, 200, 1), store, callGuard,
+                new CustomerCacheProperties(), false);
+        updater = new CustomerProjectionUpdater(customerService, projectionRepository, checkpointRepository,
+                store, customerCache, entityManager, transactionTemplate, true, 2);
+        customerService.publish(CustomerChangeType.CREATED, 1L, 0L, "Awa");
+        customerService.publish(CustomerChangeType.CREATED, 2L, 0L, "Moussa");
+        customerService.publish(CustomerChangeType.CREATED, 3L, 0L, "Fatou");
+    }
+
+    private long checkpoint() {
+        return checkpointRepository.findById(CustomerProjectionUpdater.CHECKPOINT).orElseThrow().getLastOffset();
+    }
+
+    private String firstName(long customerId) {
+        Customer customer = store.find(customerId);
+        return customer == null ? null : customer.getFirstName();
+    }
+
+    @Test
+    void firstCatchUpRebuildsFromTheSnapshotAndCheckpointsTheHead() {
+        assertThat(updater.catchUp()).isEqualTo(3L);
+
+        assertThat(customerService.snapshots).isEqualTo(1);
+        assertThat(store.isReady()).isTrue();
+        assertThat(checkpoint()).isEqualTo(3L);
+        assertThat(store.findAll(List.of(1L, 2L, 3L))).hasSize(3);
+    }
+
+    @Test
+    void catchUpResumesFromTheCheckpointAndAppliesDuplicatesAndDeletesOnce() {
+        updater.catchUp();
+        customerService.requestedOffsets.clear();
+
+        customerService.publish(CustomerChangeType.UPDATED, 1L, 1L, "Awa B");  // 4
+        customerService.republish(4);                                          // 5 : doublon
+        customerService.publish(CustomerChangeType.DELETED, 2L, 1L, null);     // 6
+        customerService.republish(2);                                          // 7 : création de 2, en retard
+        customerService.publish(CustomerChangeType.UPDATED, 3L, 1L, "Fatou B"); // 8
+
+        assertThat(updater.catchUp()).isEqualTo(8L);
+
+        // Lots de 2 depuis le checkpoint, sans relire ce qui était déjà appliqué (lot incomplet = fin)
+        assertThat(customerService.requestedOffsets).containsExactly(3L, 5L, 7L);
+        assertThat(checkpoint()).isEqualTo(8L);
+        assertThat(firstName(1L)).isEqualTo("Awa B");
+        // Supprimé en version 1 : la création (version 0) rejouée ensuite ne le recrée pas
+        assertThat(firstName(2L)).isNull();
+        CustomerProjection tombstone = projectionRepository.findById(2L).orElseThrow();
+        assertThat(tombstone.isDeleted()).isTrue();
+        assertThat(tombstone.getCustomerVersion()).isEqualTo(1L);
+        assertThat(firstName(3L)).isEqualTo("Fatou B");
+        assertThat(customerService.snapshots).isEqualTo(1);
+    }
+
+    @Test
+    void olderChangeInTheSameBatchDoesNotOverrideANewerOne() {
+        updater.catchUp();
+
+        customerService.publish(CustomerChangeType.UPDATED, 1L, 2L, "Awa v2");  // 4
+        customerService.publish(CustomerChangeType.UPDATED, 1L, 1L, "Awa v1");  // 5 : commité après, version plus ancienne
+
+        updater.catchUp();
+
+        assertThat(firstName(1L)).isEqualTo("Awa v2");
+        assertThat(store.find(1L).getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void purgeGapTriggersARebuildFromTheSnapshot() {
+        updater.catchUp();
+        customerService.publish(CustomerChangeType.UPDATED, 1L, 1L, "Awa B");  // 4
+        customerService.publish(CustomerChangeType.DELETED, 3L, 1L, null);     // 5
+        customerService.publish(CustomerChangeType.CREATED, 4L, 0L, "Ibrahima"); // 6
+        // 4 et 5 purgés avant que la projection ne les lise
+        customerService.oldestRetained = 6;
+
+        assertThat(updater.catchUp()).isEqualTo(6L);
+
+        assertThat(customerService.snapshots).isEqualTo(2);
+        assertThat(checkpoint()).isEqualTo(6L);
+        assertThat(firstName(1L)).isEqualTo("Awa B");
+        assertThat(firstName(3L)).isNull();
+        assertThat(firstName(4L)).isEqualTo("Ibrahima");
+        assertThat(projectionRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void explicitRebuildReplacesTheProjection() {
+        updater.catchUp();
+        customerService.customers.remove(2L);
+
+        assertThat(updater.rebuild()).isEqualTo(3L);
+
+        assertThat(firstName(2L)).isNull();
+        assertThat(projectionRepository.count()).isEqualTo(2);
+        assertThat(store.isReady()).isTrue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.senyitte.accountservices.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Trois bases H2 distinctes jouent le primaire et deux réplicas : chacune répond son propre nom
+class ReadReplicaRoutingTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(20))");
+        jdbc.execute("delete from node");
+        jdbc.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        ReadReplicaDataSource replicas = new ReadReplicaDataSource(primary,
+                List.of(database("replica-0"), database("replica-1")));
+        DataSource routing = DataSourceRoutingConfig.routingDataSource(primary, replicas);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        transactionManager.addListener(new PrimaryStickinessListener(Duration.ofMillis(300), "primary-until"));
+        jdbc = new JdbcTemplate(routing);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PrimaryStickiness.clear();
+    }
+
+    private String node(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicas() {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(node(readOnly));
+        }
+        assertThat(nodes).containsExactly("replica-0", "replica-1", "replica-0", "replica-1");
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        assertThat(node(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStickToPrimaryForAWhileAfterAWrite() throws InterruptedException {
+        readWrite.executeWithoutResult(status -> jdbc.update("update node set name = name"));
+
+        assertThat(node(readOnly)).isEqualTo("primary");
+
+        Thread.sleep(400);
+        assertThat(node(readOnly)).startsWith("replica-");
+    }
+
+    @Test
+    void writeDuringRequestSetsStickinessCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        try {
+            readWrite.executeWithoutResult(status -> jdbc.update("update node set name = name"));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(response.getCookie("primary-until")).isNotNull();
+        assertThat(Long.parseLong(response.getCookie("primary-until").getValue())).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void stickinessCookieRoutesReadsToPrimaryForTheRequestOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("primary-until", Long.toString(System.currentTimeMillis() + 60_000)));
+        List<String> nodes = new ArrayList<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                nodes.add(node(readOnly));
+            }
+        });
+
+        new PrimaryStickinessFilter("primary-until").doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(nodes).containsExactly("primary");
+        assertThat(node(readOnly)).startsWith("replica-");
+    }
+}
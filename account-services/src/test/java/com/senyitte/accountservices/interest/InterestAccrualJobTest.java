@@ -0,0 +1,204 @@
+package com.senyitte.accountservices.interest;
+
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.dtos.InterestAccrualReport;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.BalanceSnapshot;
+import com.senyitte.accountservices.models.EntryType;
+import com.senyitte.accountservices.models.LedgerEntry;
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.LedgerEntryRepository;
+import com.senyitte.accountservices.sharding.AccountShardingProperties;
+import com.senyitte.accountservices.sharding.AccountShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Petits lots et plusieurs partitions : 10 comptes épargne répartis sur 3 plages, lots de 2 comptes
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:interest;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "account.interest-accrual.annual-rate=0.0365",
+        "account.interest-accrual.chunk-size=2",
+        "account.interest-accrual.partitions=3"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({InterestAccrualJob.class, InterestAccrualProperties.class, AccountShards.class, AccountShardingProperties.class,
+        CustomerBalanceUpdater.class, InterestAccrualJobTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InterestAccrualJobTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private InterestAccrualJob job;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private final List<Account> savings = new ArrayList<>();
+    private Account current;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from BalanceSnapshot").executeUpdate();
+            entityManager.createQuery("delete from CustomerBalance").executeUpdate();
+            entityManager.createQuery("delete from LedgerEntry").executeUpdate();
+            entityManager.createQuery("delete from Account").executeUpdate();
+        });
+        savings.clear();
+        // 1 000,00 à 3,65 % par an : 0,10 par jour
+        for (int i = 0; i < 10; i++) {
+            savings.add(save("INT-S-" + i, AccountType.SAVINGS, 100_000L));
+        }
+        current = save("INT-C", AccountType.CURRENT, 100_000L);
+    }
+
+    private Account save(String accountNumber, AccountType type, long balanceMinor) {
+        return accountRepository.save(Account.builder()
+                .accountNumber(accountNumber)
+                .type(type)
+                .customerId(1L)
+                .balanceMinor(balanceMinor)
+                .build());
+    }
+
+    private long balance(Account account) {
+        return accountRepository.findBalanceMinorById(account.getId()).orElseThrow();
+    }
+
+    private long snapshots() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                "select count(s) from BalanceSnapshot s where s.businessDate = :date", Long.class)
+                .setParameter("date", today).getSingleResult());
+    }
+
+    @Test
+    void creditsSavingsAccountsOnceAndSnapshotsTheirBalance() {
+        InterestAccrualReport report = job.run(today);
+
+        assertThat(report.getAccounts()).isEqualTo(10);
+        assertThat(report.getInterestMinor()).isEqualTo(100);
+        assertThat(report.getPartitions()).hasSize(3);
+        assertThat(report.getPartitions()).allSatisfy(partition -> assertThat(partition.getChunks()).isPositive());
+        assertThat(savings).allSatisfy(account -> assertThat(balance(account)).isEqualTo(100_010L));
+        assertThat(balance(current)).isEqualTo(100_000L);
+        assertThat(snapshots()).isEqualTo(10);
+        assertThat(ledgerEntryRepository.count()).isEqualTo(10);
+    }
+
+    @Test
+    void rerunningTheSameDayCreditsNothing() {
+        job.run(today);
+
+        InterestAccrualReport rerun = job.run(today);
+
+        assertThat(rerun.getAccounts()).isZero();
+        assertThat(savings).allSatisfy(account -> assertThat(balance(account)).isEqualTo(100_010L));
+        assertThat(ledgerEntryRepository.count()).isEqualTo(10);
+    }
+
+    @Test
+    void interruptedRunResumesAfterCommittedChunks() {
+        // Comme si une exécution précédente avait commité les lots des 3 premiers comptes avant de s'arrêter
+        transactionTemplate.executeWithoutResult(status -> savings.subList(0, 3).forEach(account ->
+                entityManager.persist(BalanceSnapshot.builder()
+                        .accountId(account.getId())
+                        .businessDate(today)
+                        .balanceMinor(100_000L)
+                        .interestMinor(10L)
+                        .build())));
+
+        InterestAccrualReport report = job.run(today);
+
+        assertThat(report.getAccounts()).isEqualTo(7);
+        assertThat(savings.subList(0, 3)).allSatisfy(account -> assertThat(balance(account)).isEqualTo(100_000L));
+        assertThat(savings.subList(3, 10)).allSatisfy(account -> assertThat(balance(account)).isEqualTo(100_010L));
+        assertThat(snapshots()).isEqualTo(10);
+    }
+
+    @Test
+    void lateRunAccruesOnTheClosingBalanceOfTheBusinessDate() {
+        LocalDate yesterday = today.minusDays(1);
+        Account account = savings.get(0);
+        // Compte ouvert avant la veille, crédité de 500,00 après minuit (avant l'exécution de la veille)
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("update Account a set a.createdAt = :openedAt, " +
+                            "a.balanceMinor = a.balanceMinor + 50000 where a.id = :id")
+                    .setParameter("openedAt", yesterday.minusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                    .setParameter("id", account.getId())
+                    .executeUpdate();
+            entityManager.persist(LedgerEntry.builder()
+                    .accountId(account.getId())
+                    .type(EntryType.CREDIT)
+                    .amountMinor(50_000L)
+                    .reference("after-midnight")
+                    .build());
+        });
+
+        InterestAccrualReport report = job.run(yesterday);
+
+        assertThat(report.getAccounts()).isEqualTo(1);
+        // Intérêts sur 1 000,00 (solde à minuit), pas sur 1 500,00
+        assertThat(balance(account)).isEqualTo(150_010L);
+        BalanceSnapshot snapshot = transactionTemplate.execute(status -> entityManager.createQuery(
+                        "select s from BalanceSnapshot s where s.accountId = :id", BalanceSnapshot.class)
+                .setParameter("id", account.getId()).getSingleResult());
+        assertThat(snapshot.getBusinessDate()).isEqualTo(yesterday);
+        assertThat(snapshot.getBalanceMinor()).isEqualTo(100_000L);
+        assertThat(snapshot.getInterestMinor()).isEqualTo(10L);
+    }
+
+    @Test
+    void partitionsLeaveHalfOfThePoolToRequests() {
+        assertThat(InterestAccrualJob.partitionCount(3, 10)).isEqualTo(3);
+        assertThat(InterestAccrualJob.partitionCount(16, 10)).isEqualTo(5);
+        assertThat(InterestAccrualJob.partitionCount(0, 2)).isEqualTo(1);
+    }
+
+    @Test
+    void dailyInterestIsRoundedToTheNearestMinorUnit() {
+        // 1 234,56 * 3,65 % / 365 = 0,123456
+        assertThat(job.dailyInterest(123_456L)).isEqualTo(12L);
+        assertThat(job.dailyInterest(0L)).isZero();
+        assertThat(job.dailyInterest(-5_000L)).isZero();
+    }
+}
@@ -0,0 +1,108 @@
+package com.senyitte.accountservices.repository;
+
+import com.senyitte.accountservices.config.EntityCacheConfig;
+import com.senyitte.accountservices.config.EntityCacheProperties;
+import com.senyitte.accountservices.config.SqlStatementCounter;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lectures répétées hors transaction : chaque appel ouvre une nouvelle Session,
+// seules les lectures absentes du cache de second niveau vont en base
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account-cache;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.senyitte.accountservices.config.SqlStatementCounter"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({EntityCacheConfig.class, EntityCacheProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountSecondLevelCacheTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        account = accountRepository.save(Account.builder()
+                .accountNumber("CACHE-" + System.nanoTime())
+                .type(AccountType.CURRENT)
+                .customerId(1L)
+                .balanceMinor(10_000L)
+                .build());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private int statements(Runnable action) {
+        SqlStatementCounter.reset();
+        action.run();
+        return SqlStatementCounter.current();
+    }
+
+    @Test
+    void repeatedReadByIdIsServedFromCache() {
+        assertThat(statements(() -> accountRepository.findById(account.getId()))).isEqualTo(1);
+        assertThat(statements(() -> accountRepository.findById(account.getId()))).isZero();
+        assertThat(statements(() -> accountRepository.findById(account.getId()))).isZero();
+    }
+
+    @Test
+    void repeatedLookupByAccountNumberIsServedFromCache() {
+        String number = account.getAccountNumber();
+        assertThat(statements(() -> accountRepository.findByAccountNumber(number))).isPositive();
+        assertThat(statements(() -> assertThat(accountRepository.findByAccountNumber(number))
+                .get().extracting(Account::getId).isEqualTo(account.getId()))).isZero();
+    }
+
+    @Test
+    void balanceUpdateInvalidatesCachedAccount() {
+        accountRepository.findById(account.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                accountRepository.credit(account.getId(), 500L, Instant.now()));
+
+        assertThat(accountRepository.findById(account.getId()))
+                .get().extracting(Account::getBalanceMinor).isEqualTo(10_500L);
+    }
+
+    @Test
+    void renamedAccountNumberIsResolvedAfterUpdate() {
+        String oldNumber = account.getAccountNumber();
+        accountRepository.findByAccountNumber(oldNumber);
+
+        Account loaded = accountRepository.findById(account.getId()).orElseThrow();
+        loaded.setAccountNumber(oldNumber + "-NEW");
+        accountRepository.save(loaded);
+
+        assertThat(accountRepository.findByAccountNumber(oldNumber)).isEmpty();
+        assertThat(accountRepository.findByAccountNumber(oldNumber + "-NEW"))
+                .get().extracting(Account::getId).isEqualTo(account.getId());
+    }
+}
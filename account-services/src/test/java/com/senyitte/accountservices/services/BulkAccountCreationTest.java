@@ -0,0 +1,195 @@
+package com.senyitte.accountservices.services;
+
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.customer.CustomerCache;
+import com.senyitte.accountservices.customer.CustomerCacheProperties;
+import com.senyitte.accountservices.customer.CustomerCallGuard;
+import com.senyitte.accountservices.customer.CustomerChangeFeed;
+import com.senyitte.accountservices.customer.CustomerFetchProperties;
+import com.senyitte.accountservices.customer.CustomerFetcher;
+import com.senyitte.accountservices.customer.CustomerHedgingProperties;
+import com.senyitte.accountservices.customer.CustomerProjectionStore;
+import com.senyitte.accountservices.dtos.AccountRequest;
+import com.senyitte.accountservices.dtos.BulkAccountResponse;
+import com.senyitte.accountservices.dtos.BulkAccountResult;
+import com.senyitte.accountservices.dtos.CursorPage;
+import com.senyitte.accountservices.feign.CustomerBatchLoader;
+import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.mappers.AccountMapper;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.BulkItemStatus;
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.CustomerBalanceRepository;
+import com.senyitte.accountservices.sharding.AccountNumberRegistry;
+import com.senyitte.accountservices.sharding.AccountShardingProperties;
+import com.senyitte.accountservices.sharding.AccountShards;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Clients 1 et 2 connus de customer-service (simulé) ; lots de 1000 éléments (BULK_CHUNK_SIZE)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-accounts;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({AccountShards.class, AccountShardingProperties.class, AccountNumberRegistry.class,
+        CustomerBalanceUpdater.class, CustomerProjectionStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkAccountCreationTest {
+
+    private static final Set<Long> KNOWN_CUSTOMERS = Set.of(1L, 2L);
+
+    // Seul l'appel batch sert ici (la projection locale n'est pas prête)
+    private static final CustomerClient CUSTOMER_SERVICE = new CustomerClient() {
+        @Override
+        public List<Customer> getCustomersByIds(Collection<Long> ids) {
+            return ids.stream().filter(KNOWN_CUSTOMERS::contains)
+                    .map(id -> Customer.builder().id(id).firstName("Client" + id).version(0L).build())
+                    .toList();
+        }
+
+        @Override
+        public Customer getCustomer(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Customer revalidateCustomer(Long id, String etag) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CursorPage<Customer> getCustomersPage(Long after, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CustomerChangeFeed getChanges(Long after, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Long getChangesHead() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CustomerBalanceRepository balanceRepository;
+    @Autowired
+    private AccountShards shards;
+    @Autowired
+    private AccountNumberRegistry accountNumberRegistry;
+    @Autowired
+    private CustomerBalanceUpdater balanceUpdater;
+    @Autowired
+    private CustomerProjectionStore projectionStore;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from CustomerBalance").executeUpdate();
+            entityManager.createQuery("delete from Account").executeUpdate();
+        });
+        // Même montage que CustomerProjectionUpdaterTest (le client Feign reste prioritaire dans le contexte)
+        CustomerCallGuard callGuard = new CustomerCallGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), new CustomerHedgingProperties());
+        CustomerCache customerCache = new CustomerCache(CUSTOMER_SERVICE,
+                new CustomerBatchLoader(CUSTOMER_SERVICE, callGuard, 200, 1), projectionStore, callGuard,
+                new CustomerCacheProperties(), false);
+        accountService = new AccountServiceImpl(accountRepository, new AccountMapper(), customerCache, entityManager,
+                transactionTemplate, new CustomerFetcher(customerCache, new CustomerFetchProperties()), shards,
+                accountNumberRegistry, balanceUpdater, balanceRepository);
+    }
+
+    private static AccountRequest request(String accountNumber, AccountType type, Long customerId) {
+        return AccountRequest.builder().accountNumber(accountNumber).type(type).customerId(customerId).build();
+    }
+
+    @Test
+    void invalidItemsAreRejectedIndividuallyAndTheOthersCreated() {
+        accountRepository.save(Account.builder()
+                .accountNumber("BULK-0").type(AccountType.CURRENT).customerId(1L).balanceMinor(0L).build());
+
+        BulkAccountResponse response = accountService.createAccounts(List.of(
+                request("BULK-0", AccountType.CURRENT, 1L),   // déjà en base
+                request("BULK-1", AccountType.CURRENT, 1L),
+                request("BULK-1", AccountType.SAVINGS, 2L),   // doublon dans la requête
+                request("BULK-2", AccountType.CURRENT, 99L),  // client inconnu
+                request("BULK-3", null, 2L),                  // champ manquant
+                request("BULK-4", AccountType.SAVINGS, 2L)));
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(4);
+        assertThat(response.getResults()).extracting(BulkAccountResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(response.getResults()).extracting(BulkAccountResult::getStatus).containsExactly(
+                BulkItemStatus.REJECTED, BulkItemStatus.CREATED, BulkItemStatus.REJECTED,
+                BulkItemStatus.REJECTED, BulkItemStatus.REJECTED, BulkItemStatus.CREATED);
+        assertThat(response.getResults().get(0).getError()).startsWith("Account number already exists");
+        assertThat(response.getResults().get(2).getError()).startsWith("Duplicate account number in request");
+        assertThat(response.getResults().get(3).getError()).isEqualTo("Customer not found: 99");
+        assertThat(response.getResults().get(1).getId())
+                .isEqualTo(accountRepository.findByAccountNumber("BULK-1").orElseThrow().getId());
+        assertThat(accountRepository.count()).isEqualTo(3);
+        // Agrégats mis à jour dans la transaction des inserts
+        assertThat(balanceRepository.findById(2L).orElseThrow().getSavingsAccounts()).isEqualTo(1L);
+    }
+
+    @Test
+    void failingChunkIsRejectedWithoutUndoingEarlierChunks() {
+        List<AccountRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(request("CHUNK-" + i, AccountType.CURRENT, 1L));
+        }
+        // Second lot : un numéro trop long pour la colonne fait échouer l'INSERT groupé au flush
+        requests.add(request("CHUNK-OK", AccountType.CURRENT, 2L));
+        requests.add(request("X".repeat(300), AccountType.CURRENT, 2L));
+
+        BulkAccountResponse response = accountService.createAccounts(requests);
+
+        assertThat(response.getCreated()).isEqualTo(1000);
+        assertThat(response.getResults().subList(0, 1000))
+                .allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(BulkItemStatus.CREATED));
+        assertThat(response.getResults().subList(1000, 1002)).allSatisfy(result -> {
+            assertThat(result.getStatus()).isEqualTo(BulkItemStatus.REJECTED);
+            assertThat(result.getError()).startsWith("Batch insert failed");
+        });
+        assertThat(accountRepository.count()).isEqualTo(1000);
+        assertThat(accountRepository.findByAccountNumber("CHUNK-OK")).isEmpty();
+        assertThat(balanceRepository.findById(1L).orElseThrow().getCurrentAccounts()).isEqualTo(1000L);
+        assertThat(balanceRepository.findById(2L)).isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+package com.senyitte.accountservices.services;
+
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.dtos.TransferRequest;
+import com.senyitte.accountservices.mappers.LedgerEntryMapper;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.EntryType;
+import com.senyitte.accountservices.models.LedgerEntry;
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.LedgerEntryRepository;
+import com.senyitte.accountservices.sharding.AccountShardingProperties;
+import com.senyitte.accountservices.sharding.AccountShards;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Stress test : virements concurrents sur quelques comptes "chauds".
+// La somme des soldes doit être conservée et chaque solde doit correspondre au journal.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionServiceImpl.class, LedgerEntryMapper.class, AccountShards.class, AccountShardingProperties.class,
+        CustomerBalanceUpdater.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceConcurrencyTest {
+
+    private static final int ACCOUNTS = 5;
+    private static final long INITIAL_BALANCE = 100_000L;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 200;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Test
+    void concurrentTransfersConserveBalances() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(accountRepository.save(Account.builder()
+                    .accountNumber("STRESS-" + i)
+                    .type(AccountType.CURRENT)
+                    .customerId(1L)
+                    .balanceMinor(INITIAL_BALANCE)
+                    .build()).getId());
+        }
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    Long from = ids.get(random.nextInt(ACCOUNTS));
+                    Long to = ids.get(random.nextInt(ACCOUNTS));
+                    if (from.equals(to)) {
+                        continue;
+                    }
+                    try {
+                        transactionService.transfer(TransferRequest.builder()
+                                .fromAccountId(from)
+                                .toAccountId(to)
+                                .amount(BigDecimal.valueOf(random.nextInt(1, 5_000), 2))
+                                .build());
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Seul refus attendu : solde insuffisant
+                        assertThat(e.getMessage()).startsWith("Insufficient funds");
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> worker : workers) {
+            worker.get(); // remonte les assertions échouées dans les threads
+        }
+        assertThat(succeeded.get()).isPositive();
+        assertThat(succeeded.get() + rejected.get()).isLessThanOrEqualTo(THREADS * TRANSFERS_PER_THREAD);
+
+        List<Account> accounts = accountRepository.findAllById(ids);
+        long total = accounts.stream().mapToLong(Account::getBalanceMinor).sum();
+        assertThat(total).isEqualTo(ACCOUNTS * INITIAL_BALANCE);
+        assertThat(accounts).allSatisfy(account -> assertThat(account.getBalanceMinor()).isNotNegative());
+
+        // Solde final = solde initial + crédits - débits du journal, pour chaque compte
+        Map<Long, Long> ledgerBalances = new HashMap<>();
+        for (LedgerEntry entry : ledgerEntryRepository.findAll()) {
+            long signed = entry.getType() == EntryType.CREDIT ? entry.getAmountMinor() : -entry.getAmountMinor();
+            ledgerBalances.merge(entry.getAccountId(), signed, Long::sum);
+        }
+        assertThat(accounts).allSatisfy(account -> assertThat(account.getBalanceMinor())
+                .isEqualTo(INITIAL_BALANCE + ledgerBalances.getOrDefault(account.getId(), 0L)));
+        assertThat(ledgerEntryRepository.count()).isEqualTo(2L * succeeded.get());
+    }
+}
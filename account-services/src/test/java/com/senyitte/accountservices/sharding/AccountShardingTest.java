@@ -0,0 +1,258 @@
+package com.senyitte.accountservices.sharding;
+
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.dtos.TransferRequest;
+import com.senyitte.accountservices.mappers.LedgerEntryMapper;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.accountservices.models.EntryType;
+import com.senyitte.accountservices.models.LedgerEntry;
+import com.senyitte.accountservices.models.ShardTransfer;
+import com.senyitte.accountservices.models.TransferStatus;
+import com.senyitte.accountservices.repository.AccountRepository;
+import com.senyitte.accountservices.repository.ShardTransferRepository;
+import com.senyitte.accountservices.services.TransactionService;
+import com.senyitte.accountservices.services.TransactionServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Deux bases H2 : shard 0 (spring.datasource.*) et shard 1 (account.sharding.shards[0])
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "account.sharding.enabled=true",
+        "account.sharding.shards[0].url=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({ShardingConfig.class, AccountShardingProperties.class, AccountShards.class, AccountNumberRegistry.class,
+        TransactionServiceImpl.class, LedgerEntryMapper.class, CustomerBalanceUpdater.class, AccountShardingTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountShardingTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountShards shards;
+    @Autowired
+    private AccountNumberRegistry registry;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private ShardTransferRepository shardTransferRepository;
+
+    private final List<JdbcTemplate> databases = List.of(database("shard-0"), database("shard-1"));
+
+    private static JdbcTemplate database(String name) {
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    @BeforeEach
+    void setUp() {
+        databases.forEach(jdbc -> {
+            jdbc.execute("delete from ledger_entry");
+            jdbc.execute("delete from account");
+            jdbc.execute("delete from account_number_claim");
+            jdbc.execute("delete from shard_transfer");
+        });
+    }
+
+    private Long customerOnShard(int shard) {
+        long customerId = 1;
+        while (shards.forCustomer(customerId) != shard) {
+            customerId++;
+        }
+        return customerId;
+    }
+
+    private Account open(String accountNumber, Long customerId, long balanceMinor) {
+        registry.claim(accountNumber, customerId);
+        return accountRepository.save(Account.builder()
+                .accountNumber(accountNumber)
+                .type(AccountType.CURRENT)
+                .customerId(customerId)
+                .balanceMinor(balanceMinor)
+                .build());
+    }
+
+    private long rows(int shard, String table) {
+        return databases.get(shard).queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    @Test
+    void startupIsRefusedOverAccountIdsCreatedBeforeSharding() {
+        open("SH-L", customerOnShard(0), 0);
+        DriverManagerDataSource shardZero = new DriverManagerDataSource("jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1", "sa", "");
+        new LegacyAccountIdCheck(shardZero);
+
+        // Id de séquence brut, comme avant l'activation : ses bits de poids faible désigneraient le shard 5
+        databases.get(0).update("update account set id = 5");
+
+        assertThatThrownBy(() -> new LegacyAccountIdCheck(shardZero))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 account(s)");
+    }
+
+    @Test
+    void accountIsStoredOnItsCustomerShardAndItsIdEncodesIt() {
+        Account first = open("SH-A", customerOnShard(0), 0);
+        Account second = open("SH-B", customerOnShard(1), 0);
+
+        assertThat(AccountShards.shardOf(first.getId())).isZero();
+        assertThat(AccountShards.shardOf(second.getId())).isEqualTo(1);
+        assertThat(rows(0, "account")).isEqualTo(1);
+        assertThat(rows(1, "account")).isEqualTo(1);
+        // Séquences propres à chaque shard, ids distincts grâce au numéro de shard
+        assertThat(first.getId()).isNotEqualTo(second.getId());
+    }
+
+    @Test
+    void lookupsByIdCustomerAndNumberHitTheOwningShard() {
+        Long customerId = customerOnShard(1);
+        Account account = open("SH-C", customerId, 0);
+
+        assertThat(accountRepository.findById(account.getId())).isPresent();
+        assertThat(accountRepository.findByCustomerId(customerId)).extracting(Account::getId).containsExactly(account.getId());
+        assertThat(accountRepository.findByAccountNumber("SH-C")).map(Account::getId).contains(account.getId());
+        assertThat(accountRepository.findByCustomerId(customerOnShard(0))).isEmpty();
+    }
+
+    @Test
+    void globalReadsMergeAllShardsById() {
+        Account first = open("SH-D", customerOnShard(0), 0);
+        Account second = open("SH-E", customerOnShard(1), 0);
+        Account third = open("SH-F", customerOnShard(1), 0);
+        List<Long> ids = List.of(first.getId(), second.getId(), third.getId()).stream().sorted().toList();
+
+        assertThat(accountRepository.findAll()).extracting(Account::getId).containsExactlyElementsOf(ids);
+        assertThat(accountRepository.findByIdGreaterThanOrderByIdAsc(ids.get(0), Limit.of(1)))
+                .extracting(Account::getId).containsExactly(ids.get(1));
+        assertThat(accountRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void accountNumberIsUniqueAcrossShards() {
+        open("SH-G", customerOnShard(0), 0);
+
+        // Le client est sur l'autre shard : seule la réservation du numéro détecte le doublon
+        assertThatThrownBy(() -> registry.claim("SH-G", customerOnShard(1)))
+                .hasMessage("Account number already exists: SH-G");
+        assertThat(accountRepository.findExistingAccountNumbers(List.of("SH-G", "SH-H"))).containsExactly("SH-G");
+
+        registry.release("SH-G");
+        assertThat(registry.tryClaim("SH-G", customerOnShard(1))).isTrue();
+    }
+
+    @Test
+    void crossShardTransferMovesFundsAndCompensatesAFailedCredit() {
+        Account from = open("SH-I", customerOnShard(0), 10_000);
+        Account to = open("SH-J", customerOnShard(1), 0);
+
+        transactionService.transfer(TransferRequest.builder()
+                .fromAccountId(from.getId()).toAccountId(to.getId()).amount(new BigDecimal("25.00")).build());
+        assertThat(accountRepository.findBalanceMinorById(from.getId())).contains(7_500L);
+        assertThat(accountRepository.findBalanceMinorById(to.getId())).contains(2_500L);
+
+        // Compte inexistant sur le shard 1 : le débit déjà validé sur le shard 0 est compensé
+        Long missing = AccountShards.encode(1_000_000, 1);
+        assertThatThrownBy(() -> transactionService.transfer(TransferRequest.builder()
+                .fromAccountId(from.getId()).toAccountId(missing).amount(new BigDecimal("10.00")).build()))
+                .hasMessage("Account not found: " + missing);
+        assertThat(accountRepository.findBalanceMinorById(from.getId())).contains(7_500L);
+        List<LedgerEntry> ledger = databases.get(0).query(
+                "select type from ledger_entry where account_id = ? order by id", (rs, i) -> LedgerEntry.builder()
+                        .type(EntryType.valueOf(rs.getString("type"))).build(), from.getId());
+        assertThat(ledger).extracting(LedgerEntry::getType)
+                .containsExactly(EntryType.DEBIT, EntryType.DEBIT, EntryType.CREDIT);
+        assertThat(databases.get(0).queryForList("select status from shard_transfer order by created_at", String.class))
+                .containsExactly("COMPLETED", "COMPENSATED");
+    }
+
+    private List<String> transferStatuses() {
+        return databases.get(0).queryForList("select status from shard_transfer", String.class);
+    }
+
+    @Test
+    void recoveryCreditsATransferInterruptedAfterItsDebit() {
+        Account from = open("SH-L", customerOnShard(0), 7_500);
+        Account to = open("SH-M", customerOnShard(1), 0);
+        // Arrêt juste après le commit du débit : virement DEBITED, pas de crédit sur le shard 1
+        String reference = UUID.randomUUID().toString();
+        shards.on(0, () -> shardTransferRepository.save(ShardTransfer.builder()
+                .reference(reference)
+                .fromAccountId(from.getId())
+                .toAccountId(to.getId())
+                .amountMinor(2_500L)
+                .status(TransferStatus.DEBITED)
+                .createdAt(Instant.now().minusSeconds(600))
+                .build()));
+
+        assertThat(transactionService.recoverTransfers(Instant.now(), 10)).isEqualTo(1);
+        assertThat(transactionService.recoverTransfers(Instant.now(), 10)).isZero();
+
+        assertThat(accountRepository.findBalanceMinorById(to.getId())).contains(2_500L);
+        assertThat(accountRepository.findBalanceMinorById(from.getId())).contains(7_500L);
+        assertThat(transferStatuses()).containsExactly("COMPLETED");
+    }
+
+    @Test
+    void recoveryDoesNotCreditTwiceWhenOnlyTheAcknowledgementWasLost() {
+        Account from = open("SH-N", customerOnShard(0), 10_000);
+        Account to = open("SH-O", customerOnShard(1), 0);
+        transactionService.transfer(TransferRequest.builder()
+                .fromAccountId(from.getId()).toAccountId(to.getId()).amount(new BigDecimal("25.00")).build());
+        // Crédit commité sur le shard 1, mais COMPLETED jamais enregistré sur le shard 0
+        databases.get(0).update("update shard_transfer set status = 'DEBITED'");
+
+        assertThat(transactionService.recoverTransfers(Instant.now(), 10)).isEqualTo(1);
+
+        assertThat(accountRepository.findBalanceMinorById(from.getId())).contains(7_500L);
+        assertThat(accountRepository.findBalanceMinorById(to.getId())).contains(2_500L);
+        assertThat(transferStatuses()).containsExactly("COMPLETED");
+    }
+
+    @Test
+    void writesSpanningShardsAreRejected() {
+        Account account = open("SH-K", customerOnShard(0), 0);
+        account.setCustomerId(customerOnShard(1));
+
+        assertThatThrownBy(() -> accountRepository.save(account)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> accountRepository.findAllById(List.of(account.getId())))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.senyitte.accountservices.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Chronométrage par phases sans Spring : ServerTiming installé à la main comme le ferait ServerTimingFilter
+class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.end();
+    }
+
+    @Test
+    void nestedPhaseIsSubtractedFromTheEnclosingOne() throws InterruptedException {
+        ServerTiming timing = ServerTiming.begin();
+
+        try (ServerTiming.Lap customer = ServerTiming.start(ServerTiming.Phase.CUSTOMER)) {
+            Thread.sleep(20);
+            try (ServerTiming.Lap db = ServerTiming.start(ServerTiming.Phase.DB)) {
+                Thread.sleep(30);
+            }
+        }
+
+        long now = System.nanoTime();
+        long customer = timing.nanos(ServerTiming.Phase.CUSTOMER, now);
+        long db = timing.nanos(ServerTiming.Phase.DB, now);
+        assertThat(db).isGreaterThanOrEqualTo(30_000_000L);
+        assertThat(customer).isGreaterThanOrEqualTo(20_000_000L).isLessThan(db);
+        assertThat(customer + db).isLessThanOrEqualTo(timing.elapsed(now));
+    }
+
+    @Test
+    void headerListsOnlyPhasesThatRan() {
+        ServerTiming timing = ServerTiming.begin();
+
+        ServerTiming.start(ServerTiming.Phase.DB).close();
+
+        assertThat(timing.header()).matches("app;dur=\\d+\\.\\d, db;dur=\\d+\\.\\d");
+    }
+
+    @Test
+    void lapsOutsideARequestDoNothing() {
+        assertThat(ServerTiming.start(ServerTiming.Phase.DB)).isSameAs(ServerTiming.Lap.NONE);
+    }
+
+    @Test
+    void serializedBodyIsPrecededByTheHeader() throws IOException {
+        ServerTiming.begin();
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+
+        ServerTiming.serialize(response, output -> output.getBody().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+        response.flush();
+
+        assertThat(servletResponse.getHeader(ServerTiming.HEADER)).contains("serialize;dur=");
+        assertThat(servletResponse.getContentLength()).isEqualTo(8);
+        assertThat(servletResponse.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void largeBodyIsStreamedWithoutTheSerializeEntry() throws IOException {
+        ServerTiming.begin();
+        ServerTiming.start(ServerTiming.Phase.DB).close();
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+        byte[] chunk = new byte[1000];
+        Arrays.fill(chunk, (byte) 'x');
+        int chunks = ServerTiming.MAX_BUFFERED_BYTES / chunk.length + 10;
+
+        ServerTiming.serialize(response, output -> {
+            for (int i = 0; i < chunks; i++) {
+                output.getBody().write(chunk);
+            }
+            // Au-delà du seuil, les en-têtes sont déjà envoyés pendant l'écriture
+            assertThat(servletResponse.isCommitted()).isTrue();
+        });
+        response.flush();
+
+        assertThat(servletResponse.getHeader(ServerTiming.HEADER)).contains("db;dur=").doesNotContain("serialize");
+        assertThat(servletResponse.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        assertThat(servletResponse.getContentAsByteArray()).hasSize(chunks * chunk.length);
+    }
+
+    @Test
+    void clientRequestBodyIsWrittenDirectly() throws IOException {
+        ServerTiming.begin();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpHeaders headers = new HttpHeaders();
+        HttpOutputMessage request = new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+
+        ServerTiming.serialize(request, output -> output.getBody().write(1));
+
+        assertThat(body.size()).isEqualTo(1);
+        assertThat(headers.containsKey(ServerTiming.HEADER)).isFalse();
+    }
+
+    @Test
+    void millisAreRoundedToATenth() {
+        assertThat(ServerTiming.millis(12_345_678L)).isEqualTo("12.3");
+        assertThat(ServerTiming.millis(50_000L)).isEqualTo("0.1");
+        assertThat(ServerTiming.millis(0L)).isEqualTo("0.0");
+    }
+}
@@ -0,0 +1,77 @@
+package com.senyitte.accountservices.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Propagation du span de la requête vers un pool : spans exportés en mémoire (SDK OpenTelemetry de test)
+class ContextExecutorsTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+    private final ObservationRegistry registry = ObservationRegistry.create();
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    ContextExecutorsTest() {
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(tracerProvider.get("test"), currentTraceContext, event -> {
+        }, new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        tracerProvider.close();
+    }
+
+    @Test
+    void wrappedExecutorContinuesTheTraceOfTheSubmitter() {
+        runChildOn(ContextExecutors.wrap(pool));
+
+        SpanData request = span("request");
+        SpanData customer = span("customer");
+        assertThat(customer.getTraceId()).isEqualTo(request.getTraceId());
+        assertThat(customer.getParentSpanId()).isEqualTo(request.getSpanId());
+    }
+
+    @Test
+    void plainExecutorStartsANewTrace() {
+        runChildOn(pool);
+
+        assertThat(span("customer").getTraceId()).isNotEqualTo(span("request").getTraceId());
+    }
+
+    private void runChildOn(Executor executor) {
+        Observation.createNotStarted("request", registry).observe(() -> CompletableFuture
+                .runAsync(() -> Observation.createNotStarted("customer", registry).observe(() -> {
+                }), executor)
+                .join());
+    }
+
+    private SpanData span(String name) {
+        return exporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
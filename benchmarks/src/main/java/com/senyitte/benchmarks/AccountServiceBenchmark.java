@@ -0,0 +1,90 @@
+package com.senyitte.benchmarks;
+
+import com.senyitte.accountservices.balance.CustomerBalanceUpdater;
+import com.senyitte.accountservices.customer.CustomerCache;
+import com.senyitte.accountservices.customer.CustomerCacheProperties;
+import com.senyitte.accountservices.customer.CustomerCallGuard;
+import com.senyitte.accountservices.customer.CustomerFetchProperties;
+import com.senyitte.accountservices.customer.CustomerFetcher;
+import com.senyitte.accountservices.customer.CustomerHedgingProperties;
+import com.senyitte.accountservices.customer.CustomerProjectionStore;
+import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.accountservices.feign.CustomerBatchLoader;
+import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.mappers.AccountMapper;
+import com.senyitte.accountservices.services.AccountServiceImpl;
+import com.senyitte.accountservices.sharding.AccountNumberRegistry;
+import com.senyitte.accountservices.sharding.AccountShardingProperties;
+import com.senyitte.accountservices.sharding.AccountShards;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// AccountServiceImpl.getAllAccounts avec dépôt et client customer en mémoire :
+// mesure la jointure comptes/clients, le mapping et l'allocation, sans réseau ni base.
+// Le cache customers est chaud (pré-rempli au setup).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountServiceBenchmark {
+
+    @Param({"1000", "50000"})
+    public int accounts;
+
+    @Param({"1000"})
+    public int distinctCustomers;
+
+    private AccountServiceImpl accountService;
+    private final AtomicLong remoteCalls = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        CustomerClient customerClient = StandIns.customerClient(remoteCalls);
+        // Politiques par défaut de Resilience4j, sans hedging
+        CustomerCallGuard callGuard = new CustomerCallGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), new CustomerHedgingProperties());
+        CustomerCache customerCache = new CustomerCache(customerClient,
+                new CustomerBatchLoader(customerClient, callGuard, 200, 1),
+                // Projection jamais prête : les chargements passent par le client distant simulé
+                new CustomerProjectionStore(null),
+                callGuard,
+                new CustomerCacheProperties(),
+                false);
+        // Une seule base, pas de transaction : seul getAllAccounts est mesuré
+        AccountShards shards = new AccountShards(new AccountShardingProperties());
+        accountService = new AccountServiceImpl(
+                StandIns.accountRepository(Fixtures.accounts(accounts, distinctCustomers)),
+                new AccountMapper(),
+                customerCache,
+                null,
+                new TransactionTemplate(),
+                new CustomerFetcher(customerCache, new CustomerFetchProperties()),
+                shards,
+                new AccountNumberRegistry(shards, null, null),
+                new CustomerBalanceUpdater(null),
+                null);
+        accountService.getAllAccounts();
+        remoteCalls.set(0);
+    }
+
+    @Benchmark
+    public List<AccountResponse> getAllAccounts() {
+        return accountService.getAllAccounts();
+    }
+
+    @TearDown
+    public void checkNoRemoteCalls() {
+        // Cache chaud : aucun appel "distant" ne doit avoir eu lieu pendant la mesure
+        if (remoteCalls.get() != 0) {
+            throw new IllegalStateException("Unexpected remote calls: " + remoteCalls.get());
+        }
+    }
+}
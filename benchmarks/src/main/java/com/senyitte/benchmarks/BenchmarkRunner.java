@@ -0,0 +1,21 @@
+package com.senyitte.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Lance tous les benchmarks (ou ceux dont le nom correspond à args[0]) avec le profiler GC :
+// la colonne gc.alloc.rate.norm donne les octets alloués par opération.
+// Équivalent : java -jar target/benchmarks.jar -prof gc
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : ".*Benchmark.*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
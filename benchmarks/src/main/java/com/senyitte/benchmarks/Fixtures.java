@@ -0,0 +1,102 @@
+package com.senyitte.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.customerservice.dtos.CustomerResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Données de test partagées par les benchmarks
+final class Fixtures {
+
+    static final Instant NOW = Instant.parse("2025-01-01T10:15:30Z");
+
+    private Fixtures() {
+    }
+
+    // Même configuration Jackson que Spring Boot par défaut (dates ISO-8601, JavaTimeModule)
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    // Même configuration, encodage CBOR (CborConfig des services)
+    static ObjectMapper cborMapper() {
+        return new CBORMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    static Customer customer(long id) {
+        return Customer.builder()
+                .id(id)
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .email("customer" + id + "@example.com")
+                .build();
+    }
+
+    static List<CustomerResponse> customerResponses(int size) {
+        List<CustomerResponse> responses = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            responses.add(CustomerResponse.builder()
+                    .id(id)
+                    .firstName("First" + id)
+                    .lastName("Last" + id)
+                    .email("customer" + id + "@example.com")
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .version(1L)
+                    .build());
+        }
+        return responses;
+    }
+
+    static Account account(long id, long customerId) {
+        return Account.builder()
+                .id(id)
+                .accountNumber("ACC-" + id)
+                .balanceMinor(id * 137)
+                .type(id % 2 == 0 ? AccountType.CURRENT : AccountType.SAVINGS)
+                .customerId(customerId)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    // "distinctCustomers" clients répartis sur "size" comptes
+    static List<Account> accounts(int size, int distinctCustomers) {
+        List<Account> accounts = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            accounts.add(account(i, 1 + (i % Math.max(1, distinctCustomers))));
+        }
+        return accounts;
+    }
+
+    static List<AccountResponse> accountResponses(int size) {
+        List<AccountResponse> responses = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            responses.add(AccountResponse.builder()
+                    .id((long) i)
+                    .accountNumber("ACC-" + i)
+                    .balance(BigDecimal.valueOf(i * 137L, 2))
+                    .type(i % 2 == 0 ? AccountType.CURRENT : AccountType.SAVINGS)
+                    .customerId((long) (i % 100))
+                    .customer(customer(i % 100))
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,77 @@
+package com.senyitte.benchmarks;
+
+import com.senyitte.accountservices.dtos.AccountRequest;
+import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.accountservices.mappers.AccountMapper;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.models.AccountType;
+import com.senyitte.customerservice.dtos.CustomerRequest;
+import com.senyitte.customerservice.dtos.CustomerResponse;
+import com.senyitte.customerservice.mappers.CustomerMapper;
+import com.senyitte.customerservice.models.Customer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Coût unitaire des mappers (builders Lombok) : temps et allocation par conversion
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private AccountMapper accountMapper;
+    private CustomerMapper customerMapper;
+    private Account account;
+    private AccountRequest accountRequest;
+    private Customer customer;
+    private CustomerRequest customerRequest;
+
+    @Setup
+    public void setUp() {
+        accountMapper = new AccountMapper();
+        customerMapper = new CustomerMapper();
+        account = Fixtures.account(42, 7);
+        account.setCustomer(Fixtures.customer(7));
+        accountRequest = AccountRequest.builder()
+                .accountNumber("ACC-42")
+                .type(AccountType.SAVINGS)
+                .customerId(7L)
+                .build();
+        customer = Customer.builder()
+                .id(7L)
+                .firstName("Mamadou")
+                .lastName("Diallo")
+                .email("mamadou@email.com")
+                .createdAt(Fixtures.NOW)
+                .updatedAt(Fixtures.NOW)
+                .build();
+        customerRequest = CustomerRequest.builder()
+                .firstName("Mamadou")
+                .lastName("Diallo")
+                .email("mamadou@email.com")
+                .build();
+    }
+
+    @Benchmark
+    public AccountResponse accountToDto() {
+        return accountMapper.toDto(account);
+    }
+
+    @Benchmark
+    public Account accountToEntity() {
+        return accountMapper.toEntity(accountRequest);
+    }
+
+    @Benchmark
+    public CustomerResponse customerToDto() {
+        return customerMapper.toDto(customer);
+    }
+
+    @Benchmark
+    public Customer customerToEntity() {
+        return customerMapper.toEntity(customerRequest);
+    }
+}
@@ -0,0 +1,36 @@
+package com.senyitte.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senyitte.accountservices.dtos.AccountResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sérialisation Jackson de listes d'AccountResponse (corps de GET /api/accounts)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<AccountResponse> accounts;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        accounts = Fixtures.accountResponses(size);
+    }
+
+    @Benchmark
+    public byte[] serializeAccountList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(accounts);
+    }
+}
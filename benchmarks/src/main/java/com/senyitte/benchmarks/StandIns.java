@@ -0,0 +1,52 @@
+package com.senyitte.benchmarks;
+
+import com.senyitte.accountservices.customer.Customer;
+import com.senyitte.accountservices.feign.CustomerClient;
+import com.senyitte.accountservices.models.Account;
+import com.senyitte.accountservices.repository.AccountRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Remplaçants en mémoire des dépendances de AccountServiceImpl.
+// Proxies dynamiques : seules les méthodes utilisées par les benchmarks sont implémentées,
+// les autres lèvent UnsupportedOperationException.
+final class StandIns {
+
+    private StandIns() {
+    }
+
+    static AccountRepository accountRepository(List<Account> accounts) {
+        return (AccountRepository) Proxy.newProxyInstance(
+                AccountRepository.class.getClassLoader(),
+                new Class<?>[]{AccountRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> accounts;
+                    case "toString" -> "InMemoryAccountRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Compte les appels distants simulés pour vérifier l'absence de N+1
+    static CustomerClient customerClient(AtomicLong remoteCalls) {
+        return (CustomerClient) Proxy.newProxyInstance(
+                CustomerClient.class.getClassLoader(),
+                new Class<?>[]{CustomerClient.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getCustomer" -> {
+                        remoteCalls.incrementAndGet();
+                        yield Fixtures.customer((Long) args[0]);
+                    }
+                    case "getCustomersByIds" -> {
+                        remoteCalls.incrementAndGet();
+                        @SuppressWarnings("unchecked")
+                        Collection<Long> ids = (Collection<Long>) args[0];
+                        yield ids.stream().map(Fixtures::customer).toList();
+                    }
+                    case "toString" -> "InMemoryCustomerClient";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
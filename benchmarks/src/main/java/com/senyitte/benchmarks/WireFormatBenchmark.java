@@ -0,0 +1,72 @@
+package com.senyitte.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senyitte.accountservices.dtos.AccountResponse;
+import com.senyitte.customerservice.dtos.CustomerResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs CBOR pour les corps échangés entre services : CustomerResponse / AccountResponse seuls
+// et listes de 10 000 éléments. Taille du corps affichée au setup, CPU mesuré par encode/decode,
+// allocation avec -prof gc (gc.alloc.rate.norm).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final int LIST_SIZE = 10_000;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"customer", "account", "customers", "accounts"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private Object value;
+    private JavaType type;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "cbor".equals(format) ? Fixtures.cborMapper() : Fixtures.objectMapper();
+        switch (payload) {
+            case "customer" -> {
+                value = Fixtures.customerResponses(1).get(0);
+                type = mapper.constructType(CustomerResponse.class);
+            }
+            case "account" -> {
+                value = Fixtures.accountResponses(1).get(0);
+                type = mapper.constructType(AccountResponse.class);
+            }
+            case "customers" -> {
+                value = Fixtures.customerResponses(LIST_SIZE);
+                type = mapper.getTypeFactory().constructCollectionType(List.class, CustomerResponse.class);
+            }
+            case "accounts" -> {
+                value = Fixtures.accountResponses(LIST_SIZE);
+                type = mapper.getTypeFactory().constructCollectionType(List.class, AccountResponse.class);
+            }
+            default -> throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+        encoded = mapper.writeValueAsBytes(value);
+        System.out.printf("%n[%s/%s] payload = %d bytes%n", format, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return mapper.readValue(encoded, type);
+    }
+}
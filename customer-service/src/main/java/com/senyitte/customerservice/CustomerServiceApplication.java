@@ -2,8 +2,11 @@ package com.senyitte.customerservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+// Publication de l'outbox des changements clients (OutboxPoller)
+@EnableScheduling
 public class CustomerServiceApplication {
 
     public static void main(String[] args) {
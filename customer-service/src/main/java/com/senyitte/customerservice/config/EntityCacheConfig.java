@@ -0,0 +1,63 @@
+package com.senyitte.customerservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Cache de second niveau Hibernate (JCache / Caffeine) : les entités lues par id sont servies sans SQL
+// Les régions sont créées ici, une par entrée de EntityCacheProperties, avec leur taille max
+@Configuration
+public class EntityCacheConfig {
+
+    // Un gestionnaire propre au contexte Spring (URI unique) : pas de régions partagées entre contextes de test
+    @Bean
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("entity-cache:" + UUID.randomUUID()), EntityCacheConfig.class.getClassLoader());
+        properties.getRegions().forEach((name, region) -> cacheManager.createCache(name, configuration(region)));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // Pas de création silencieuse d'une région non bornée
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Statistiques par région (remplace hibernate-micrometer)
+    @Bean
+    public EntityCacheMetrics entityCacheMetrics(EntityManagerFactory entityManagerFactory, EntityCacheProperties properties) {
+        return new EntityCacheMetrics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(),
+                properties.getRegions().keySet());
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(EntityCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        // Hibernate stocke déjà une copie "déshydratée" de l'entité : pas de copie supplémentaire par sérialisation
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
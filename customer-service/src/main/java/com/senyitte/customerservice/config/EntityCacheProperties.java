@@ -0,0 +1,26 @@
+package com.senyitte.customerservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Régions du cache de second niveau Hibernate (préfixe "entity-cache" dans application.properties)
+// Chaque région déclarée par @Cache / @NaturalIdCache doit figurer ici : une région absente fait échouer le démarrage
+@Data
+@Component
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        // Nombre max d'entrées (éviction par taille au-delà)
+        private long maximumSize = 10_000;
+        // Durée de vie d'une entrée (vide = jusqu'à éviction ou invalidation par une écriture)
+        private Duration expireAfterWrite;
+    }
+}
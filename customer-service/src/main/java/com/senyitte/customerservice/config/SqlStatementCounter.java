@@ -0,0 +1,25 @@
+package com.senyitte.customerservice.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Compte les requêtes SQL préparées par Hibernate dans le thread courant.
+// Remis à zéro au début de chaque requête HTTP par SqlStatementMetricsInterceptor :
+// une hausse du nombre de requêtes SQL par endpoint signale un N+1.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
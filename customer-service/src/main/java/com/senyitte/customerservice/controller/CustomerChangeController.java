@@ -0,0 +1,35 @@
+package com.senyitte.customerservice.controller;
+
+import com.senyitte.customerservice.dtos.CustomerChangeFeedResponse;
+import com.senyitte.customerservice.services.CustomerChangeFeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Flux des changements clients (outbox) pour les projections des autres services
+@RestController
+@RequestMapping("/api/customers/changes")
+public class CustomerChangeController {
+
+    private final CustomerChangeFeedService changeFeedService;
+
+    public CustomerChangeController(CustomerChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    // ==================== LIRE LE FLUX ====================
+    // GET /api/customers/changes?after=0&limit=500
+    // Repasser "nextOffset" en "after" pour la suite ; si "resetRequired", se reconstruire
+    @GetMapping
+    public ResponseEntity<CustomerChangeFeedResponse> getChanges(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(after, limit));
+    }
+
+    // ==================== TÊTE DU FLUX ====================
+    // GET /api/customers/changes/head : dernier offset publié (point de reprise après un instantané)
+    @GetMapping("/head")
+    public ResponseEntity<Long> getHeadOffset() {
+        return ResponseEntity.ok(changeFeedService.getHeadOffset());
+    }
+}
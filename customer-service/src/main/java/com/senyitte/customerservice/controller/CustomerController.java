@@ -1,12 +1,21 @@
 package com.senyitte.customerservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senyitte.customerservice.dtos.CursorPage;
 import com.senyitte.customerservice.dtos.CustomerRequest;
 import com.senyitte.customerservice.dtos.CustomerResponse;
+import com.senyitte.customerservice.dtos.ResourceVersion;
 import com.senyitte.customerservice.services.CustomerService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 
 // @RestController = @Controller + @ResponseBody
@@ -16,11 +25,16 @@ import java.util.List;
 @RequestMapping("/api/customers")
 public class CustomerController {
 
+    // Taille maximale d'un lot d'ids (account-services envoie des lots de customer.batch.size=200)
+    private static final int MAX_BATCH_IDS = 200;
+
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     // Injection du service par constructeur
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, ObjectMapper objectMapper) {
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
     }
 
     // ==================== CRÉER ====================
@@ -42,15 +56,85 @@ public class CustomerController {
         return ResponseEntity.ok(responses);
     }
 
+    // ==================== LIRE PAR PAGE ====================
+    // GET /api/customers/page?after=0&size=100
+    // Repasser "nextCursor" en "after" pour obtenir la page suivante
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<CustomerResponse>> getCustomersPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(customerService.getCustomersPage(after, size));
+    }
+
+    // ==================== LIRE EN FLUX ====================
+    // GET /api/customers/stream
+    // NDJSON : un client JSON par ligne, écrit directement dans la réponse
+    // sans construire de liste complète en mémoire
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        StreamingResponseBody body = out -> customerService.streamAllCustomers(customer -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(customer));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // ==================== LIRE PAR EMAIL ====================
+    // GET /api/customers/by-email?email=mamadou@email.com (correspondance exacte)
+    @GetMapping("/by-email")
+    public ResponseEntity<CustomerResponse> getCustomerByEmail(@RequestParam String email) {
+        return ResponseEntity.ok(customerService.getCustomerByEmail(email));
+    }
+
+    // ==================== RECHERCHER ====================
+    // GET /api/customers/search?q=mamad%20dial&limit=20
+    // Préfixe et fautes de frappe tolérés sur prénom / nom / email, meilleurs résultats en premier
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerResponse>> searchCustomers(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(customerService.searchCustomers(query, limit));
+    }
+
     // ==================== LIRE UN SEUL ====================
     // GET /api/customers/{id}
     // @PathVariable extrait la valeur {id} de l'URL
+    // GET conditionnel : si If-None-Match / If-Modified-Since correspondent à la version courante,
+    // checkNotModified positionne le 304 et on s'arrête là (ni chargement complet, ni conversion, ni JSON)
+    // Sinon il ajoute ETag et Last-Modified à la réponse 200
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable Long id) {
+    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = customerService.getCustomerVersion(id);
+        if (request.checkNotModified(version.getEtag(), toEpochMilli(version.getLastModified()))) {
+            return null;
+        }
         CustomerResponse response = customerService.getCustomer(id);
         return ResponseEntity.ok(response);
     }
 
+    // -1 = pas de Last-Modified
+    private static long toEpochMilli(Instant instant) {
+        return instant == null ? -1 : instant.toEpochMilli();
+    }
+
+    // ==================== LIRE PAR LOT ====================
+    // POST /api/customers/batch
+    // Corps : liste d'ids, ex. [1, 2, 3] — POST pour ne pas dépendre de la longueur d'URL
+    // Au-delà de MAX_BATCH_IDS : 400, l'appelant découpe ses lots (sinon un seul appel pourrait charger toute la base)
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerResponse>> getCustomersByIds(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(customerService.getCustomersByIds(ids));
+    }
+
     // ==================== MODIFIER ====================
     // PUT /api/customers/{id}
     @PutMapping("/{id}")
@@ -0,0 +1,79 @@
+package com.senyitte.customerservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Routage lecture / écriture : les transactions @Transactional(readOnly = true) lisent sur les réplicas,
+// tout le reste (et les lectures qui suivent une écriture du client) passe par le primaire
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    // Pool primaire : spring.datasource.* et spring.datasource.hikari.*, comme sans routage
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                                   DataSourceProperties primaryProperties,
+                                                   DataSourceRoutingProperties routing,
+                                                   MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routing.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = routing.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            dataSource.setReadOnly(true);
+            // Mêmes métriques hikaricp.connections.* que le primaire (tag pool=replica-N)
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(dataSource);
+        }
+        return new ReadReplicaDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaDataSource replicaDataSource) {
+        return routingDataSource(primaryDataSource, replicaDataSource);
+    }
+
+    @Bean
+    public PrimaryStickinessListener primaryStickinessListener(DataSourceRoutingProperties routing) {
+        return new PrimaryStickinessListener(routing.getStickyWindow(), routing.getCookieName());
+    }
+
+    @Bean
+    public PrimaryStickinessFilter primaryStickinessFilter(DataSourceRoutingProperties routing) {
+        return new PrimaryStickinessFilter(routing.getCookieName());
+    }
+
+    // La connexion n'est obtenue qu'à la première requête SQL : la transaction a déjà appelé
+    // setReadOnly(true) si elle est en lecture seule, ce qui désigne la source des réplicas
+    static LazyConnectionDataSourceProxy routingDataSource(DataSource primary, DataSource readOnly) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        return dataSource;
+    }
+}
@@ -0,0 +1,16 @@
+package com.senyitte.customerservice.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    // Id du dernier élément renvoyé : à repasser en "after" pour la page suivante
+    // null quand il n'y a plus rien à lire
+    private Long nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.senyitte.customerservice.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerChangeFeedResponse {
+    // Événements d'offset > after, dans l'ordre
+    private List<CustomerChangeResponse> events;
+    // Offset à repasser en "after" pour la suite (= after si aucun événement)
+    private Long nextOffset;
+    // Dernier offset publié au moment de la lecture
+    private Long headOffset;
+    // true si des événements après "after" ont été purgés : le consommateur doit se reconstruire
+    // à partir d'un instantané (GET /api/customers/page) puis reprendre à headOffset
+    private boolean resetRequired;
+}
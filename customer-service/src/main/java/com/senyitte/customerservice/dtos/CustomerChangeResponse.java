@@ -0,0 +1,25 @@
+package com.senyitte.customerservice.dtos;
+
+import com.senyitte.customerservice.models.CustomerChangeType;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerChangeResponse {
+    private Long offset;
+    private Long customerId;
+    private CustomerChangeType type;
+    private String firstName;
+    private String lastName;
+    private String email;
+    // Version et date de modification du client (validateurs HTTP côté consommateurs)
+    private Long version;
+    private Instant updatedAt;
+    private Instant occurredAt;
+}
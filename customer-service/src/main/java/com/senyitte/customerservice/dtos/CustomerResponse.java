@@ -17,5 +17,6 @@ public class CustomerResponse {
     private String email;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 
 }
@@ -0,0 +1,46 @@
+package com.senyitte.customerservice.mappers;
+
+import com.senyitte.customerservice.dtos.CustomerChangeResponse;
+import com.senyitte.customerservice.models.Customer;
+import com.senyitte.customerservice.models.CustomerChangeEvent;
+import com.senyitte.customerservice.models.CustomerChangeType;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CustomerChangeMapper {
+
+    public CustomerChangeEvent toEvent(Customer customer, CustomerChangeType type) {
+        return CustomerChangeEvent.builder()
+                .customerId(customer.getId())
+                .type(type)
+                .firstName(customer.getFirstName())
+                .lastName(customer.getLastName())
+                .email(customer.getEmail())
+                .customerVersion(customer.getVersion())
+                .customerUpdatedAt(customer.getUpdatedAt())
+                .build();
+    }
+
+    // Version de suppression = dernière version + 1 : plus récente que tout changement du client
+    public CustomerChangeEvent toDeletedEvent(Customer customer) {
+        return CustomerChangeEvent.builder()
+                .customerId(customer.getId())
+                .type(CustomerChangeType.DELETED)
+                .customerVersion(customer.getVersion() + 1)
+                .build();
+    }
+
+    public CustomerChangeResponse toDto(CustomerChangeEvent entity) {
+        return CustomerChangeResponse.builder()
+                .offset(entity.getFeedOffset())
+                .customerId(entity.getCustomerId())
+                .type(entity.getType())
+                .firstName(entity.getFirstName())
+                .lastName(entity.getLastName())
+                .email(entity.getEmail())
+                .version(entity.getCustomerVersion())
+                .updatedAt(entity.getCustomerUpdatedAt())
+                .occurredAt(entity.getCreatedAt())
+                .build();
+    }
+}
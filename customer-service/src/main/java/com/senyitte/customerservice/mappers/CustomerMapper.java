@@ -17,9 +17,16 @@ public class CustomerMapper {
         customerResponse.setEmail(entity.getEmail());
         customerResponse.setCreatedAt(entity.getCreatedAt());
         customerResponse.setUpdatedAt(entity.getUpdatedAt());
+        customerResponse.setVersion(entity.getVersion());
         return customerResponse;
     }
 
+    // ETag fort d'un client : change à chaque modification (id + version)
+    // account-services reconstruit la même valeur pour revalider son cache (Customer.etag())
+    public static String etag(Long id, Long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
 
     public Customer toEntity(CustomerRequest dto) {
         return Customer.builder()
@@ -2,12 +2,19 @@ package com.senyitte.customerservice.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 
+// Cache de second niveau en lecture-écriture (région "customer") : getCustomer et les lots
+// appelés par account-services sont servis sans SQL tant que le client n'a pas changé
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
 @Data
 @Getter
 @Setter
@@ -27,5 +34,11 @@ public class Customer {
     private Instant createdAt;
     @UpdateTimestamp
     private Instant updatedAt;
+    // Incrémentée à chaque modification : sert d'ETag (GET /api/customers/{id})
+    // La valeur par défaut initialise les lignes existantes lors de l'ajout de la colonne
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 
 }
@@ -0,0 +1,45 @@
+package com.senyitte.customerservice.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+// Outbox transactionnelle : une ligne par création / modification / suppression de client,
+// écrite dans la même transaction que le changement lui-même.
+// feedOffset est attribué après commit par OutboxPoller, dans l'ordre, sans trou :
+// c'est la position utilisée par les consommateurs du flux (GET /api/customers/changes).
+@Entity
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_change_event_seq")
+    @SequenceGenerator(name = "customer_change_event_seq", sequenceName = "customer_change_event_seq", allocationSize = 50)
+    private Long id;
+    // L'index unique sert aussi la recherche des événements en attente (feedOffset IS NULL)
+    @Column(unique = true)
+    private Long feedOffset;
+    @Column(nullable = false)
+    private Long customerId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CustomerChangeType type;
+    // État complet du client après le changement (null pour DELETED)
+    private String firstName;
+    private String lastName;
+    private String email;
+    // Version du client après le changement (suppression : dernière version + 1).
+    // Les offsets suivent l'ordre des ids (séquence pooled, plusieurs instances), pas celui des versions :
+    // les consommateurs ignorent un changement de version inférieure à celle qu'ils ont déjà appliquée
+    private Long customerVersion;
+    private Instant customerUpdatedAt;
+    @CreationTimestamp
+    private Instant createdAt;
+}
@@ -0,0 +1,7 @@
+package com.senyitte.customerservice.models;
+
+public enum CustomerChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,34 @@
+package com.senyitte.customerservice.repository;
+
+import com.senyitte.customerservice.models.CustomerChangeEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CustomerChangeEventRepository extends JpaRepository<CustomerChangeEvent, Long> {
+
+    // Événements commités pas encore publiés, dans l'ordre d'écriture
+    List<CustomerChangeEvent> findByFeedOffsetIsNullOrderByIdAsc(Limit limit);
+
+    List<CustomerChangeEvent> findByFeedOffsetGreaterThanOrderByFeedOffsetAsc(Long after, Limit limit);
+
+    @Query("select max(e.feedOffset) from CustomerChangeEvent e")
+    Long findMaxFeedOffset();
+
+    @Query("select min(e.feedOffset) from CustomerChangeEvent e")
+    Long findMinFeedOffset();
+
+    // Rétention : seuls les événements déjà publiés sont purgés, et le dernier est toujours conservé
+    // pour que le prochain offset (max + 1) et la tête du flux restent connus
+    @Modifying
+    @Query("delete from CustomerChangeEvent e where e.feedOffset is not null and e.createdAt < :before " +
+            "and e.feedOffset < (select max(m.feedOffset) from CustomerChangeEvent m)")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
@@ -1,12 +1,36 @@
 package com.senyitte.customerservice.repository;
 
 import com.senyitte.customerservice.models.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-  //  Optional<Customer> findByEmail(String email);
+    // Recherche exacte, servie par l'index unique de la colonne email
+    Optional<Customer> findByEmail(String email);
+
+    // GET conditionnel : lecture de l'id, de la version et de la date de modification seulement
+    @Query("select c.id as id, c.version as version, c.updatedAt as updatedAt from Customer c where c.id = :id")
+    Optional<CustomerVersionView> findVersionById(@Param("id") Long id);
+
+    // Pagination par curseur (keyset) : "WHERE id > :after ORDER BY id LIMIT :n"
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Lecture en flux, curseur JDBC avec fetch size borné (doit être appelé dans une transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Customer c order by c.id")
+    Stream<Customer> streamAll();
 }
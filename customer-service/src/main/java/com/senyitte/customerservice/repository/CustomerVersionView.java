@@ -0,0 +1,10 @@
+package com.senyitte.customerservice.repository;
+
+import java.time.Instant;
+
+// Projection minimale d'un client : de quoi calculer ses validateurs HTTP sans charger l'entité
+public interface CustomerVersionView {
+    Long getId();
+    Long getVersion();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,459 @@
+package com.senyitte.customerservice.search;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Index de recherche en mémoire (prénom, nom, email) par trigrammes :
+// - chaque mot est indexé avec deux espaces devant ("  dup", " du", "dup", ...) :
+//   les préfixes courts ("d", "du") ont eux aussi un trigramme
+// - postings = int[] triés de numéros de slot, le texte normalisé est stocké en byte[] (UTF-8)
+//   par slot, l'id client est dans un long[] : pas d'objet par client ni de boxing
+// - tolérance aux fautes : une faute touche au plus 3 trigrammes ; les candidats doivent partager
+//   assez de trigrammes avec la requête, puis sont vérifiés par distance d'édition sur le préfixe
+// - mise à jour = nouveau slot + ancien slot marqué mort ; compactage quand un quart est mort
+@Component
+public class CustomerSearchIndex {
+
+    // Au-delà, les requêtes très larges (ex. une seule lettre) ne classent qu'un sous-ensemble
+    static final int MAX_CANDIDATES = 20_000;
+    // Candidats "avec fautes" vérifiés par distance d'édition : limit x VERIFY_FACTOR meilleurs en trigrammes
+    private static final int VERIFY_FACTOR = 4;
+    private static final int MIN_COMPACT_SLOTS = 1024;
+    private static final char PAD = ' ';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public record Hit(long customerId, int distance) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap slotByCustomerId = new LongIntHashMap();
+    private final Map<Long, IntPostings> postings = new HashMap<>();
+    private long[] customerIds = new long[1024];
+    // Version du client indexée dans chaque slot
+    private long[] versions = new long[1024];
+    // null = slot mort (client supprimé ou remplacé par une version plus récente)
+    private byte[][] texts = new byte[1024][];
+    private int slotCount;
+    private int deadCount;
+    // Version de suppression des clients supprimés : un changement plus ancien reçu ensuite
+    // (flux non trié par version entre instances) ne les fait pas réapparaître
+    private final Map<Long, Long> tombstones = new HashMap<>();
+
+    // ==================== ÉCRITURE ====================
+    // Un changement de version inférieure à celle déjà indexée (ou à la suppression) est ignoré
+    public void upsert(long customerId, long version, String firstName, String lastName, String email) {
+        byte[] text = packedText(firstName, lastName, email);
+        lock.writeLock().lock();
+        try {
+            upsertLocked(customerId, version, text);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long customerId, long version) {
+        lock.writeLock().lock();
+        try {
+            deleteLocked(customerId, version);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applique un lot de changements sous un seul verrou : une recherche voit tout le lot ou rien
+    public void applyAll(List<Change> changes) {
+        List<byte[]> packed = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            packed.add(change.deleted() ? null : packedText(change.firstName(), change.lastName(), change.email()));
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < changes.size(); i++) {
+                Change change = changes.get(i);
+                if (packed.get(i) == null) {
+                    deleteLocked(change.customerId(), change.version());
+                } else {
+                    upsertLocked(change.customerId(), change.version(), packed.get(i));
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public record Change(long customerId, long version, boolean deleted, String firstName, String lastName, String email) {
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotByCustomerId.clear();
+            postings.clear();
+            customerIds = new long[1024];
+            versions = new long[1024];
+            texts = new byte[1024][];
+            tombstones.clear();
+            slotCount = 0;
+            deadCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByCustomerId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertLocked(long customerId, long version, byte[] text) {
+        Long deletedAt = tombstones.get(customerId);
+        int current = slotByCustomerId.get(customerId);
+        if ((deletedAt != null && version < deletedAt)
+                || (current != LongIntHashMap.MISSING && version < versions[current])) {
+            return;
+        }
+        removeLocked(customerId);
+        if (slotCount == customerIds.length) {
+            int capacity = slotCount + (slotCount >> 1);
+            customerIds = Arrays.copyOf(customerIds, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        int slot = slotCount++;
+        customerIds[slot] = customerId;
+        versions[slot] = version;
+        texts[slot] = text;
+        slotByCustomerId.put(customerId, slot);
+        for (long gram : documentGrams(new String(text, StandardCharsets.UTF_8))) {
+            postings.computeIfAbsent(gram, g -> new IntPostings()).add(slot);
+        }
+    }
+
+    private void deleteLocked(long customerId, long version) {
+        removeLocked(customerId);
+        tombstones.merge(customerId, version, Math::max);
+    }
+
+    private void removeLocked(long customerId) {
+        int slot = slotByCustomerId.remove(customerId);
+        if (slot != LongIntHashMap.MISSING) {
+            texts[slot] = null;
+            deadCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (slotCount < MIN_COMPACT_SLOTS || deadCount * 4 < slotCount) {
+            return;
+        }
+        // Renumérotation dans l'ordre : les postings restent triés sans re-tri
+        int[] remap = new int[slotCount];
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (texts[slot] == null) {
+                remap[slot] = -1;
+            } else {
+                remap[slot] = live;
+                customerIds[live] = customerIds[slot];
+                versions[live] = versions[slot];
+                texts[live] = texts[slot];
+                slotByCustomerId.put(customerIds[live], live);
+                live++;
+            }
+        }
+        Arrays.fill(texts, live, slotCount, null);
+        postings.values().forEach(list -> list.remap(remap));
+        postings.values().removeIf(list -> list.size() == 0);
+        slotCount = live;
+        deadCount = 0;
+    }
+
+    // ==================== RECHERCHE ====================
+    // Résultats classés : distance d'édition totale croissante, puis trigrammes communs décroissants,
+    // puis texte le plus court (correspondance la plus spécifique), puis id
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int[] maxTypos = new int[tokens.size()];
+        Set<Long> queryGrams = new HashSet<>();
+        int typoBudget = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            maxTypos[i] = maxTypos(tokens.get(i));
+            typoBudget += maxTypos[i];
+            addGrams(tokens.get(i), queryGrams);
+        }
+        // Chaque faute détruit au plus 3 trigrammes de la requête
+        int minShared = Math.max(1, queryGrams.size() - 3 * typoBudget);
+
+        lock.readLock().lock();
+        try {
+            List<IntPostings> lists = new ArrayList<>(queryGrams.size());
+            for (long gram : queryGrams) {
+                lists.add(postings.getOrDefault(gram, new IntPostings()));
+            }
+            lists.sort(Comparator.comparingInt(IntPostings::size));
+            PriorityQueue<Ranked> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+
+            // 1. Préfixes exacts : intersection des listes en partant de la plus courte (cas le plus
+            //    fréquent). Les candidats sont vérifiés du texte le plus court au plus long : on s'arrête
+            //    dès que "limit" résultats sans faute sont trouvés, les suivants ne peuvent pas mieux se classer.
+            int[] exact = intersect(lists);
+            long[] byLength = new long[exact.length];
+            for (int i = 0; i < exact.length; i++) {
+                byLength[i] = ((long) texts[exact[i]].length << 32) | exact[i];
+            }
+            Arrays.sort(byLength);
+            int exactHits = 0;
+            int cutoffLength = Integer.MAX_VALUE;
+            for (long entry : byLength) {
+                int length = (int) (entry >>> 32);
+                if (length > cutoffLength) {
+                    break;
+                }
+                if (offer(best, limit, (int) entry, lists.size(), tokens, maxTypos) == 0 && ++exactHits == limit) {
+                    cutoffLength = length;
+                }
+            }
+            if (minShared == lists.size() || exactHits >= limit) {
+                return sorted(best);
+            }
+
+            // 2. Fautes de frappe. Principe des tiroirs : un document qui partage >= minShared trigrammes
+            //    parmi k figure forcément dans l'une des (k - minShared + 1) listes les plus courtes.
+            //    Les candidats sont pré-classés par trigrammes communs (comptés par curseurs),
+            //    seuls les meilleurs passent le calcul de distance d'édition.
+            int[] candidates = collectCandidates(lists, lists.size() - minShared + 1);
+            int verify = limit * VERIFY_FACTOR;
+            PriorityQueue<long[]> byShared = new PriorityQueue<>(verify + 1, Comparator.comparingLong(c -> c[0]));
+            int[] cursors = new int[lists.size()];
+            for (int slot : candidates) {
+                // Candidats triés : un curseur par liste, qui ne recule jamais
+                int shared = 0;
+                for (int j = 0; j < lists.size(); j++) {
+                    IntPostings list = lists.get(j);
+                    cursors[j] = list.advance(cursors[j], slot);
+                    if (cursors[j] < list.size() && list.get(cursors[j]) == slot) {
+                        shared++;
+                    }
+                }
+                if (texts[slot] == null || Arrays.binarySearch(exact, slot) >= 0) {
+                    continue;
+                }
+                if (shared >= minShared) {
+                    byShared.add(new long[]{shared, slot});
+                    if (byShared.size() > verify) {
+                        byShared.poll();
+                    }
+                }
+            }
+            for (long[] candidate : byShared) {
+                offer(best, limit, (int) candidate[1], (int) candidate[0], tokens, maxTypos);
+            }
+            return sorted(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Ranked(long customerId, int distance, int shared, int length) {
+    }
+
+    private static final Comparator<Ranked> RANKING = Comparator.comparingInt(Ranked::distance)
+            .thenComparing(Comparator.comparingInt(Ranked::shared).reversed())
+            .thenComparingInt(Ranked::length)
+            .thenComparingLong(Ranked::customerId);
+
+    // Retourne la distance du candidat, -1 s'il est rejeté
+    private int offer(PriorityQueue<Ranked> best, int limit, int slot, int shared,
+                      List<String> tokens, int[] maxTypos) {
+        byte[] text = texts[slot];
+        if (text == null) {
+            return -1;
+        }
+        int distance = distance(tokens, maxTypos, new String(text, StandardCharsets.UTF_8));
+        if (distance < 0) {
+            return -1;
+        }
+        best.add(new Ranked(customerIds[slot], distance, shared, text.length));
+        if (best.size() > limit) {
+            best.poll();
+        }
+        return distance;
+    }
+
+    private static List<Hit> sorted(PriorityQueue<Ranked> best) {
+        List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream().map(r -> new Hit(r.customerId(), r.distance())).toList();
+    }
+
+    // Slots présents dans toutes les listes (triées de la plus courte à la plus longue), bornés à MAX_CANDIDATES
+    private int[] intersect(List<IntPostings> lists) {
+        IntPostings shortest = lists.get(0);
+        int[] result = new int[Math.min(shortest.size(), MAX_CANDIDATES)];
+        int[] cursors = new int[lists.size()];
+        int n = 0;
+        for (int i = 0; i < shortest.size() && n < result.length; i++) {
+            int slot = shortest.get(i);
+            boolean everywhere = texts[slot] != null;
+            for (int j = 1; j < lists.size() && everywhere; j++) {
+                IntPostings list = lists.get(j);
+                cursors[j] = list.advance(cursors[j], slot);
+                everywhere = cursors[j] < list.size() && list.get(cursors[j]) == slot;
+            }
+            if (everywhere) {
+                result[n++] = slot;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    // Union triée et dédoublonnée des listes sondées, bornée à MAX_CANDIDATES
+    private int[] collectCandidates(List<IntPostings> lists, int probeLists) {
+        int total = 0;
+        for (int i = 0; i < probeLists; i++) {
+            total += lists.get(i).size();
+        }
+        int[] merged = new int[Math.min(total, MAX_CANDIDATES * probeLists)];
+        int n = 0;
+        for (int i = 0; i < probeLists; i++) {
+            IntPostings list = lists.get(i);
+            for (int j = 0; j < list.size() && j < MAX_CANDIDATES && n < merged.length; j++) {
+                merged[n++] = list.get(j);
+            }
+        }
+        Arrays.sort(merged, 0, n);
+        int unique = 0;
+        for (int i = 0; i < n && unique < MAX_CANDIDATES; i++) {
+            if (unique == 0 || merged[unique - 1] != merged[i]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, unique);
+    }
+
+    // Somme, pour chaque mot de la requête, de la meilleure distance vers un préfixe d'un mot du document
+    // -1 si un mot de la requête dépasse sa tolérance
+    private static int distance(List<String> queryTokens, int[] maxTypos, String text) {
+        String[] docTokens = text.split(" ");
+        int total = 0;
+        for (int i = 0; i < queryTokens.size(); i++) {
+            int bestDistance = Integer.MAX_VALUE;
+            for (String docToken : docTokens) {
+                bestDistance = Math.min(bestDistance, prefixDistance(queryTokens.get(i), docToken, maxTypos[i]));
+                if (bestDistance == 0) {
+                    break;
+                }
+            }
+            if (bestDistance > maxTypos[i]) {
+                return -1;
+            }
+            total += bestDistance;
+        }
+        return total;
+    }
+
+    // Distance de Levenshtein entre "query" et le meilleur préfixe de "word" (max + 1 si au-delà de max)
+    static int prefixDistance(String query, String word, int max) {
+        int n = query.length();
+        int m = Math.min(word.length(), n + max);
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = query.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = max + 1;
+        for (int j = 0; j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static int maxTypos(String token) {
+        return token.length() <= 4 ? 0 : token.length() <= 7 ? 1 : 2;
+    }
+
+    // ==================== NORMALISATION ====================
+    // Minuscules, sans accents, découpé sur tout ce qui n'est ni lettre ni chiffre
+    static List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized)).filter(t -> !t.isEmpty()).toList();
+    }
+
+    // Texte indexé : mots du prénom, du nom, de la partie locale de l'email et du nom de domaine
+    // (le TLD, présent partout, n'apporte rien au classement)
+    static byte[] packedText(String firstName, String lastName, String email) {
+        List<String> tokens = new ArrayList<>(tokenize(firstName));
+        tokens.addAll(tokenize(lastName));
+        if (email != null) {
+            int at = email.indexOf('@');
+            tokens.addAll(tokenize(at < 0 ? email : email.substring(0, at)));
+            if (at >= 0) {
+                String domain = email.substring(at + 1);
+                int dot = domain.lastIndexOf('.');
+                tokens.addAll(tokenize(dot < 0 ? domain : domain.substring(0, dot)));
+            }
+        }
+        return String.join(" ", tokens).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Set<Long> documentGrams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (String token : text.split(" ")) {
+            if (!token.isEmpty()) {
+                addGrams(token, grams);
+            }
+        }
+        return grams;
+    }
+
+    private static void addGrams(String token, Set<Long> grams) {
+        String padded = "" + PAD + PAD + token;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.senyitte.customerservice.search;
+
+import com.senyitte.customerservice.dtos.CustomerChangeFeedResponse;
+import com.senyitte.customerservice.dtos.CustomerChangeResponse;
+import com.senyitte.customerservice.models.Customer;
+import com.senyitte.customerservice.models.CustomerChangeType;
+import com.senyitte.customerservice.repository.CustomerRepository;
+import com.senyitte.customerservice.services.CustomerChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Alimente CustomerSearchIndex :
+// - au démarrage, chargement par pages (keyset sur l'id) : l'index est interrogeable pendant
+//   le chargement et se complète page après page, sans tout charger en mémoire d'un coup
+// - ensuite, rejeu du flux de changements (outbox) : les écritures faites par les autres instances
+//   de customer-service arrivent aussi dans l'index de celle-ci
+// Les écritures locales sont appliquées dès le commit par CustomerServiceImpl (lecture de ses propres écritures)
+@Component
+public class CustomerSearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSearchIndexer.class);
+
+    private final CustomerSearchIndex searchIndex;
+    private final CustomerRepository customerRepository;
+    private final CustomerChangeFeedService changeFeedService;
+    private final int batchSize;
+    private final AtomicBoolean ready = new AtomicBoolean(false);
+    private long lastOffset;
+
+    public CustomerSearchIndexer(CustomerSearchIndex searchIndex,
+                                 CustomerRepository customerRepository,
+                                 CustomerChangeFeedService changeFeedService,
+                                 @Value("${customer.search.batch-size:5000}") int batchSize) {
+        this.searchIndex = searchIndex;
+        this.customerRepository = customerRepository;
+        this.changeFeedService = changeFeedService;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isReady() {
+        return ready.get();
+    }
+
+    // Même méthode planifiée pour le chargement initial et le rattrapage : jamais exécutés en parallèle
+    @Scheduled(fixedDelayString = "${customer.search.poll-interval:1s}")
+    public void refresh() {
+        try {
+            if (!ready.get()) {
+                rebuild();
+            }
+            catchUp();
+        } catch (RuntimeException e) {
+            log.warn("Customer search index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        searchIndex.clear();
+        // Tête lue avant le chargement : les changements concurrents seront rejoués (idempotent)
+        lastOffset = changeFeedService.getHeadOffset();
+        long after = 0L;
+        while (true) {
+            List<Customer> page = customerRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(batchSize));
+            searchIndex.applyAll(page.stream()
+                    .map(c -> new CustomerSearchIndex.Change(c.getId(), c.getVersion(), false,
+                            c.getFirstName(), c.getLastName(), c.getEmail()))
+                    .toList());
+            if (page.size() < batchSize) {
+                break;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+        ready.set(true);
+        log.info("Customer search index built: {} customers in {} ms",
+                searchIndex.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void catchUp() {
+        while (true) {
+            CustomerChangeFeedResponse feed = changeFeedService.getChanges(lastOffset, batchSize);
+            if (feed.isResetRequired()) {
+                ready.set(false);
+                rebuild();
+                continue;
+            }
+            List<CustomerChangeResponse> events = feed.getEvents();
+            if (events.isEmpty()) {
+                return;
+            }
+            searchIndex.applyAll(events.stream()
+                    .map(e -> new CustomerSearchIndex.Change(e.getCustomerId(), version(e),
+                            e.getType() == CustomerChangeType.DELETED, e.getFirstName(), e.getLastName(), e.getEmail()))
+                    .toList());
+            lastOffset = feed.getNextOffset();
+        }
+    }
+
+    // Les offsets suivent l'ordre des ids d'événements, pas celui des versions : l'index compare les versions.
+    // Suppression sans version (événement antérieur) : définitive, aucun changement ne la remplace
+    private static long version(CustomerChangeResponse event) {
+        if (event.getVersion() != null) {
+            return event.getVersion();
+        }
+        return event.getType() == CustomerChangeType.DELETED ? Long.MAX_VALUE : 0L;
+    }
+}
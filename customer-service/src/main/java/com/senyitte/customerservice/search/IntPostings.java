@@ -0,0 +1,59 @@
+package com.senyitte.customerservice.search;
+
+import java.util.Arrays;
+
+// Liste de postings : numéros de slot triés par ordre croissant dans un int[] extensible
+// (4 octets par occurrence, parcours par recherche exponentielle pour les intersections)
+final class IntPostings {
+
+    private int[] slots = new int[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return slots[index];
+    }
+
+    // Les slots sont attribués de façon croissante : l'ajout en fin garde la liste triée
+    void add(int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+        }
+        slots[size++] = slot;
+    }
+
+    // Premier index >= from dont le slot est >= target (size si aucun)
+    // Recherche exponentielle depuis "from" puis dichotomique : les curseurs avancent toujours,
+    // une intersection coûte O(n log(m/n)) et lit la mémoire quasi séquentiellement
+    int advance(int from, int target) {
+        if (from >= size || slots[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        int high = from + 1;
+        while (high < size && slots[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        int index = Arrays.binarySearch(slots, low + 1, Math.min(high, size), target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Compactage : renumérote les slots vivants (remap[slot] = nouveau slot, -1 si supprimé)
+    void remap(int[] remap) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int target = remap[slots[i]];
+            if (target >= 0) {
+                slots[kept++] = target;
+            }
+        }
+        size = kept;
+        slots = Arrays.copyOf(slots, Math.max(kept, 1));
+    }
+}
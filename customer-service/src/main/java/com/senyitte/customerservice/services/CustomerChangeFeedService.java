@@ -0,0 +1,13 @@
+package com.senyitte.customerservice.services;
+
+import com.senyitte.customerservice.dtos.CustomerChangeFeedResponse;
+
+import java.time.Instant;
+
+public interface CustomerChangeFeedService {
+    // Attribue un offset aux événements commités en attente, retourne le nombre publié
+    int publishPending(int batchSize);
+    CustomerChangeFeedResponse getChanges(Long after, int limit);
+    Long getHeadOffset();
+    int purgePublishedBefore(Instant before);
+}
@@ -0,0 +1,97 @@
+package com.senyitte.customerservice.services;
+
+import com.senyitte.customerservice.dtos.CustomerChangeFeedResponse;
+import com.senyitte.customerservice.dtos.CustomerChangeResponse;
+import com.senyitte.customerservice.mappers.CustomerChangeMapper;
+import com.senyitte.customerservice.models.CustomerChangeEvent;
+import com.senyitte.customerservice.repository.CustomerChangeEventRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Timed("customer.service")
+@Service
+public class CustomerChangeFeedServiceImpl implements CustomerChangeFeedService {
+
+    private static final int MAX_FEED_LIMIT = 1000;
+
+    private final CustomerChangeEventRepository changeEventRepository;
+    private final CustomerChangeMapper changeMapper;
+
+    public CustomerChangeFeedServiceImpl(CustomerChangeEventRepository changeEventRepository,
+                                         CustomerChangeMapper changeMapper) {
+        this.changeEventRepository = changeEventRepository;
+        this.changeMapper = changeMapper;
+    }
+
+    // ==================== PUBLIER ====================
+    @Override
+    @Transactional
+    public int publishPending(int batchSize) {
+        // Seuls les événements déjà commités sont visibles ici : un offset n'est donc jamais attribué
+        // à un changement annulé, et les offsets publiés sont denses (max + 1, max + 2, ...)
+        // Si deux instances publient en même temps, la contrainte unique sur feedOffset fait échouer
+        // l'une des deux transactions, qui retentera au prochain passage
+        List<CustomerChangeEvent> pending = changeEventRepository.findByFeedOffsetIsNullOrderByIdAsc(
+                Limit.of(Math.max(batchSize, 1)));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Long head = changeEventRepository.findMaxFeedOffset();
+        long next = head == null ? 1L : head + 1;
+        for (CustomerChangeEvent event : pending) {
+            event.setFeedOffset(next++);
+        }
+        return pending.size();
+    }
+
+    // ==================== LIRE LE FLUX ====================
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerChangeFeedResponse getChanges(Long after, int limit) {
+        long from = after == null ? 0L : after;
+        Long head = changeEventRepository.findMaxFeedOffset();
+        Long oldest = changeEventRepository.findMinFeedOffset();
+        // Les événements entre "after" et le plus ancien encore conservé ont été purgés :
+        // un rattrapage incrémental perdrait des changements
+        if (oldest != null && from + 1 < oldest) {
+            return CustomerChangeFeedResponse.builder()
+                    .events(List.of())
+                    .nextOffset(from)
+                    .headOffset(head == null ? 0L : head)
+                    .resetRequired(true)
+                    .build();
+        }
+        List<CustomerChangeResponse> events = changeEventRepository
+                .findByFeedOffsetGreaterThanOrderByFeedOffsetAsc(from,
+                        Limit.of(Math.min(Math.max(limit, 1), MAX_FEED_LIMIT)))
+                .stream()
+                .map(changeMapper::toDto)
+                .toList();
+        long nextOffset = events.isEmpty() ? from : events.get(events.size() - 1).getOffset();
+        return CustomerChangeFeedResponse.builder()
+                .events(events)
+                .nextOffset(nextOffset)
+                .headOffset(head == null ? 0L : head)
+                .resetRequired(false)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getHeadOffset() {
+        Long head = changeEventRepository.findMaxFeedOffset();
+        return head == null ? 0L : head;
+    }
+
+    // ==================== RÉTENTION ====================
+    @Override
+    @Transactional
+    public int purgePublishedBefore(Instant before) {
+        return changeEventRepository.deletePublishedBefore(before);
+    }
+}
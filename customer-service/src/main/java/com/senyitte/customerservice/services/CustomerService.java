@@ -1,16 +1,31 @@
 package com.senyitte.customerservice.services;
 
 import com.senyitte.customerservice.dtos.CustomerRequest;
+import com.senyitte.customerservice.dtos.CursorPage;
 import com.senyitte.customerservice.dtos.CustomerResponse;
+import com.senyitte.customerservice.dtos.ResourceVersion;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
     CustomerResponse createCustomer(CustomerRequest dto);
     CustomerResponse updateCustomer(Long id, CustomerRequest dto);
     CustomerResponse getCustomer(Long id);
+    // ETag / Last-Modified d'un client, sans charger ni convertir l'entité
+    ResourceVersion getCustomerVersion(Long id);
+    CustomerResponse getCustomerByEmail(String email);
+    // Recherche par préfixe, tolérante aux fautes, sur prénom / nom / email (résultats classés)
+    List<CustomerResponse> searchCustomers(String query, int limit);
     List<CustomerResponse> getAllCustomers();
+    // Page de clients après le curseur "after" (id exclus), triés par id
+    CursorPage<CustomerResponse> getCustomersPage(Long after, int size);
+    // Parcourt tous les clients sans les garder en mémoire, chaque DTO est passé au consumer
+    void streamAllCustomers(Consumer<CustomerResponse> consumer);
+    // Récupérer plusieurs clients en une seule requête (utilisé par account-services)
+    List<CustomerResponse> getCustomersByIds(Collection<Long> ids);
     void deleteCustomer(Long id);
 
 }
@@ -1,44 +1,93 @@
 package com.senyitte.customerservice.services;
 
+import com.senyitte.customerservice.dtos.CursorPage;
 import com.senyitte.customerservice.dtos.CustomerRequest;
 import com.senyitte.customerservice.dtos.CustomerResponse;
+import com.senyitte.customerservice.dtos.ResourceVersion;
+import com.senyitte.customerservice.mappers.CustomerChangeMapper;
 import com.senyitte.customerservice.mappers.CustomerMapper;
 import com.senyitte.customerservice.models.Customer;
+import com.senyitte.customerservice.models.CustomerChangeEvent;
+import com.senyitte.customerservice.models.CustomerChangeType;
+import com.senyitte.customerservice.repository.CustomerChangeEventRepository;
 import com.senyitte.customerservice.repository.CustomerRepository;
+import com.senyitte.customerservice.repository.CustomerVersionView;
+import com.senyitte.customerservice.search.CustomerSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 // @Service indique à Spring que cette classe est un bean de type "service"
 // Spring la détecte automatiquement et l'injecte là où on en a besoin
+// @Timed : chaque méthode publique est chronométrée (métrique "customer.service", tags class/method)
+@Timed("customer.service")
 @Service
 public class CustomerServiceImpl implements CustomerService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     // "final" = ces dépendances ne peuvent pas changer après la construction
     // C'est une bonne pratique pour l'injection par constructeur
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final EntityManager entityManager;
+    private final CustomerChangeEventRepository changeEventRepository;
+    private final CustomerChangeMapper changeMapper;
+    private final CustomerSearchIndex searchIndex;
 
     // Injection par constructeur : Spring injecte automatiquement les beans
     // Pas besoin de @Autowired quand il n'y a qu'un seul constructeur
-    public CustomerServiceImpl(CustomerRepository customerRepository, CustomerMapper customerMapper) {
+    public CustomerServiceImpl(CustomerRepository customerRepository,
+                               CustomerMapper customerMapper,
+                               EntityManager entityManager,
+                               CustomerChangeEventRepository changeEventRepository,
+                               CustomerChangeMapper changeMapper,
+                               CustomerSearchIndex searchIndex) {
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
+        this.entityManager = entityManager;
+        this.changeEventRepository = changeEventRepository;
+        this.changeMapper = changeMapper;
+        this.searchIndex = searchIndex;
     }
 
     // ==================== CRÉER ====================
+    // @Transactional : le client et son événement d'outbox sont commités ensemble (ou pas du tout)
     @Override
+    @Transactional
     public CustomerResponse createCustomer(CustomerRequest dto) {
         // 1. Convertir le DTO reçu en entité JPA
         Customer customer = customerMapper.toEntity(dto);
         // 2. Sauvegarder en BDD (JPA génère l'id et les dates automatiquement)
         Customer savedCustomer = customerRepository.save(customer);
+        changeEventRepository.save(changeMapper.toEvent(savedCustomer, CustomerChangeType.CREATED));
+        indexAfterCommit(savedCustomer);
         // 3. Reconvertir l'entité sauvegardée en DTO pour la réponse
         return customerMapper.toDto(savedCustomer);
     }
 
     // ==================== MODIFIER ====================
     @Override
+    @Transactional
     public CustomerResponse updateCustomer(Long id, CustomerRequest dto) {
         // 1. Chercher le customer existant, sinon lever une exception
         Customer customer = customerRepository.findById(id)
@@ -52,22 +101,69 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setEmail(dto.getEmail());
 
         // 3. Sauvegarder les modifications
-        Customer updatedCustomer = customerRepository.save(customer);
+        //    saveAndFlush : la version et updatedAt sont mis à jour tout de suite (réponse, ETag et outbox à jour)
+        Customer updatedCustomer = customerRepository.saveAndFlush(customer);
+        changeEventRepository.save(changeMapper.toEvent(updatedCustomer, CustomerChangeType.UPDATED));
+        indexAfterCommit(updatedCustomer);
 
         // 4. Retourner le DTO mis à jour
         return customerMapper.toDto(updatedCustomer);
     }
 
     // ==================== LIRE UN SEUL ====================
+    // readOnly : servi par un réplica quand le routage lecture / écriture est actif
     @Override
+    @Transactional(readOnly = true)
     public CustomerResponse getCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         return customerMapper.toDto(customer);
     }
 
+    // ==================== VERSION (GET CONDITIONNEL) ====================
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getCustomerVersion(Long id) {
+        CustomerVersionView view = customerRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        return ResourceVersion.builder()
+                .etag(CustomerMapper.etag(view.getId(), view.getVersion()))
+                .lastModified(view.getUpdatedAt())
+                .build();
+    }
+
+    // ==================== LIRE PAR EMAIL ====================
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerResponse getCustomerByEmail(String email) {
+        Customer customer = customerRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        return customerMapper.toDto(customer);
+    }
+
+    // ==================== RECHERCHER ====================
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerResponse> searchCustomers(String query, int limit) {
+        // 1. Classement en mémoire (aucune requête SQL)
+        List<CustomerSearchIndex.Hit> hits = searchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        // 2. Données à jour (cache de second niveau, puis un seul "IN" pour le reste), puis on remet l'ordre du classement
+        Map<Long, Customer> byId = loadByIds(hits.stream().map(CustomerSearchIndex.Hit::customerId).toList())
+                .stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        return hits.stream()
+                .map(hit -> byId.get(hit.customerId()))
+                .filter(Objects::nonNull)
+                .map(customerMapper::toDto)
+                .toList();
+    }
+
     // ==================== LIRE TOUS ====================
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerResponse> getAllCustomers() {
         // stream() + map() : transforme chaque Customer en CustomerResponse
         // customerMapper::toDto est une "method reference" (raccourci pour c -> customerMapper.toDto(c))
@@ -77,15 +173,101 @@ public class CustomerServiceImpl implements CustomerService {
                 .toList();
     }
 
+    // ==================== LIRE PAR PAGE (CURSEUR) ====================
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerResponse> getCustomersPage(Long after, int size) {
+        // Keyset : "WHERE id > after ORDER BY id LIMIT size", pas d'OFFSET qui relit les pages précédentes
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Customer> customers = customerRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, Limit.of(pageSize));
+        Long nextCursor = customers.size() == pageSize ? customers.get(customers.size() - 1).getId() : null;
+        return CursorPage.<CustomerResponse>builder()
+                .items(customers.stream().map(customerMapper::toDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // ==================== LIRE EN FLUX ====================
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllCustomers(Consumer<CustomerResponse> consumer) {
+        // Le Stream doit être consommé dans la transaction (curseur JDBC ouvert)
+        // On vide régulièrement le contexte de persistance pour garder une mémoire constante
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            int count = 0;
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(customerMapper.toDto(iterator.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    // ==================== LIRE PAR LOT ====================
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerResponse> getCustomersByIds(Collection<Long> ids) {
+        // Une seule requête "WHERE id IN (...)" au lieu de N findById, limitée aux ids absents du cache
+        // Les ids inconnus sont simplement absents du résultat
+        return loadByIds(List.copyOf(new LinkedHashSet<>(ids)))
+                .stream()
+                .map(customerMapper::toDto)
+                .toList();
+    }
+
+    // multiLoad consulte le cache de second niveau id par id, contrairement à findAllById (requête JPQL)
+    // Le cache n'est lu que si un CacheMode est précisé : sans with(CacheMode.NORMAL), tous les ids vont en base
+    // Appelé dans une transaction : la Session n'est accessible que par l'EntityManager transactionnel
+    private List<Customer> loadByIds(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Customer.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     // ==================== SUPPRIMER ====================
     // ⚠️ CORRECTION : "void" minuscule au lieu de "Void" (la classe wrapper)
     @Override
+    @Transactional
     public void deleteCustomer(Long id) {
         // ⚠️ CORRECTION : vérifier que le customer existe avant de supprimer
         // sinon deleteById échoue silencieusement si l'id n'existe pas
-        if (!customerRepository.existsById(id)) {
-            throw new RuntimeException("Customer not found");
+        // (chargé : sa version donne celle de la suppression dans le flux)
+        Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        customerRepository.delete(customer);
+        CustomerChangeEvent deleted = changeEventRepository.save(changeMapper.toDeletedEvent(customer));
+        long deletedVersion = deleted.getCustomerVersion();
+        afterCommit(() -> searchIndex.remove(id, deletedVersion));
+    }
+
+    // L'index de recherche n'est modifié qu'après commit : un rollback ne laisse rien dans l'index
+    private void indexAfterCommit(Customer customer) {
+        long id = customer.getId();
+        String firstName = customer.getFirstName();
+        String lastName = customer.getLastName();
+        String email = customer.getEmail();
+        long version = customer.getVersion();
+        afterCommit(() -> searchIndex.upsert(id, version, firstName, lastName, email));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
-        customerRepository.deleteById(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.senyitte.customerservice.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Draine l'outbox : attribue leurs offsets aux événements commités, puis purge les plus anciens
+@Component
+public class OutboxPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPoller.class);
+
+    private final CustomerChangeFeedService changeFeedService;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxPoller(CustomerChangeFeedService changeFeedService,
+                        @Value("${customer.outbox.batch-size:500}") int batchSize,
+                        @Value("${customer.outbox.retention:7d}") Duration retention) {
+        this.changeFeedService = changeFeedService;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${customer.outbox.poll-interval:500ms}")
+    public void publish() {
+        try {
+            // Vider le retard par lots : on s'arrête dès qu'un lot n'est pas plein
+            int published;
+            do {
+                published = changeFeedService.publishPending(batchSize);
+            } while (published == batchSize);
+        } catch (DataAccessException e) {
+            // Conflit d'offset avec une autre instance ou BDD indisponible : on retentera au prochain passage
+            log.warn("Customer outbox publication failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${customer.outbox.purge-interval:1h}")
+    public void purge() {
+        int purged = changeFeedService.purgePublishedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} published customer change events", purged);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.senyitte.customerservice.timing;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.server.ServerHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Durées par phase de la requête HTTP en cours, renvoyées dans l'en-tête Server-Timing :
+//   Server-Timing: app;dur=8.4, db-pool;dur=0.1, db;dur=5.2, serialize;dur=0.6
+// Mesure dans le thread de la requête uniquement (installée par ServerTimingFilter) : ailleurs
+// (outbox, indexation, exports asynchrones) start() ne fait rien. Temps exclusifs : une phase
+// ouverte pendant une autre est retirée de la phase englobante.
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        // Attente d'une connexion du pool (avec datasource.routing la connexion n'est prise
+        // qu'au premier ordre SQL : l'attente est alors comptée dans db)
+        DB_POOL("db-pool"),
+        // Préparation et exécution des requêtes SQL
+        DB("db"),
+        // Sérialisation Jackson (JSON / CBOR) du corps de la réponse
+        SERIALIZE("serialize");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    // Fin d'une phase : à fermer dans le thread qui l'a ouverte
+    public interface Lap extends AutoCloseable {
+        Lap NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    // Écrit le corps de la réponse dans le flux fourni
+    @FunctionalInterface
+    public interface BodyWriter {
+        void write(HttpOutputMessage output) throws IOException;
+    }
+
+    // Corps plus grands : pas de tampon (voir serialize)
+    static final int MAX_BUFFERED_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startedAt;
+    private final long[] nanos = new long[PHASES.length];
+    private Phase running;
+    private long runningSince;
+
+    ServerTiming(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static Lap start(Phase phase) {
+        ServerTiming timing = CURRENT.get();
+        return timing == null ? Lap.NONE : timing.open(phase);
+    }
+
+    // Sérialisation dans un tampon : sa durée est connue avant l'envoi des en-têtes, qui portent
+    // alors toutes les phases. Hors réponse serveur (ex. corps d'une requête sortante) : écriture directe.
+    // Au-delà de MAX_BUFFERED_BYTES (listes, exports) : en-têtes envoyés sans serialize, puis écriture
+    // directe, pour ne pas garder tout le corps en mémoire ni retarder le premier octet.
+    public static void serialize(HttpOutputMessage output, BodyWriter writer) throws IOException {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null || !(output instanceof ServerHttpResponse)) {
+            writer.write(output);
+            return;
+        }
+        BufferedBody body = new BufferedBody(output, timing);
+        try (Lap lap = timing.open(Phase.SERIALIZE)) {
+            writer.write(new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return output.getHeaders();
+                }
+            });
+        }
+        body.complete();
+    }
+
+    // Tampon de la réponse, remplacé par le flux de sortie dès que MAX_BUFFERED_BYTES est dépassé
+    private static final class BufferedBody extends OutputStream {
+
+        private final HttpOutputMessage output;
+        private final ServerTiming timing;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        private OutputStream direct;
+
+        BufferedBody(HttpOutputMessage output, ServerTiming timing) {
+            this.output = output;
+            this.timing = timing;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target(1).write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            target(length).write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (direct != null) {
+                direct.flush();
+            }
+        }
+
+        private OutputStream target(int length) throws IOException {
+            if (direct == null && buffer.size() + length > MAX_BUFFERED_BYTES) {
+                // Sérialisation en cours : sa durée n'est pas encore connue
+                output.getHeaders().set(HEADER, timing.header(Phase.SERIALIZE));
+                direct = output.getBody();
+                buffer.writeTo(direct);
+                buffer = null;
+            }
+            return direct != null ? direct : buffer;
+        }
+
+        void complete() throws IOException {
+            if (direct != null) {
+                return;
+            }
+            output.getHeaders().setContentLength(buffer.size());
+            output.getHeaders().set(HEADER, timing.header());
+            buffer.writeTo(output.getBody());
+        }
+    }
+
+    Lap open(Phase phase) {
+        long now = System.nanoTime();
+        Phase outer = running;
+        if (outer != null) {
+            nanos[outer.ordinal()] += now - runningSince;
+        }
+        running = phase;
+        runningSince = now;
+        return () -> close(phase, outer);
+    }
+
+    private void close(Phase phase, Phase outer) {
+        if (running != phase) {
+            return;
+        }
+        long now = System.nanoTime();
+        nanos[phase.ordinal()] += now - runningSince;
+        running = outer;
+        runningSince = now;
+    }
+
+    // Durée cumulée d'une phase, en nanosecondes (phase en cours comprise)
+    long nanos(Phase phase, long now) {
+        return nanos[phase.ordinal()] + (phase == running ? now - runningSince : 0);
+    }
+
+    long elapsed(long now) {
+        return now - startedAt;
+    }
+
+    // app = durée totale jusqu'ici ; les phases jamais ouvertes sont omises
+    String header() {
+        return header(null);
+    }
+
+    // Sans la phase "omitted" (encore en cours au moment d'envoyer les en-têtes)
+    String header(Phase omitted) {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder("app;dur=").append(millis(elapsed(now)));
+        for (Phase phase : PHASES) {
+            long phaseNanos = nanos(phase, now);
+            if (phaseNanos > 0 && phase != omitted) {
+                header.append(", ").append(phase.metricName).append(";dur=").append(millis(phaseNanos));
+            }
+        }
+        return header.toString();
+    }
+
+    // Millisecondes au dixième, sans passer par String.format
+    static String millis(long nanos) {
+        long tenths = Math.round(nanos / 100_000.0);
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+}
@@ -0,0 +1,62 @@
+package com.senyitte.customerservice.timing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Mesure les phases de chaque requête (voir ServerTiming) :
+// - en-tête Server-Timing : écrit par les convertisseurs Jackson après la sérialisation,
+//   ou ici pour les réponses sans corps sérialisé (204, 304...) tant que rien n'est envoyé
+// - les mêmes durées sont ajoutées au span de la requête (timing.db, timing.serialize...)
+// Juste après le filtre d'observation HTTP : le span de la requête est le span courant.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final ObservationRegistry observationRegistry;
+
+    public ServerTimingFilter(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!response.isCommitted() && !response.containsHeader(ServerTiming.HEADER)) {
+                response.setHeader(ServerTiming.HEADER, timing.header());
+            }
+            tagObservation(timing);
+            ServerTiming.end();
+        }
+    }
+
+    // Attributs à forte cardinalité : portés par le span uniquement, pas par les métriques
+    private void tagObservation(ServerTiming timing) {
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation == null || observation.isNoop()) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (ServerTiming.Phase phase : ServerTiming.Phase.values()) {
+            long nanos = timing.nanos(phase, now);
+            if (nanos > 0) {
+                observation.highCardinalityKeyValue("timing." + phase.metricName(), ServerTiming.millis(nanos));
+            }
+        }
+    }
+}
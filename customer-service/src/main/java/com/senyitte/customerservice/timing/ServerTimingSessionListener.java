@@ -0,0 +1,51 @@
+package com.senyitte.customerservice.timing;
+
+import org.hibernate.SessionEventListener;
+
+// Temps JDBC de la requête HTTP en cours : attente d'une connexion (db-pool), préparation et exécution
+// des requêtes SQL (db). Une instance par session Hibernate (hibernate.session.events.auto), donc par thread.
+public class ServerTimingSessionListener implements SessionEventListener {
+
+    private ServerTiming.Lap connection = ServerTiming.Lap.NONE;
+    private ServerTiming.Lap statement = ServerTiming.Lap.NONE;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        connection = ServerTiming.start(ServerTiming.Phase.DB_POOL);
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        connection.close();
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        statement = ServerTiming.start(ServerTiming.Phase.DB);
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        statement.close();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statement = ServerTiming.start(ServerTiming.Phase.DB);
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statement.close();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statement = ServerTiming.start(ServerTiming.Phase.DB);
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statement.close();
+    }
+}
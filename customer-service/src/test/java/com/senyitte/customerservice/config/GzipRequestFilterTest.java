@@ -0,0 +1,56 @@
+package com.senyitte.customerservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipRequestFilterTest {
+
+    private final GzipRequestFilter filter = new GzipRequestFilter();
+
+    private static byte[] gzip(String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void decompressesGzipBodyAndHidesEncodingHeaders() throws Exception {
+        byte[] compressed = gzip("[1,2,3]");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customers/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.addHeader(HttpHeaders.CONTENT_LENGTH, compressed.length);
+        request.setContent(compressed);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("[1,2,3]");
+        assertThat(forwarded.getInputStream().isFinished()).isTrue();
+        assertThat(forwarded.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(forwarded.getContentLengthLong()).isEqualTo(-1);
+    }
+
+    @Test
+    void leavesUncompressedRequestsUntouched() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customers/batch");
+        request.setContent("[1]".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+}
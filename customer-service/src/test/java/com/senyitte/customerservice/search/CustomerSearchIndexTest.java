@@ -0,0 +1,115 @@
+package com.senyitte.customerservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerSearchIndexTest {
+
+    private static List<Long> ids(List<CustomerSearchIndex.Hit> hits) {
+        return hits.stream().map(CustomerSearchIndex.Hit::customerId).toList();
+    }
+
+    @Test
+    void findsByPrefixOnAnyFieldIgnoringCaseAndAccents() {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        index.upsert(1L, 0L, "Mamadou", "Diallo", "mamadou@email.com");
+        index.upsert(2L, 0L, "Aïssatou", "Bah", "aissatou.bah@email.com");
+        index.upsert(3L, 0L, "Moussa", "Diop", "moussa@email.com");
+
+        assertThat(ids(index.search("d", 10))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids(index.search("dia", 10))).containsExactly(1L);
+        assertThat(ids(index.search("AISSA", 10))).containsExactly(2L);
+        assertThat(ids(index.search("aissatou.bah", 10))).containsExactly(2L);
+        assertThat(ids(index.search("moussa dio", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void toleratesTyposAndRanksExactMatchesFirst() {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        index.upsert(1L, 0L, "Mamadou", "Diallo", "m.diallo@email.com");
+        index.upsert(2L, 0L, "Mamadu", "Sow", "msow@email.com");
+
+        // "mamadu" : exact pour 2, une faute pour 1
+        assertThat(ids(index.search("mamadu", 10))).containsExactly(2L, 1L);
+        // Transposition dans un mot long
+        assertThat(ids(index.search("dialol", 10))).containsExactly(1L);
+        // Trop de fautes pour un mot court : aucun résultat
+        assertThat(index.search("xow", 10)).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        index.upsert(1L, 0L, "Fatou", "Ndiaye", "fatou@email.com");
+        index.upsert(1L, 1L, "Fatou", "Sarr", "fatou@email.com");
+
+        assertThat(index.search("ndiaye", 10)).isEmpty();
+        assertThat(ids(index.search("sarr", 10))).containsExactly(1L);
+
+        index.remove(1L, 2L);
+        assertThat(index.search("fatou", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void ignoresChangesOlderThanTheIndexedVersion() {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        // Flux dans l'ordre des ids d'événements : la version 2 peut arriver avant la version 1
+        index.applyAll(List.of(
+                new CustomerSearchIndex.Change(1L, 2L, false, "Fatou", "Sarr", "fatou@email.com"),
+                new CustomerSearchIndex.Change(1L, 1L, false, "Fatou", "Ndiaye", "fatou@email.com"),
+                new CustomerSearchIndex.Change(2L, 3L, true, null, null, null),
+                new CustomerSearchIndex.Change(2L, 2L, false, "Awa", "Diop", "awa@email.com")));
+
+        assertThat(index.search("ndiaye", 10)).isEmpty();
+        assertThat(ids(index.search("sarr", 10))).containsExactly(1L);
+        // Supprimé en version 3 : la modification de version 2 rejouée après ne le recrée pas
+        assertThat(index.search("awa", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void compactionKeepsResultsConsistent() {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        for (long id = 1; id <= 5000; id++) {
+            index.upsert(id, 0L, "Client" + id, "Nom" + (id % 7), "client" + id + "@email.com");
+        }
+        // Plus d'un quart de slots morts : déclenche le compactage
+        for (long id = 1; id <= 4000; id++) {
+            if (id % 2 == 0) {
+                index.remove(id, 1L);
+            } else {
+                index.upsert(id, 1L, "Renamed" + id, "Nom" + (id % 7), "client" + id + "@email.com");
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(3000);
+        assertThat(ids(index.search("renamed3999", 10))).first().isEqualTo(3999L);
+        assertThat(index.search("client2", 10)).extracting(CustomerSearchIndex.Hit::customerId)
+                .allMatch(id -> id > 4000 || id % 2 == 1)
+                .isNotEmpty();
+        assertThat(ids(index.search("client4500", 10))).first().isEqualTo(4500L);
+    }
+
+    @Test
+    void limitsResults() {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.upsert(id, 0L, "Awa", "Diop", "awa" + id + "@email.com");
+        }
+
+        assertThat(index.search("awa", 5)).hasSize(5);
+        assertThat(index.search("", 5)).isEmpty();
+    }
+
+    @Test
+    void prefixDistanceComparesAgainstBestPrefix() {
+        assertThat(CustomerSearchIndex.prefixDistance("diallo", "diallo", 2)).isZero();
+        assertThat(CustomerSearchIndex.prefixDistance("dial", "diallo", 2)).isZero();
+        assertThat(CustomerSearchIndex.prefixDistance("dailo", "diallo", 2)).isEqualTo(2);
+        assertThat(CustomerSearchIndex.prefixDistance("xyz", "diallo", 1)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,152 @@
+package com.senyitte.customerservice.services;
+
+import com.senyitte.customerservice.dtos.CustomerChangeFeedResponse;
+import com.senyitte.customerservice.dtos.CustomerChangeResponse;
+import com.senyitte.customerservice.dtos.CustomerRequest;
+import com.senyitte.customerservice.mappers.CustomerChangeMapper;
+import com.senyitte.customerservice.mappers.CustomerMapper;
+import com.senyitte.customerservice.models.CustomerChangeEvent;
+import com.senyitte.customerservice.models.CustomerChangeType;
+import com.senyitte.customerservice.repository.CustomerChangeEventRepository;
+import com.senyitte.customerservice.repository.CustomerRepository;
+import com.senyitte.customerservice.search.CustomerSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Outbox écrite par CustomerServiceImpl, offsets attribués par publishPending, lecture du flux par getChanges
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-changes;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CustomerServiceImpl.class, CustomerChangeFeedServiceImpl.class, CustomerMapper.class,
+        CustomerChangeMapper.class, CustomerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerChangeFeedTest {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerChangeFeedService changeFeedService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CustomerChangeEventRepository changeEventRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        changeEventRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    private Long create(String firstName) {
+        return customerService.createCustomer(request(firstName)).getId();
+    }
+
+    private static CustomerRequest request(String firstName) {
+        CustomerRequest request = new CustomerRequest();
+        request.setFirstName(firstName);
+        request.setLastName("Flux");
+        request.setEmail(firstName.toLowerCase() + "." + System.nanoTime() + "@email.com");
+        return request;
+    }
+
+    @Test
+    void everyChangeIsRecordedWithTheCustomerVersionAndPublishedInOrder() {
+        Long id = create("Awa");
+        customerService.updateCustomer(id, request("Awa2"));
+        customerService.deleteCustomer(id);
+
+        // Pas encore publiés : invisibles dans le flux
+        assertThat(changeEventRepository.findAll()).allSatisfy(event -> assertThat(event.getFeedOffset()).isNull());
+        assertThat(changeFeedService.getChanges(0L, 10).getEvents()).isEmpty();
+
+        assertThat(changeFeedService.publishPending(2)).isEqualTo(2);
+        assertThat(changeFeedService.publishPending(2)).isEqualTo(1);
+        assertThat(changeFeedService.publishPending(2)).isZero();
+
+        CustomerChangeFeedResponse feed = changeFeedService.getChanges(0L, 10);
+        assertThat(feed.getEvents()).extracting(CustomerChangeResponse::getOffset).containsExactly(1L, 2L, 3L);
+        assertThat(feed.getEvents()).extracting(CustomerChangeResponse::getType)
+                .containsExactly(CustomerChangeType.CREATED, CustomerChangeType.UPDATED, CustomerChangeType.DELETED);
+        // Suppression : dernière version + 1, jamais dépassée par un changement antérieur
+        assertThat(feed.getEvents()).extracting(CustomerChangeResponse::getVersion).containsExactly(0L, 1L, 2L);
+        assertThat(feed.getNextOffset()).isEqualTo(3L);
+        assertThat(feed.getHeadOffset()).isEqualTo(3L);
+        assertThat(feed.isResetRequired()).isFalse();
+    }
+
+    @Test
+    void rolledBackChangeLeavesNoEvent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            create("Annule");
+            status.setRollbackOnly();
+        });
+
+        assertThat(changeEventRepository.count()).isZero();
+        assertThat(changeFeedService.publishPending(10)).isZero();
+    }
+
+    @Test
+    void offsetsContinueAfterTheHeadAndPagesResumeFromNextOffset() {
+        create("A");
+        create("B");
+        changeFeedService.publishPending(10);
+        create("C");
+        changeFeedService.publishPending(10);
+
+        CustomerChangeFeedResponse first = changeFeedService.getChanges(0L, 2);
+        CustomerChangeFeedResponse rest = changeFeedService.getChanges(first.getNextOffset(), 2);
+
+        assertThat(first.getEvents()).extracting(CustomerChangeResponse::getOffset).containsExactly(1L, 2L);
+        assertThat(rest.getEvents()).extracting(CustomerChangeResponse::getOffset).containsExactly(3L);
+        assertThat(changeFeedService.getChanges(3L, 2).getEvents()).isEmpty();
+        assertThat(changeFeedService.getChanges(3L, 2).getNextOffset()).isEqualTo(3L);
+    }
+
+    @Test
+    void readingBehindPurgedEventsRequiresAReset() {
+        create("A");
+        create("B");
+        create("C");
+        changeFeedService.publishPending(10);
+        transactionTemplate.executeWithoutResult(status -> entityManager.createQuery(
+                        "update CustomerChangeEvent e set e.createdAt = :old")
+                .setParameter("old", Instant.now().minus(30, ChronoUnit.DAYS))
+                .executeUpdate());
+
+        // Le dernier événement publié est toujours conservé (tête du flux)
+        assertThat(changeFeedService.purgePublishedBefore(Instant.now())).isEqualTo(2);
+
+        CustomerChangeFeedResponse behind = changeFeedService.getChanges(0L, 10);
+        assertThat(behind.isResetRequired()).isTrue();
+        assertThat(behind.getEvents()).isEmpty();
+        assertThat(behind.getHeadOffset()).isEqualTo(3L);
+        // Juste avant le plus ancien conservé : rien n'a été perdu
+        CustomerChangeFeedResponse upToDate = changeFeedService.getChanges(2L, 10);
+        assertThat(upToDate.isResetRequired()).isFalse();
+        assertThat(upToDate.getEvents()).extracting(CustomerChangeResponse::getOffset).containsExactly(3L);
+        assertThat(changeEventRepository.findAll()).extracting(CustomerChangeEvent::getFeedOffset).containsExactly(3L);
+    }
+}
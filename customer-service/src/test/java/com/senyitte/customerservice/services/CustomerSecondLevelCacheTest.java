@@ -0,0 +1,95 @@
+package com.senyitte.customerservice.services;
+
+import com.senyitte.customerservice.config.EntityCacheConfig;
+import com.senyitte.customerservice.config.EntityCacheProperties;
+import com.senyitte.customerservice.config.SqlStatementCounter;
+import com.senyitte.customerservice.dtos.CustomerResponse;
+import com.senyitte.customerservice.mappers.CustomerChangeMapper;
+import com.senyitte.customerservice.mappers.CustomerMapper;
+import com.senyitte.customerservice.models.Customer;
+import com.senyitte.customerservice.repository.CustomerRepository;
+import com.senyitte.customerservice.search.CustomerSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lectures répétées hors transaction : seules les lectures absentes du cache de second niveau vont en base
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-cache;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.senyitte.customerservice.config.SqlStatementCounter"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({EntityCacheConfig.class, EntityCacheProperties.class, CustomerServiceImpl.class,
+        CustomerMapper.class, CustomerChangeMapper.class, CustomerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerSecondLevelCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+        ids.clear();
+        for (int i = 0; i < 3; i++) {
+            ids.add(customerRepository.save(Customer.builder()
+                    .firstName("Client" + i)
+                    .lastName("Cache")
+                    .email("client" + i + "." + System.nanoTime() + "@email.com")
+                    .build()).getId());
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private int statements(Runnable action) {
+        SqlStatementCounter.reset();
+        action.run();
+        return SqlStatementCounter.current();
+    }
+
+    @Test
+    void repeatedGetCustomerIsServedFromCache() {
+        assertThat(statements(() -> customerService.getCustomer(ids.get(0)))).isEqualTo(1);
+        assertThat(statements(() -> customerService.getCustomer(ids.get(0)))).isZero();
+    }
+
+    @Test
+    void batchLoadsOnlyMissingIds() {
+        customerService.getCustomer(ids.get(0));
+
+        // Un seul "IN" pour les deux ids absents du cache, puis plus aucun SQL
+        assertThat(statements(() -> customerService.getCustomersByIds(ids))).isEqualTo(1);
+        assertThat(statements(() -> assertThat(customerService.getCustomersByIds(ids))
+                .extracting(CustomerResponse::getId).containsExactlyElementsOf(ids))).isZero();
+    }
+
+    @Test
+    void unknownIdsAreSkipped() {
+        assertThat(customerService.getCustomersByIds(List.of(ids.get(1), -1L)))
+                .extracting(CustomerResponse::getId).containsExactly(ids.get(1));
+    }
+}
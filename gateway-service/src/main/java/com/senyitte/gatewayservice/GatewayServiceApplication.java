@@ -1,9 +1,13 @@
 package com.senyitte.gatewayservice;
 
+import com.senyitte.loadbalancer.PeakEwmaLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 
 @SpringBootApplication
+// Routes lb:// : choix entre deux instances selon latence et requêtes en cours
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
 public class GatewayServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.senyitte.gatewayservice.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+
+// Réponse amont complète, gardée en mémoire (cache de réponses, coalescence des GET)
+// Le corps est copié hors des DataBuffer Netty : aucune mémoire directe n'est retenue
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAtNanos, Duration ttl) {
+
+    public boolean isFresh(long nowNanos) {
+        return nowNanos - storedAtNanos < ttl.toNanos();
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return Duration.ofNanos(nowNanos - storedAtNanos).toSeconds();
+    }
+
+    // Poids approximatif pour l'éviction par taille (corps + en-têtes)
+    public int weight() {
+        int headerBytes = 0;
+        for (var entry : headers.headerSet()) {
+            headerBytes += entry.getKey().length();
+            for (String value : entry.getValue()) {
+                headerBytes += value.length();
+            }
+        }
+        return body.length + headerBytes;
+    }
+}
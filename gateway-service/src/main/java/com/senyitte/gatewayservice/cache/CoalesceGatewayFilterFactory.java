@@ -0,0 +1,203 @@
+package com.senyitte.gatewayservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Filtre de route "Coalesce" (single-flight) : des GET identiques simultanés ne font qu'un appel amont
+//
+//   filters:
+//     - name: Coalesce
+//       args:
+//         paths: /api/accounts/customer/{customerId:\d+}
+//
+// - le premier GET (leader) part vers l'amont ; sa réponse est transmise à son client au fil de l'eau
+//   et copiée en mémoire (au plus max-body-size)
+// - les GET identiques qui arrivent pendant ce temps (followers) attendent cette réponse, sans thread
+//   bloqué, puis la reçoivent telle quelle (statut, en-têtes rejouables, corps), avec X-Cache: COALESCED
+// - si la réponse du leader n'est pas mémorisable (trop grosse, en flux, client déconnecté, erreur),
+//   chaque follower fait son propre appel amont
+// - au-delà de max-in-flight clés en vol sur la route, un nouveau GET passe sans coalescence
+//   (mémoire et followers en attente bornés, même sous une rafale de clés toutes différentes)
+// "Identique" = même route, même chemin, même query string et mêmes valeurs des en-têtes listés.
+@Component
+public class CoalesceGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+
+    static final String COALESCED = "COALESCED";
+
+    private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+    private final Counter bypassed;
+
+    public CoalesceGatewayFilterFactory(MeterRegistry registry) {
+        super(Config.class);
+        // Débit amont = leaders + fallbacks ; followers = appels amont évités
+        this.leaders = Counter.builder("gateway.coalescing.requests").tag("role", "leader").register(registry);
+        this.followers = Counter.builder("gateway.coalescing.requests").tag("role", "follower").register(registry);
+        this.fallbacks = Counter.builder("gateway.coalescing.requests").tag("role", "fallback").register(registry);
+        this.bypassed = Counter.builder("gateway.coalescing.requests").tag("role", "bypass").register(registry);
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, ConcurrentMap::size).register(registry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        int maxBytes = (int) config.getMaxBodySize().toBytes();
+        // Clés en vol de cette route (leaders), bornées à max-in-flight
+        AtomicInteger routeInFlight = new AtomicInteger();
+        // Après le cache de réponses (un HIT ne coalesce rien), avant NettyWriteResponseFilter
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod())
+                    || patterns.stream().noneMatch(p -> p.matches(PathContainer.parsePath(request.getPath().pathWithinApplication().value())))) {
+                return chain.filter(exchange);
+            }
+            String key = key(exchange, config.getHeaders());
+            Sinks.One<CachedResponse> existing = inFlight.get(key);
+            if (existing != null) {
+                return follow(exchange, chain, existing);
+            }
+            if (routeInFlight.incrementAndGet() > config.getMaxInFlight()) {
+                routeInFlight.decrementAndGet();
+                bypassed.increment();
+                return chain.filter(exchange);
+            }
+            Sinks.One<CachedResponse> sink = Sinks.one();
+            existing = inFlight.putIfAbsent(key, sink);
+            if (existing != null) {
+                routeInFlight.decrementAndGet();
+                return follow(exchange, chain, existing);
+            }
+            return lead(exchange, chain, key, sink, maxBytes, routeInFlight);
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                            Sinks.One<CachedResponse> sink, int maxBytes, AtomicInteger routeInFlight) {
+        leaders.increment();
+        ServerWebExchange capturing = exchange.mutate()
+                .response(ResponseCapture.capturing(exchange, maxBytes, captured -> {
+                    // Clé retirée avant l'émission : un GET arrivé après la réponse repart vers l'amont
+                    release(key, sink, routeInFlight);
+                    sink.tryEmitValue(new CachedResponse(captured.status(),
+                            ResponseCapture.replayableHeaders(captured.headers()), captured.body(),
+                            System.nanoTime(), Duration.ZERO));
+                }))
+                .build();
+        return chain.filter(capturing).doFinally(signal -> {
+            release(key, sink, routeInFlight);
+            // Sans effet si la réponse a déjà été émise ; sinon libère les followers (fallback)
+            sink.tryEmitEmpty();
+        });
+    }
+
+    // Une seule fois par clé : la réponse capturée et la fin du leader peuvent toutes deux la retirer
+    private void release(String key, Sinks.One<CachedResponse> sink, AtomicInteger routeInFlight) {
+        if (inFlight.remove(key, sink)) {
+            routeInFlight.decrementAndGet();
+        }
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Sinks.One<CachedResponse> leader) {
+        followers.increment();
+        return leader.asMono()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(response -> {
+                    if (response.isPresent()) {
+                        return ResponseCapture.write(exchange, response.get(), headers -> headers.set(ResponseCacheGatewayFilterFactory.CACHE_STATUS, COALESCED));
+                    }
+                    fallbacks.increment();
+                    return chain.filter(exchange);
+                });
+    }
+
+    private static String key(ServerWebExchange exchange, List<String> headers) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        StringBuilder key = new StringBuilder(route == null ? "" : route.getId())
+                .append(' ').append(request.getPath().pathWithinApplication().value());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : headers) {
+            List<String> values = request.getHeaders().get(header);
+            if (values != null) {
+                key.append('\n').append(header).append(':').append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    public static class Config {
+        // Motifs des GET à coalescer (opt-in par route)
+        private List<String> paths = List.of();
+        // En-têtes qui font varier la réponse : deux requêtes ne sont partagées que s'ils sont identiques
+        private List<String> headers = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.AUTHORIZATION,
+                HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+        // Taille max d'une réponse partagée (mémoire bornée par clé en vol)
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+        // Clés en vol au plus sur la route ; au-delà, appel amont direct
+        private int maxInFlight = 1000;
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(List<String> headers) {
+            this.headers = headers;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
+}
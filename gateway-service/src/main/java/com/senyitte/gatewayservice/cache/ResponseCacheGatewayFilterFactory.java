@@ -0,0 +1,254 @@
+package com.senyitte.gatewayservice.cache;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Filtre de route "ResponseCache" : met en cache les GET des ressources unitaires
+//
+//   filters:
+//     - name: ResponseCache
+//       args:
+//         ttl: 30s
+//         paths: /api/customers/{id:\d+}
+//         invalidate-route-on: /api/accounts/transfers
+//
+// - HIT : réponse servie depuis la mémoire (ou 304 si If-None-Match / If-Modified-Since correspondent)
+// - MISS : la réponse amont est transmise au fil de l'eau et copiée, puis stockée si elle est cacheable
+//   (200, pas de Cache-Control no-store / no-cache / private ; TTL = min(ttl de la route, max-age))
+// - POST / PUT / PATCH / DELETE sur une ressource (ou une sous-ressource, ex. /api/accounts/5/credit)
+//   invalide l'entrée avant et après l'écriture ; les écritures sans chemin de ressource identifiable
+//   (ex. virement) invalident toute la route
+// Rien n'est bloquant : cache en mémoire et opérateurs Reactor uniquement.
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final Set<HttpMethod> WRITES = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+    // HIT | MISS, ou COALESCED (réponse partagée par CoalesceGatewayFilterFactory)
+    static final String CACHE_STATUS = "X-Cache";
+
+    private final ResponseCacheStore store;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store) {
+        super(Config.class);
+        this.store = store;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> cacheable = parse(config.getPaths());
+        List<PathPattern> invalidateRoute = parse(config.getInvalidateRouteOn());
+        // Ordre < NettyWriteResponseFilter : la réponse décorée est bien celle sur laquelle Netty écrit
+        // Avant la coalescence : un HIT ne crée jamais d'appel amont partagé
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getPath().pathWithinApplication().value();
+            HttpMethod method = request.getMethod();
+            if (HttpMethod.GET.equals(method) && matches(cacheable, path) && isCacheableRequest(request)) {
+                return cachedGet(exchange, chain, config, path);
+            }
+            if (WRITES.contains(method)) {
+                return invalidating(exchange, chain, cacheable, invalidateRoute, path);
+            }
+            return chain.filter(exchange);
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+    }
+
+    private Mono<Void> cachedGet(ServerWebExchange exchange, GatewayFilterChain chain, Config config, String path) {
+        String routeId = routeId(exchange);
+        String variant = variant(exchange.getRequest());
+        boolean bypassRead = requestForbidsCachedRead(exchange.getRequest());
+        CachedResponse cached = bypassRead ? null : store.get(routeId, path, variant);
+        if (cached != null) {
+            return serveHit(exchange, cached);
+        }
+        // Requête conditionnelle non servie par le cache : l'amont répondra lui-même (304 probable), on ne stocke pas
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        if (!requestHeaders.getIfNoneMatch().isEmpty() || requestHeaders.getIfModifiedSince() >= 0) {
+            return chain.filter(exchange);
+        }
+        ResponseCacheStore.Generation generation = store.generation(routeId, path);
+        boolean mayStore = !hasDirective(requestHeaders.getCacheControl(), "no-store");
+        exchange.getResponse().getHeaders().set(CACHE_STATUS, "MISS");
+        ServerWebExchange capturing = exchange.mutate()
+                .response(ResponseCapture.capturing(exchange, store.maximumEntrySize(), captured -> {
+                    Duration ttl = storableTtl(captured, config.getTtl());
+                    if (mayStore && ttl != null) {
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.putAll(captured.headers());
+                        headers.remove(CACHE_STATUS);
+                        store.put(routeId, path, variant, new CachedResponse(captured.status(),
+                                ResponseCapture.replayableHeaders(headers), captured.body(), System.nanoTime(), ttl),
+                                generation);
+                    }
+                }))
+                .build();
+        return chain.filter(capturing);
+    }
+
+    private Mono<Void> serveHit(ServerWebExchange exchange, CachedResponse cached) {
+        HttpHeaders headers = cached.headers();
+        // Positionne 304 + ETag / Last-Modified si les validateurs du client sont à jour
+        boolean notModified = headers.getLastModified() < 0
+                ? headers.getETag() != null && exchange.checkNotModified(headers.getETag())
+                : exchange.checkNotModified(headers.getETag(), Instant.ofEpochMilli(headers.getLastModified()));
+        if (notModified) {
+            exchange.getResponse().getHeaders().set(CACHE_STATUS, "HIT");
+            return exchange.getResponse().setComplete();
+        }
+        long now = System.nanoTime();
+        return ResponseCapture.write(exchange, cached, out -> {
+            out.set(CACHE_STATUS, "HIT");
+            out.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        });
+    }
+
+    private Mono<Void> invalidating(ServerWebExchange exchange, GatewayFilterChain chain,
+                                    List<PathPattern> cacheable, List<PathPattern> invalidateRoute, String path) {
+        String routeId = routeId(exchange);
+        Runnable invalidate = () -> {
+            if (matches(invalidateRoute, path)) {
+                store.invalidateRoute(routeId);
+                return;
+            }
+            // La ressource elle-même et ses ancêtres : /api/accounts/5/credit invalide /api/accounts/5
+            for (String candidate = path; candidate.lastIndexOf('/') > 0; candidate = candidate.substring(0, candidate.lastIndexOf('/'))) {
+                if (matches(cacheable, candidate)) {
+                    store.invalidate(candidate);
+                }
+            }
+        };
+        // Avant : plus aucun HIT pendant l'écriture ; après : écarte un GET concurrent qui aurait
+        // recopié l'état antérieur pendant l'écriture
+        invalidate.run();
+        return chain.filter(exchange).doFinally(signal -> invalidate.run());
+    }
+
+    // TTL de stockage, null si la réponse n'est pas cacheable
+    private static Duration storableTtl(ResponseCapture.CapturedResponse response, Duration routeTtl) {
+        if (response.status() == null || response.status().value() != HttpStatus.OK.value()) {
+            return null;
+        }
+        String cacheControl = response.headers().getCacheControl();
+        if (hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "no-cache")
+                || hasDirective(cacheControl, "private")) {
+            return null;
+        }
+        Duration ttl = routeTtl;
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl.toLowerCase(Locale.ROOT));
+            if (matcher.find()) {
+                Duration maxAge = Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+                ttl = maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+            }
+        }
+        return ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    // Cache-Control: no-cache / no-store / max-age=0 côté client = lecture fraîche obligatoire
+    private static boolean requestForbidsCachedRead(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return hasDirective(cacheControl, "no-cache") || hasDirective(cacheControl, "no-store")
+                || hasDirective(cacheControl, "max-age=0")
+                || "no-cache".equalsIgnoreCase(request.getHeaders().getPragma());
+    }
+
+    // Requêtes authentifiées ou paramétrées : jamais partagées via le cache
+    private static boolean isCacheableRequest(ServerHttpRequest request) {
+        return request.getQueryParams().isEmpty() && !request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains(directive);
+    }
+
+    // Une variante par format demandé (JSON, CBOR...) et par encodage accepté : une réponse gzip
+    // n'est jamais rejouée à un client qui ne l'a pas demandée (même règle que la clé de coalescence)
+    private static String variant(ServerHttpRequest request) {
+        return normalized(request.getHeaders().get(HttpHeaders.ACCEPT), "*/*")
+                + '\n' + normalized(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING), "identity");
+    }
+
+    private static String normalized(List<String> values, String absent) {
+        if (values == null || values.isEmpty()) {
+            return absent;
+        }
+        return String.join(",", values).replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null ? "" : route.getId();
+    }
+
+    private static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    private static boolean matches(List<PathPattern> patterns, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        return patterns.stream().anyMatch(pattern -> pattern.matches(container));
+    }
+
+    public static class Config {
+        // Durée de vie maximale d'une réponse (réduite par un max-age plus court de l'amont)
+        private Duration ttl = Duration.ofSeconds(30);
+        // Motifs des ressources cacheables, ex. /api/customers/{id:\d+}
+        private List<String> paths = List.of();
+        // Écritures qui invalident toute la route (ressources touchées non déductibles du chemin)
+        private List<String> invalidateRouteOn = List.of();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public List<String> getInvalidateRouteOn() {
+            return invalidateRouteOn;
+        }
+
+        public void setInvalidateRouteOn(List<String> invalidateRouteOn) {
+            this.invalidateRouteOn = invalidateRouteOn;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.senyitte.gatewayservice.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// Limites globales du cache de réponses (le TTL est réglé par route, voir ResponseCacheGatewayFilterFactory)
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    // Taille totale des réponses gardées (corps + en-têtes), éviction LRU/LFU (W-TinyLFU) au-delà
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+    // Une réponse plus grosse n'est jamais mise en cache
+    private DataSize maximumEntrySize = DataSize.ofKilobytes(256);
+
+    public DataSize getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(DataSize maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public DataSize getMaximumEntrySize() {
+        return maximumEntrySize;
+    }
+
+    public void setMaximumEntrySize(DataSize maximumEntrySize) {
+        this.maximumEntrySize = maximumEntrySize;
+    }
+}
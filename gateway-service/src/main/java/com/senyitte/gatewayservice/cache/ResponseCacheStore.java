@@ -0,0 +1,164 @@
+package com.senyitte.gatewayservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Stockage des réponses GET en mémoire, borné en octets
+// Une entrée par chemin de ressource, avec une variante par valeur d'Accept / Accept-Encoding : une écriture sur
+// le chemin invalide toutes les variantes d'un coup. Toutes les opérations sont en mémoire et
+// non bloquantes (appelables depuis l'event loop Netty).
+@Component
+public class ResponseCacheStore implements MeterBinder {
+
+    // Variantes d'une même ressource (clé = Accept et Accept-Encoding normalisés), immuable : remplacée en bloc
+    // generation = génération de la route au moment de l'écriture (invalidation globale en O(1))
+    record CachedResource(long generation, Map<String, CachedResponse> variants) {
+        int weight() {
+            return variants.values().stream().mapToInt(CachedResponse::weight).sum();
+        }
+
+        long maxTtlNanos() {
+            return variants.values().stream().mapToLong(v -> v.ttl().toNanos()).max().orElse(0);
+        }
+    }
+
+    // Générations à la lecture amont (route, chemin) : put() est refusé si l'une a changé depuis
+    public record Generation(long route, long path) {
+    }
+
+    // Générations par chemin réparties sur un tableau fixe (mémoire bornée quel que soit le nombre de chemins) :
+    // deux chemins de la même case partagent leur génération, une écriture sur l'un fait au pire rater un put() de l'autre
+    private static final int PATH_STRIPES = 4096;
+
+    private final Cache<String, CachedResource> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLongArray pathGenerations = new AtomicLongArray(PATH_STRIPES);
+    private final int maximumEntrySize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResponseCacheStore(ResponseCacheProperties properties) {
+        this.maximumEntrySize = (int) properties.getMaximumEntrySize().toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String path, CachedResource resource) -> resource.weight())
+                // Expiration par entrée : le TTL dépend de la route et du Cache-Control de la réponse
+                .expireAfter(new Expiry<String, CachedResource>() {
+                    @Override
+                    public long expireAfterCreate(String path, CachedResource resource, long currentTime) {
+                        return resource.maxTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String path, CachedResource resource, long currentTime,
+                                                  long currentDuration) {
+                        return resource.maxTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String path, CachedResource resource, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public int maximumEntrySize() {
+        return maximumEntrySize;
+    }
+
+    // Générations courantes de la route et du chemin : à lire AVANT l'appel amont et à repasser à put()
+    public Generation generation(String routeId, String path) {
+        return new Generation(routeGeneration(routeId), pathGenerations.get(stripe(path)));
+    }
+
+    private long routeGeneration(String routeId) {
+        return generations.computeIfAbsent(routeId, id -> new AtomicLong()).get();
+    }
+
+    private static int stripe(String path) {
+        int hash = path.hashCode();
+        return (hash ^ (hash >>> 16)) & (PATH_STRIPES - 1);
+    }
+
+    // null si absente, expirée (chaque variante garde son propre TTL) ou invalidée avec sa route
+    public CachedResponse get(String routeId, String path, String variant) {
+        CachedResource resource = cache.getIfPresent(path);
+        CachedResponse response = resource == null || resource.generation() != routeGeneration(routeId)
+                ? null : resource.variants().get(variant);
+        if (response == null || !response.isFresh(System.nanoTime())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return response;
+    }
+
+    // Ignoré si la route ou le chemin a été invalidé pendant l'appel amont (la réponse est peut-être
+    // antérieure à l'écriture). Le chemin est revérifié sous le verrou de l'entrée, que invalidate() prend aussi
+    public void put(String routeId, String path, String variant, CachedResponse response, Generation generation) {
+        cache.asMap().compute(path, (key, existing) -> {
+            if (generation.route() != routeGeneration(routeId) || generation.path() != pathGenerations.get(stripe(path))) {
+                return existing;
+            }
+            Map<String, CachedResponse> variants = existing == null || existing.generation() != generation.route()
+                    ? new HashMap<>() : new HashMap<>(existing.variants());
+            variants.put(variant, response);
+            return new CachedResource(generation.route(), Map.copyOf(variants));
+        });
+    }
+
+    // Génération avancée avant la suppression : un put() en cours la voit, ou son entrée est supprimée ensuite
+    public void invalidate(String path) {
+        invalidations.increment();
+        pathGenerations.incrementAndGet(stripe(path));
+        cache.invalidate(path);
+    }
+
+    // Toutes les entrées de la route deviennent obsolètes (relues comme absentes, évincées ensuite)
+    public void invalidateRoute(String routeId) {
+        invalidations.increment();
+        generations.computeIfAbsent(routeId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    // gateway.response.cache.requests{result=hit|miss}, taux de succès, invalidations, plus les métriques
+    // Caffeine (taille, évictions) sous cache.*{cache=gateway-responses}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "gateway-responses");
+        Gauge.builder("gateway.response.cache.hit.ratio", this, ResponseCacheStore::hitRatio)
+                .description("Part des GET cacheables servis depuis le cache de la gateway")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.invalidations", invalidations, LongAdder::sum)
+                .register(registry);
+    }
+}
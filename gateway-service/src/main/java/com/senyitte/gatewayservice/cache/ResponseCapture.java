@@ -0,0 +1,112 @@
+package com.senyitte.gatewayservice.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Outils communs au cache de réponses et à la coalescence :
+// - capture du corps d'une réponse amont au fil de l'eau, sans la retarder ni bloquer l'event loop
+//   (copie bornée : au-delà de maxBytes la capture est abandonnée, la réponse passe quand même)
+// - réécriture d'une réponse mémorisée vers le client
+public final class ResponseCapture {
+
+    // En-têtes propres à une connexion ou recalculés par le serveur : jamais rejoués
+    // (Server-Timing : durées de l'appel amont d'origine, pas de celui servi depuis la mémoire)
+    private static final List<String> HOP_BY_HOP = List.of(
+            HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH,
+            "Keep-Alive", HttpHeaders.UPGRADE, HttpHeaders.SET_COOKIE, "Server-Timing");
+
+    private ResponseCapture() {
+    }
+
+    // Décore la réponse : chaque DataBuffer est transmis tel quel au client et copié en parallèle
+    // onCaptured reçoit la réponse complète quand le corps a été entièrement écrit (et tient dans maxBytes)
+    public static ServerHttpResponse capturing(ServerWebExchange exchange, int maxBytes,
+                                               Consumer<CapturedResponse> onCaptured) {
+        ServerHttpResponse original = exchange.getResponse();
+        return new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                Capture capture = new Capture(maxBytes);
+                Flux<DataBuffer> teed = Flux.<DataBuffer>from(body)
+                        .doOnNext(capture::append)
+                        .doOnComplete(() -> {
+                            byte[] bytes = capture.bytes();
+                            if (bytes != null) {
+                                onCaptured.accept(new CapturedResponse(getStatusCode(), getHeaders(), bytes));
+                            }
+                        });
+                return super.writeWith(teed);
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                // Réponse en flux (NDJSON...) : jamais mémorisée
+                return super.writeAndFlushWith(body);
+            }
+        };
+    }
+
+    public record CapturedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    // Copie des en-têtes rejouables (sans les en-têtes de connexion)
+    public static HttpHeaders replayableHeaders(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (HOP_BY_HOP.stream().noneMatch(name::equalsIgnoreCase)) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    // Écrit une réponse mémorisée (un seul DataBuffer enveloppant le tableau, sans copie)
+    public static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, Consumer<HttpHeaders> extraHeaders) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        extraHeaders.accept(response.getHeaders());
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static final class Capture {
+        private final int maxBytes;
+        private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Capture(int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        void append(DataBuffer buffer) {
+            if (out == null) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (out.size() + length > maxBytes) {
+                out = null;
+                return;
+            }
+            // Lecture sans déplacer la position : le buffer part ensuite intact vers le client
+            byte[] chunk = new byte[length];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+            out.writeBytes(chunk);
+        }
+
+        byte[] bytes() {
+            return out == null ? null : out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.senyitte.gatewayservice.overview;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Compte tel que renvoyé par account-services avec includeCustomer=false (sans customer embarqué)
+// type reste une chaîne : la gateway ne dépend pas de l'enum AccountType
+public record AccountSummary(Long id, String accountNumber, String type, BigDecimal balance,
+                             Instant createdAt, Instant updatedAt, Long version) {
+}
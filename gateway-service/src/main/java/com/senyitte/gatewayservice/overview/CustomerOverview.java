@@ -0,0 +1,26 @@
+package com.senyitte.gatewayservice.overview;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET /api/customers/{id}/overview : customer, ses comptes et les soldes totalisés par type
+public record CustomerOverview(CustomerSummary customer, List<AccountSummary> accounts,
+                               Map<String, BigDecimal> totalsByType, BigDecimal totalBalance) {
+
+    // Types toujours présents dans totalsByType, même sans compte (0)
+    private static final List<String> ACCOUNT_TYPES = List.of("CURRENT", "SAVINGS");
+
+    public static CustomerOverview of(CustomerSummary customer, List<AccountSummary> accounts) {
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        ACCOUNT_TYPES.forEach(type -> totals.put(type, BigDecimal.ZERO));
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountSummary account : accounts) {
+            BigDecimal balance = account.balance() == null ? BigDecimal.ZERO : account.balance();
+            totals.merge(account.type(), balance, BigDecimal::add);
+            total = total.add(balance);
+        }
+        return new CustomerOverview(customer, accounts, totals, total);
+    }
+}
@@ -0,0 +1,23 @@
+package com.senyitte.gatewayservice.overview;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Servi par la gateway elle-même : les contrôleurs WebFlux passent avant les routes (/api/customers/**)
+@RestController
+public class CustomerOverviewController {
+
+    private final CustomerOverviewService overviewService;
+
+    public CustomerOverviewController(CustomerOverviewService overviewService) {
+        this.overviewService = overviewService;
+    }
+
+    // GET /api/customers/{id}/overview : un seul aller-retour pour l'application mobile
+    @GetMapping("/api/customers/{id}/overview")
+    public Mono<CustomerOverview> getOverview(@PathVariable Long id) {
+        return overviewService.getOverview(id);
+    }
+}
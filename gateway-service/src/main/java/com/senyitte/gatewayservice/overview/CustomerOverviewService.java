@@ -0,0 +1,61 @@
+package com.senyitte.gatewayservice.overview;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+// Compose l'overview d'un customer : customer-service et account-services appelés en parallèle
+// (load balancer P2C comme les routes lb://), fusion et totaux sans jamais bloquer l'event loop.
+// Les comptes sont demandés sans customer embarqué : account-services ne refait pas l'appel Feign.
+@Service
+public class CustomerOverviewService {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    @Autowired
+    public CustomerOverviewService(WebClient.Builder webClientBuilder,
+                                   ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                                   @Value("${gateway.overview.timeout:3s}") Duration timeout) {
+        this(webClientBuilder.filter(loadBalancer).build(), timeout);
+    }
+
+    CustomerOverviewService(WebClient webClient, Duration timeout) {
+        this.webClient = webClient;
+        this.timeout = timeout;
+    }
+
+    public Mono<CustomerOverview> getOverview(Long customerId) {
+        Mono<CustomerSummary> customer = webClient.get()
+                .uri("http://CUSTOMER-SERVICE/api/customers/{id}", customerId)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(CustomerSummary.class)
+                .onErrorMap(WebClientResponseException.NotFound.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
+        Mono<List<AccountSummary>> accounts = webClient.get()
+                .uri("http://ACCOUNT-SERVICES/api/accounts/customer/{id}?includeCustomer=false", customerId)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(AccountSummary.class)
+                .collectList();
+        // zip souscrit aux deux appels en même temps : latence = max(customer, comptes)
+        return Mono.zip(customer, accounts, CustomerOverview::of)
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Overview timed out"))
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Overview unavailable", e));
+    }
+}
@@ -0,0 +1,5 @@
+package com.senyitte.gatewayservice.overview;
+
+// Customer tel que renvoyé par customer-service (champs utiles à l'overview)
+public record CustomerSummary(Long id, String firstName, String lastName, String email, Long version) {
+}
@@ -0,0 +1,85 @@
+package com.senyitte.gatewayservice.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Filtre de route "Bulkhead" : borne le nombre de requêtes simultanées vers un service
+//
+//   filters:
+//     - name: Bulkhead
+//       args:
+//         name: customer-service
+//         max-concurrent-calls: 200
+//
+// Au-delà : 503 immédiat avec Retry-After, sans file d'attente ni thread bloqué.
+// Un service lent ne peut donc pas accaparer toutes les connexions de la gateway.
+// Même politique que le bulkhead de account-services (Resilience4j, sémaphore, attente nulle).
+@Component
+public class BulkheadGatewayFilterFactory extends AbstractGatewayFilterFactory<BulkheadGatewayFilterFactory.Config> {
+
+    private final MeterRegistry registry;
+
+    public BulkheadGatewayFilterFactory(MeterRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name", "maxConcurrentCalls");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Bulkhead bulkhead = Bulkhead.of(config.getName(), BulkheadConfig.custom()
+                .maxConcurrentCalls(config.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        Counter rejected = Counter.builder("gateway.bulkhead.rejected")
+                .tag("name", config.getName()).register(registry);
+        Gauge.builder("gateway.bulkhead.available", bulkhead, b -> b.getMetrics().getAvailableConcurrentCalls())
+                .tag("name", config.getName()).register(registry);
+        return (exchange, chain) -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                rejected.increment();
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return exchange.getResponse().setComplete();
+            }
+            // Permis rendu en fin d'échange, y compris sur erreur ou annulation par le client
+            return chain.filter(exchange).doFinally(signal -> bulkhead.onComplete());
+        };
+    }
+
+    public static class Config {
+        private String name = "default";
+        private int maxConcurrentCalls = 100;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.senyitte.gatewayservice.resilience;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Cible des filtres CircuitBreaker (fallbackUri: forward:/fallback/{service}) :
+// circuit ouvert, timeout ou 5xx amont → 503 explicite plutôt qu'une erreur de la gateway
+@RestController
+public class FallbackController {
+
+    @RequestMapping("/fallback/{service}")
+    public Mono<ResponseEntity<Map<String, String>>> fallback(@PathVariable String service) {
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", "Service temporarily unavailable", "service", service)));
+    }
+}
@@ -0,0 +1,104 @@
+package com.senyitte.gatewayservice.timing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// En-tête Server-Timing de bout en bout : le temps de la gateway, puis celui du service appelé
+//
+//   Server-Timing: gateway;dur=1.3, upstream;dur=44.0, network;dur=2.2,
+//                  account-service.app;dur=41.8, account-service.db;dur=12.4, account-service.customer;dur=20.3
+//
+// - gateway  : filtres, routage, load balancer (total - upstream)
+// - upstream : appel amont jusqu'aux en-têtes de réponse (UpstreamTimingGlobalFilter)
+// - network  : upstream - app du service (connexion, transport, file d'attente Tomcat)
+// - <route>.* : phases renvoyées par le service, préfixées par l'id de route
+// Le détail de chaque phase (et des appels account -> customer) est dans la trace correspondante.
+@Component
+@ConditionalOnProperty(name = "gateway.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingGlobalFilter implements GlobalFilter, Ordered {
+
+    static final String HEADER = "Server-Timing";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        exchange.getResponse().beforeCommit(() -> Mono.fromRunnable(() -> {
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            Long upstream = exchange.getAttribute(UpstreamTimingGlobalFilter.UPSTREAM_NANOS_ATTR);
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String merged = merge(System.nanoTime() - start, upstream,
+                    route != null ? route.getId() : null, headers.get(HEADER));
+            headers.set(HEADER, merged);
+        }));
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    // downstream : valeurs Server-Timing reçues du service (null si aucune)
+    static String merge(long totalNanos, Long upstreamNanos, String routeId, List<String> downstream) {
+        StringBuilder header = new StringBuilder("gateway;dur=")
+                .append(millis(upstreamNanos != null ? totalNanos - upstreamNanos : totalNanos));
+        if (upstreamNanos == null) {
+            return header.toString();
+        }
+        header.append(", upstream;dur=").append(millis(upstreamNanos));
+        if (downstream == null || downstream.isEmpty()) {
+            return header.toString();
+        }
+        String prefix = routeId != null ? routeId + "." : "";
+        StringBuilder entries = new StringBuilder();
+        double app = -1;
+        for (String value : downstream) {
+            for (String metric : value.split(",")) {
+                String entry = metric.trim();
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                if (entry.startsWith("app;")) {
+                    app = duration(entry);
+                }
+                entries.append(", ").append(prefix).append(entry);
+            }
+        }
+        if (app >= 0) {
+            double network = Math.max(0, upstreamNanos / 1_000_000.0 - app);
+            header.append(", network;dur=").append(millis(Math.round(network * 1_000_000)));
+        }
+        return header.append(entries).toString();
+    }
+
+    // Valeur du paramètre dur d'une entrée (ms), -1 si absente ou illisible
+    private static double duration(String entry) {
+        for (String param : entry.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.startsWith("dur=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(4));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Millisecondes au dixième, sans passer par String.format
+    static String millis(long nanos) {
+        long tenths = Math.round(nanos / 100_000.0);
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+}
@@ -0,0 +1,35 @@
+package com.senyitte.gatewayservice.timing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Durée de l'appel amont : de l'envoi de la requête à la réception des en-têtes de réponse
+// (juste avant NettyRoutingFilter, qui termine quand la réponse amont arrive ; le corps est ensuite
+// transmis au fil de l'eau par NettyWriteResponseFilter). Pas d'appel amont (cache, coalescence,
+// circuit ouvert) : pas de mesure.
+@Component
+@ConditionalOnProperty(name = "gateway.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class UpstreamTimingGlobalFilter implements GlobalFilter, Ordered {
+
+    static final String UPSTREAM_NANOS_ATTR = UpstreamTimingGlobalFilter.class.getName() + ".upstreamNanos";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return chain.filter(exchange).doOnSuccess(done ->
+                    exchange.getAttributes().put(UPSTREAM_NANOS_ATTR, System.nanoTime() - start));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
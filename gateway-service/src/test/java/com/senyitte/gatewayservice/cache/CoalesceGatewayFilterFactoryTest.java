@@ -0,0 +1,143 @@
+package com.senyitte.gatewayservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalesceGatewayFilterFactoryTest {
+
+    private static final int BURST = 50;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CoalesceGatewayFilterFactory factory = new CoalesceGatewayFilterFactory(registry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    // Amont simulé : répond après 100 ms, le temps que toute la rafale arrive
+    // (X-Cache: MISS comme posé par le filtre ResponseCache en amont de la coalescence)
+    private final GatewayFilterChain upstream = exchange -> Mono.delay(Duration.ofMillis(100)).then(Mono.defer(() -> {
+        upstreamCalls.incrementAndGet();
+        exchange.getResponse().getHeaders().set("X-Cache", "MISS");
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                .wrap("{\"id\":1}".getBytes(StandardCharsets.UTF_8))));
+    }));
+
+    @Test
+    void burstOfIdenticalGetsMakesASingleUpstreamCall() {
+        GatewayFilter filter = factory.apply(config(DataSize.ofKilobytes(64)));
+
+        List<MockServerWebExchange> exchanges = burst(filter, () -> MockServerHttpRequest.get("/api/customers/1").build());
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(exchanges).allSatisfy(exchange -> {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        });
+        assertThat(exchanges).filteredOn(e -> "COALESCED".equals(e.getResponse().getHeaders().getFirst("X-Cache")))
+                .hasSize(BURST - 1);
+        assertThat(registry.get("gateway.coalescing.requests").tag("role", "follower").counter().count())
+                .isEqualTo(BURST - 1);
+    }
+
+    @Test
+    void differentAcceptHeadersAreNotShared() {
+        GatewayFilter filter = factory.apply(config(DataSize.ofKilobytes(64)));
+        AtomicInteger sequence = new AtomicInteger();
+
+        burst(filter, () -> MockServerHttpRequest.get("/api/customers/1")
+                .header(HttpHeaders.ACCEPT, sequence.getAndIncrement() % 2 == 0 ? "application/json" : "application/cbor")
+                .build());
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void oversizedResponseFallsBackToOneCallPerRequest() {
+        GatewayFilter filter = factory.apply(config(DataSize.ofBytes(4)));
+
+        List<MockServerWebExchange> exchanges = burst(filter, () -> MockServerHttpRequest.get("/api/customers/1").build());
+
+        assertThat(upstreamCalls).hasValue(BURST);
+        assertThat(exchanges).allSatisfy(exchange ->
+                assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}"));
+        assertThat(registry.get("gateway.coalescing.requests").tag("role", "fallback").counter().count())
+                .isEqualTo(BURST - 1);
+    }
+
+    @Test
+    void pathsOutsideTheConfiguredPatternsAreNotCoalesced() {
+        GatewayFilter filter = factory.apply(config(DataSize.ofKilobytes(64)));
+
+        burst(filter, () -> MockServerHttpRequest.get("/api/customers/search").queryParam("q", "dupont").build());
+
+        assertThat(upstreamCalls).hasValue(BURST);
+    }
+
+    @Test
+    void distinctKeysBeyondMaxInFlightPassThroughUncoalesced() {
+        CoalesceGatewayFilterFactory.Config config = config(DataSize.ofKilobytes(64));
+        config.setMaxInFlight(10);
+        GatewayFilter filter = factory.apply(config);
+        AtomicInteger id = new AtomicInteger();
+
+        List<MockServerWebExchange> exchanges = burst(filter,
+                () -> MockServerHttpRequest.get("/api/customers/" + id.incrementAndGet()).build());
+
+        assertThat(upstreamCalls).hasValue(BURST);
+        assertThat(exchanges).allSatisfy(exchange ->
+                assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK));
+        assertThat(registry.get("gateway.coalescing.requests").tag("role", "leader").counter().count()).isEqualTo(10);
+        assertThat(registry.get("gateway.coalescing.requests").tag("role", "bypass").counter().count())
+                .isEqualTo(BURST - 10);
+    }
+
+    @Test
+    void followersDoNotCountAgainstMaxInFlight() {
+        CoalesceGatewayFilterFactory.Config config = config(DataSize.ofKilobytes(64));
+        config.setMaxInFlight(1);
+        GatewayFilter filter = factory.apply(config);
+
+        burst(filter, () -> MockServerHttpRequest.get("/api/customers/1").build());
+        // Slot libéré une fois la réponse partagée : une nouvelle clé redevient leader
+        burst(filter, () -> MockServerHttpRequest.get("/api/customers/2").build());
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(registry.get("gateway.coalescing.requests").tag("role", "bypass").counter().count()).isZero();
+    }
+
+    private List<MockServerWebExchange> burst(GatewayFilter filter, Supplier<MockServerHttpRequest> request) {
+        List<MockServerWebExchange> exchanges = Flux.range(0, BURST)
+                .map(i -> MockServerWebExchange.from(request.get()))
+                .collectList()
+                .block();
+        Flux.fromIterable(exchanges)
+                .flatMap(exchange -> filter.filter(exchange, upstream))
+                .blockLast(Duration.ofSeconds(5));
+        return exchanges;
+    }
+
+    private static CoalesceGatewayFilterFactory.Config config(DataSize maxBodySize) {
+        CoalesceGatewayFilterFactory.Config config = new CoalesceGatewayFilterFactory.Config();
+        config.setPaths(List.of("/api/customers/{id:\\d+}"));
+        config.setMaxBodySize(maxBodySize);
+        return config;
+    }
+}
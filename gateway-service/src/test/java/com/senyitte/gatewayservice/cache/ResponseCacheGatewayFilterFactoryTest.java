@@ -0,0 +1,120 @@
+package com.senyitte.gatewayservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ressources cacheables /api/accounts/{id} ; l'amont renvoie le nombre d'appels reçus comme corps et ETag
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final ResponseCacheGatewayFilterFactory factory =
+            new ResponseCacheGatewayFilterFactory(new ResponseCacheStore(new ResponseCacheProperties()));
+    private final GatewayFilter filter = factory.apply(config());
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private Runnable duringUpstreamCall = () -> { };
+
+    private final GatewayFilterChain upstream = exchange -> Mono.defer(() -> {
+        int call = upstreamCalls.incrementAndGet();
+        duringUpstreamCall.run();
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        exchange.getResponse().getHeaders().setETag("\"" + call + "\"");
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                .wrap(Integer.toString(call).getBytes(StandardCharsets.UTF_8))));
+    });
+
+    private MockServerWebExchange run(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    private MockServerWebExchange get(String path) {
+        return run(MockServerHttpRequest.get(path).build());
+    }
+
+    private static String cacheStatus(MockServerWebExchange exchange) {
+        return exchange.getResponse().getHeaders().getFirst("X-Cache");
+    }
+
+    @Test
+    void secondGetIsServedFromTheCache() {
+        MockServerWebExchange first = get("/api/accounts/5");
+        MockServerWebExchange second = get("/api/accounts/5");
+
+        assertThat(cacheStatus(first)).isEqualTo("MISS");
+        assertThat(cacheStatus(second)).isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("1");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void upToDateValidatorGetsA304FromTheCache() {
+        get("/api/accounts/5");
+
+        MockServerWebExchange conditional = run(MockServerHttpRequest.get("/api/accounts/5")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1\"").build());
+
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(cacheStatus(conditional)).isEqualTo("HIT");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void responsesAreKeptPerAcceptEncoding() {
+        run(MockServerHttpRequest.get("/api/accounts/5").header(HttpHeaders.ACCEPT_ENCODING, "gzip").build());
+
+        MockServerWebExchange identity = get("/api/accounts/5");
+        MockServerWebExchange gzip = run(MockServerHttpRequest.get("/api/accounts/5")
+                .header(HttpHeaders.ACCEPT_ENCODING, "GZIP").build());
+
+        assertThat(cacheStatus(identity)).isEqualTo("MISS");
+        assertThat(cacheStatus(gzip)).isEqualTo("HIT");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void writeOnASubResourceInvalidatesItsAncestor() {
+        get("/api/accounts/5");
+
+        run(MockServerHttpRequest.post("/api/accounts/5/credit").build());
+        MockServerWebExchange afterWrite = get("/api/accounts/5");
+
+        assertThat(cacheStatus(afterWrite)).isEqualTo("MISS");
+        assertThat(afterWrite.getResponse().getBodyAsString().block()).isEqualTo("3");
+    }
+
+    @Test
+    void getRacingAWriteDoesNotStoreTheStateReadBeforeIt() {
+        // L'écriture se termine pendant l'appel amont du GET : sa réponse peut précéder l'écriture
+        duringUpstreamCall = () -> {
+            duringUpstreamCall = () -> { };
+            run(MockServerHttpRequest.put("/api/accounts/5").build());
+        };
+        get("/api/accounts/5");
+
+        MockServerWebExchange next = get("/api/accounts/5");
+
+        assertThat(cacheStatus(next)).isEqualTo("MISS");
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    private static ResponseCacheGatewayFilterFactory.Config config() {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setPaths(List.of("/api/accounts/{id:\\d+}"));
+        return config;
+    }
+}
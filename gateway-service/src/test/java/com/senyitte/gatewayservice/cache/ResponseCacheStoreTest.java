@@ -0,0 +1,61 @@
+package com.senyitte.gatewayservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheStoreTest {
+
+    private static final String ROUTE = "customer-service";
+    private static final String PATH = "/api/customers/1";
+
+    private final ResponseCacheStore store = new ResponseCacheStore(new ResponseCacheProperties());
+
+    private static CachedResponse response(String body) {
+        return new CachedResponse(HttpStatus.OK, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8),
+                System.nanoTime(), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void storedVariantIsServedUntilItsPathIsInvalidated() {
+        store.put(ROUTE, PATH, "json", response("{}"), store.generation(ROUTE, PATH));
+
+        assertThat(store.get(ROUTE, PATH, "json")).isNotNull();
+        assertThat(store.get(ROUTE, PATH, "cbor")).isNull();
+
+        store.invalidate(PATH);
+
+        assertThat(store.get(ROUTE, PATH, "json")).isNull();
+    }
+
+    @Test
+    void responseReadBeforeAPathInvalidationIsNotStored() {
+        // Lecture amont commencée, écriture sur le chemin pendant l'appel, puis fin de la lecture
+        ResponseCacheStore.Generation generation = store.generation(ROUTE, PATH);
+        store.invalidate(PATH);
+
+        store.put(ROUTE, PATH, "json", response("{\"before\":true}"), generation);
+
+        assertThat(store.get(ROUTE, PATH, "json")).isNull();
+        // Une lecture commencée après l'écriture est stockée normalement
+        store.put(ROUTE, PATH, "json", response("{}"), store.generation(ROUTE, PATH));
+        assertThat(store.get(ROUTE, PATH, "json")).isNotNull();
+    }
+
+    @Test
+    void routeInvalidationHidesEntriesAndRejectsPendingPuts() {
+        store.put(ROUTE, PATH, "json", response("{}"), store.generation(ROUTE, PATH));
+        ResponseCacheStore.Generation pending = store.generation(ROUTE, "/api/customers/2");
+
+        store.invalidateRoute(ROUTE);
+        store.put(ROUTE, "/api/customers/2", "json", response("{}"), pending);
+
+        assertThat(store.get(ROUTE, PATH, "json")).isNull();
+        assertThat(store.get(ROUTE, "/api/customers/2", "json")).isNull();
+    }
+}
@@ -0,0 +1,88 @@
+package com.senyitte.gatewayservice.overview;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class CustomerOverviewServiceTest {
+
+    private static final String CUSTOMER = """
+            {"id":7,"firstName":"Awa","lastName":"Diop","email":"awa@example.com","version":3}""";
+    private static final String ACCOUNTS = """
+            [{"id":1,"accountNumber":"C-1","type":"CURRENT","balance":100.25,"customerId":7},
+             {"id":2,"accountNumber":"C-2","type":"CURRENT","balance":50.25,"customerId":7},
+             {"id":3,"accountNumber":"S-1","type":"SAVINGS","balance":1000.00,"customerId":7}]""";
+
+    private final List<URI> requested = new CopyOnWriteArrayList<>();
+
+    @Test
+    void mergesCustomerAndAccountsWithTotalsPerType() {
+        CustomerOverviewService service = service(HttpStatus.OK);
+
+        StepVerifier.create(service.getOverview(7L))
+                .assertNext(overview -> {
+                    assertThat(overview.customer().email()).isEqualTo("awa@example.com");
+                    assertThat(overview.accounts()).hasSize(3);
+                    assertThat(overview.totalsByType()).containsExactly(
+                            entry("CURRENT", new BigDecimal("150.50")), entry("SAVINGS", new BigDecimal("1000.00")));
+                    assertThat(overview.totalBalance()).isEqualByComparingTo("1150.50");
+                })
+                .verifyComplete();
+
+        // Comptes sans customer embarqué : pas de second appel customer côté account-services
+        assertThat(requested).extracting(URI::toString).containsExactlyInAnyOrder(
+                "http://CUSTOMER-SERVICE/api/customers/7",
+                "http://ACCOUNT-SERVICES/api/accounts/customer/7?includeCustomer=false");
+    }
+
+    @Test
+    void customerWithoutAccountsHasZeroTotals() {
+        CustomerOverview overview = CustomerOverview.of(
+                new CustomerSummary(7L, "Awa", "Diop", "awa@example.com", 3L), List.of());
+
+        assertThat(overview.totalsByType()).containsOnlyKeys("CURRENT", "SAVINGS");
+        assertThat(overview.totalBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void unknownCustomerIsNotFound() {
+        CustomerOverviewService service = service(HttpStatus.NOT_FOUND);
+
+        StepVerifier.create(service.getOverview(7L))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOfSatisfying(ResponseStatusException.class,
+                                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND)))
+                .verify();
+    }
+
+    // Les deux services simulés répondent après 100 ms ; timeout à 180 ms : des appels en série échoueraient
+    private CustomerOverviewService service(HttpStatus customerStatus) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requested.add(request.url());
+                    boolean customer = request.url().getHost().equals("CUSTOMER-SERVICE");
+                    HttpStatus status = customer ? customerStatus : HttpStatus.OK;
+                    return Mono.delay(Duration.ofMillis(100)).map(tick -> ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(status == HttpStatus.OK ? (customer ? CUSTOMER : ACCOUNTS) : "")
+                            .build());
+                })
+                .build();
+        return new CustomerOverviewService(webClient, Duration.ofMillis(180));
+    }
+}
@@ -0,0 +1,71 @@
+package com.senyitte.gatewayservice.timing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingGlobalFilterTest {
+
+    private final ServerTimingGlobalFilter serverTiming = new ServerTimingGlobalFilter();
+    private final UpstreamTimingGlobalFilter upstreamTiming = new UpstreamTimingGlobalFilter();
+
+    @Test
+    void downstreamPhasesArePrefixedByTheRouteId() {
+        MockServerWebExchange exchange = exchange();
+        // Amont simulé : en-têtes reçus après 50 ms, dont 30 ms déclarées par le service
+        GatewayFilterChain upstream = e -> Mono.delay(Duration.ofMillis(50)).then(Mono.fromRunnable(() -> {
+            e.getResponse().setStatusCode(HttpStatus.OK);
+            e.getResponse().getHeaders().add(ServerTimingGlobalFilter.HEADER, "app;dur=30.0, db;dur=12.4");
+        }));
+
+        serverTiming.filter(exchange, e -> upstreamTiming.filter(e, upstream)
+                        .then(e.getResponse().writeWith(Mono.just(e.getResponse().bufferFactory()
+                                .wrap("{}".getBytes(StandardCharsets.UTF_8))))))
+                .block();
+
+        List<String> values = exchange.getResponse().getHeaders().get(ServerTimingGlobalFilter.HEADER);
+        assertThat(values).singleElement().asString()
+                .matches("gateway;dur=\\d+\\.\\d, upstream;dur=\\d+\\.\\d, network;dur=\\d+\\.\\d, "
+                        + "account-service\\.app;dur=30\\.0, account-service\\.db;dur=12\\.4");
+    }
+
+    @Test
+    void responseWithoutUpstreamCallOnlyReportsTheGateway() {
+        MockServerWebExchange exchange = exchange();
+
+        serverTiming.filter(exchange, e -> e.getResponse().setComplete()).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(ServerTimingGlobalFilter.HEADER))
+                .matches("gateway;dur=\\d+\\.\\d");
+    }
+
+    @Test
+    void networkIsUpstreamMinusServiceTime() {
+        String merged = ServerTimingGlobalFilter.merge(60_000_000L, 50_000_000L, "customer-service",
+                List.of("app;dur=42.5", "db;dur=10.0;desc=\"select\""));
+
+        assertThat(merged).isEqualTo("gateway;dur=10.0, upstream;dur=50.0, network;dur=7.5, "
+                + "customer-service.app;dur=42.5, customer-service.db;dur=10.0;desc=\"select\"");
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/accounts/1").build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("account-service")
+                .uri("lb://ACCOUNT-SERVICES")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,62 @@
+package com.senyitte.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Charge vue d'une instance : requêtes en cours et latence "peak EWMA"
+// - une latence plus haute que la moyenne est prise immédiatement (une instance qui ralentit est évitée tout de suite)
+// - une latence plus basse est lissée selon le temps écoulé depuis la dernière mesure
+// - à la lecture, la moyenne décroît avec le temps : une instance évitée finit par recevoir une requête de test
+final class InstanceLoad {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long firstSeenNanos;
+    // Protégés par this
+    private double ewmaNanos = Double.NaN;
+    private long stampNanos;
+
+    InstanceLoad(long firstSeenNanos) {
+        this.firstSeenNanos = firstSeenNanos;
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    // latencyNanos < 0 : durée inconnue, seule la requête en cours est retirée
+    void complete(long latencyNanos, long now, double decayNanos) {
+        inFlight.updateAndGet(count -> Math.max(0, count - 1));
+        if (latencyNanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (Double.isNaN(ewmaNanos) || latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double w = Math.exp(-Math.max(0, now - stampNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * w + latencyNanos * (1 - w);
+            }
+            stampNanos = now;
+        }
+    }
+
+    // NaN tant qu'aucune réponse n'a été mesurée
+    synchronized double latency(long now, double decayNanos) {
+        if (Double.isNaN(ewmaNanos)) {
+            return Double.NaN;
+        }
+        return ewmaNanos * Math.exp(-Math.max(0, now - stampNanos) / decayNanos);
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    // Slow-start : poids linéaire de minWeight à 1 sur la fenêtre
+    double weight(long now, long slowStartNanos, double minWeight) {
+        long age = now - firstSeenNanos;
+        if (slowStartNanos <= 0 || age >= slowStartNanos) {
+            return 1;
+        }
+        return Math.max(minWeight, (double) age / slowStartNanos);
+    }
+}
@@ -0,0 +1,92 @@
+package com.senyitte.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+// Statistiques vivantes par instance d'un service, alimentées par InstanceLoadLifecycle
+// et lues par PeakEwmaLoadBalancer (un objet par service, dans le contexte du load balancer)
+public class InstanceLoadStats {
+
+    private final ConcurrentMap<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final double decayNanos;
+    private final long slowStartNanos;
+    private final long failurePenaltyNanos;
+    private final double minWeight;
+    private volatile boolean initialized;
+
+    public InstanceLoadStats(PeakEwmaProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    InstanceLoadStats(PeakEwmaProperties properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.decayNanos = properties.getDecayTime().toNanos();
+        this.slowStartNanos = properties.getSlowStart().toNanos();
+        this.failurePenaltyNanos = properties.getFailurePenalty().toNanos();
+        this.minWeight = properties.getMinWeight();
+    }
+
+    // Les instances de la première liste tournaient avant nous : pas de slow-start pour elles
+    void track(List<ServiceInstance> instances) {
+        if (initialized) {
+            return;
+        }
+        synchronized (this) {
+            if (!initialized) {
+                long warm = nanoClock.getAsLong() - slowStartNanos;
+                instances.forEach(instance -> loads.computeIfAbsent(key(instance), k -> new InstanceLoad(warm)));
+                initialized = true;
+            }
+        }
+    }
+
+    public void start(ServiceInstance instance) {
+        load(instance).start();
+    }
+
+    // latencyNanos < 0 si la durée de l'appel est inconnue
+    public void complete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        long latency = failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos;
+        load(instance).complete(latency, nanoClock.getAsLong(), decayNanos);
+    }
+
+    long now() {
+        return nanoClock.getAsLong();
+    }
+
+    // Coût = latence × (requêtes en cours + 1) / poids de slow-start ; le plus faible l'emporte
+    ServiceInstance better(ServiceInstance a, ServiceInstance b) {
+        long now = nanoClock.getAsLong();
+        InstanceLoad loadA = load(a);
+        InstanceLoad loadB = load(b);
+        double latencyA = loadA.latency(now, decayNanos);
+        double latencyB = loadB.latency(now, decayNanos);
+        // Instance jamais mesurée : elle emprunte la latence de l'autre, seuls la charge et le slow-start départagent
+        if (Double.isNaN(latencyA)) {
+            latencyA = Double.isNaN(latencyB) ? 1 : latencyB;
+        }
+        if (Double.isNaN(latencyB)) {
+            latencyB = latencyA;
+        }
+        return cost(loadA, latencyA, now) <= cost(loadB, latencyB, now) ? a : b;
+    }
+
+    private double cost(InstanceLoad load, double latency, long now) {
+        return Math.max(latency, 1) * (load.inFlight() + 1) / load.weight(now, slowStartNanos, minWeight);
+    }
+
+    private InstanceLoad load(ServiceInstance instance) {
+        return loads.computeIfAbsent(key(instance), k -> new InstanceLoad(nanoClock.getAsLong()));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+}
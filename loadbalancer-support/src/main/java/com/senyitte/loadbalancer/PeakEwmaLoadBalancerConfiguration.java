@@ -0,0 +1,36 @@
+package com.senyitte.loadbalancer;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Configuration par service appelé, à déclarer dans l'application :
+//   @LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+// Pas de @Configuration : chargée dans le contexte enfant de chaque service, jamais par le component scan
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public InstanceLoadStats instanceLoadStats(Environment environment) {
+        return new InstanceLoadStats(Binder.get(environment)
+                .bindOrCreate(PeakEwmaProperties.PREFIX, PeakEwmaProperties.class));
+    }
+
+    // Remplace le round-robin par défaut (LoadBalancerClientConfiguration est @ConditionalOnMissingBean)
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(Environment environment,
+                                                                     LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                     InstanceLoadStats stats) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), stats);
+    }
+
+    @Bean
+    public InstanceLoadLifecycle instanceLoadLifecycle(InstanceLoadStats stats) {
+        return new InstanceLoadLifecycle(stats);
+    }
+}
@@ -0,0 +1,50 @@
+package com.senyitte.loadbalancer;
+
+import java.time.Duration;
+
+// Réglages du load balancer (préfixe loadbalancer.peak-ewma), communs à tous les services appelés
+public class PeakEwmaProperties {
+
+    public static final String PREFIX = "loadbalancer.peak-ewma";
+
+    // Demi-vie approximative de la latence mémorisée : une instance évitée finit par être ré-essayée
+    private Duration decayTime = Duration.ofSeconds(10);
+    // Montée en charge progressive d'une instance apparue après le démarrage
+    private Duration slowStart = Duration.ofSeconds(30);
+    // Latence minimale comptée pour un appel en erreur (5xx, timeout, connexion refusée)
+    private Duration failurePenalty = Duration.ofSeconds(1);
+    // Poids de départ d'une instance en slow-start (1 = pleine capacité)
+    private double minWeight = 0.1;
+
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    public void setDecayTime(Duration decayTime) {
+        this.decayTime = decayTime;
+    }
+
+    public Duration getSlowStart() {
+        return slowStart;
+    }
+
+    public void setSlowStart(Duration slowStart) {
+        this.slowStart = slowStart;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+
+    public double getMinWeight() {
+        return minWeight;
+    }
+
+    public void setMinWeight(double minWeight) {
+        this.minWeight = minWeight;
+    }
+}
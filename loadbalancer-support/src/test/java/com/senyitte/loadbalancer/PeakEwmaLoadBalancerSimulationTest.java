@@ -0,0 +1,167 @@
+package com.senyitte.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Simulation à événements discrets : horloge factice, 1000 req/s, instances à latence injectée
+class PeakEwmaLoadBalancerSimulationTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MS);
+    private final Random random = new Random(42);
+
+    @Test
+    void slowInstanceIsAvoidedAndTailLatencyDrops() {
+        List<ServiceInstance> instances = instances(4);
+        Map<ServiceInstance, Long> latencies = Map.of(
+                instances.get(0), 10 * MS, instances.get(1), 10 * MS,
+                instances.get(2), 10 * MS, instances.get(3), 250 * MS);
+
+        AtomicInteger next = new AtomicInteger();
+        Result roundRobin = simulate(list -> list.get(next.getAndIncrement() % list.size()),
+                null, instances, latencies, 20_000);
+
+        InstanceLoadStats stats = new InstanceLoadStats(new PeakEwmaProperties(), clock::get);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, stats, () -> random);
+        Result p2c = simulate(list -> balancer.choose(list).getServer(), stats, instances, latencies, 20_000);
+
+        assertThat(roundRobin.share(instances.get(3))).isGreaterThan(0.24);
+        assertThat(roundRobin.percentile(0.99)).isGreaterThanOrEqualTo(250 * MS);
+        assertThat(p2c.share(instances.get(3))).isLessThan(0.01);
+        assertThat(p2c.percentile(0.99)).isLessThan(20 * MS);
+    }
+
+    @Test
+    void newInstanceRampsUpDuringSlowStart() {
+        PeakEwmaProperties properties = new PeakEwmaProperties();
+        properties.setSlowStart(Duration.ofSeconds(10));
+        InstanceLoadStats stats = new InstanceLoadStats(properties, clock::get);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, stats, () -> random);
+        List<ServiceInstance> instances = instances(4);
+        Map<ServiceInstance, Long> latencies = new HashMap<>();
+        instances.forEach(instance -> latencies.put(instance, 10 * MS));
+
+        // Trois instances au démarrage, la quatrième s'enregistre ensuite
+        simulate(list -> balancer.choose(list).getServer(), stats, instances.subList(0, 3), latencies, 5_000);
+        ServiceInstance added = instances.get(3);
+        Result firstSecond = simulate(list -> balancer.choose(list).getServer(), stats, instances, latencies, 1_000);
+        simulate(list -> balancer.choose(list).getServer(), stats, instances, latencies, 10_000);
+        Result warmedUp = simulate(list -> balancer.choose(list).getServer(), stats, instances, latencies, 5_000);
+
+        assertThat(firstSecond.share(added)).isLessThan(0.10);
+        assertThat(warmedUp.share(added)).isBetween(0.15, 0.35);
+    }
+
+    @Test
+    void failingInstanceIsPenalized() {
+        InstanceLoadStats stats = new InstanceLoadStats(new PeakEwmaProperties(), clock::get);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, stats, () -> random);
+        List<ServiceInstance> instances = instances(3);
+        stats.track(instances);
+
+        // Réponses rapides mais en erreur : la pénalité l'emporte sur la latence mesurée
+        stats.start(instances.get(0));
+        stats.complete(instances.get(0), MS, true);
+        stats.start(instances.get(1));
+        stats.complete(instances.get(1), 20 * MS, false);
+        stats.start(instances.get(2));
+        stats.complete(instances.get(2), 20 * MS, false);
+
+        int chosen = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (balancer.choose(instances).getServer() == instances.get(0)) {
+                chosen++;
+            }
+        }
+        assertThat(chosen).isZero();
+    }
+
+    // Une requête par milliseconde ; chaque réponse arrive après la latence de l'instance (±20 %)
+    private Result simulate(Function<List<ServiceInstance>, ServiceInstance> choose, InstanceLoadStats stats,
+                            List<ServiceInstance> instances, Map<ServiceInstance, Long> latencies, int requests) {
+        record Completion(long at, ServiceInstance instance, long latency) {
+        }
+        PriorityQueue<Completion> pending = new PriorityQueue<>((a, b) -> Long.compare(a.at(), b.at()));
+        Result result = new Result(requests);
+        long start = clock.get();
+        for (int i = 0; i <= requests; i++) {
+            long arrival = start + i * MS;
+            while (!pending.isEmpty() && pending.peek().at() <= arrival) {
+                Completion completion = pending.poll();
+                clock.set(completion.at());
+                if (stats != null) {
+                    stats.complete(completion.instance(), completion.latency(), false);
+                }
+            }
+            clock.set(arrival);
+            if (i == requests) {
+                break;
+            }
+            ServiceInstance instance = choose.apply(instances);
+            if (stats != null) {
+                stats.start(instance);
+            }
+            long latency = (long) (latencies.get(instance) * (0.8 + 0.4 * random.nextDouble()));
+            pending.add(new Completion(arrival + latency, instance, latency));
+            result.record(instance, latency);
+        }
+        // Les requêtes encore en cours se terminent avant la phase suivante
+        while (!pending.isEmpty()) {
+            Completion completion = pending.poll();
+            clock.set(Math.max(clock.get(), completion.at()));
+            if (stats != null) {
+                stats.complete(completion.instance(), completion.latency(), false);
+            }
+        }
+        return result;
+    }
+
+    private static List<ServiceInstance> instances(int count) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            instances.add(new DefaultServiceInstance("customer-service-" + i, "customer-service", "10.0.0." + i, 8081, false));
+        }
+        return instances;
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final Map<ServiceInstance, Integer> counts = new HashMap<>();
+        private int size;
+
+        Result(int requests) {
+            this.latencies = new long[requests];
+        }
+
+        void record(ServiceInstance instance, long latency) {
+            latencies[size++] = latency;
+            counts.merge(instance, 1, Integer::sum);
+        }
+
+        double share(ServiceInstance instance) {
+            return counts.getOrDefault(instance, 0) / (double) size;
+        }
+
+        long percentile(double p) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(p * size) - 1];
+        }
+    }
+}